@@ -38,6 +38,8 @@ public class BeaconResponse implements Serializable {
     private Beacon beacon;
     private Query query;
     private Boolean response = null;
+    private boolean stale = false;
+    private boolean pending = false;
 
     public BeaconResponse(Beacon beacon, Query query, Boolean response) {
         this.beacon = beacon;
@@ -69,12 +71,40 @@ public class BeaconResponse implements Serializable {
         this.response = response;
     }
 
+    /**
+     * Checks whether the response was served from a stale cache entry while being refreshed.
+     *
+     * @return true if stale, false otherwise
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    /**
+     * Checks whether the beacon is still being queried, i.e. the response is not known yet but may be retrieved later.
+     *
+     * @return true if pending, false otherwise
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 41 * hash + (this.beacon != null ? this.beacon.hashCode() : 0);
         hash = 41 * hash + (this.query != null ? this.query.hashCode() : 0);
         hash = 41 * hash + (this.response != null ? this.response.hashCode() : 0);
+        hash = 41 * hash + (this.stale ? 1 : 0);
+        hash = 41 * hash + (this.pending ? 1 : 0);
         return hash;
     }
 
@@ -96,12 +126,18 @@ public class BeaconResponse implements Serializable {
         if (this.response != other.response && (this.response == null || !this.response.equals(other.response))) {
             return false;
         }
+        if (this.stale != other.stale) {
+            return false;
+        }
+        if (this.pending != other.pending) {
+            return false;
+        }
         return true;
     }
 
     @Override
     public String toString() {
-        return "BeaconResponse{" + "beacon=" + beacon + ", query=" + query + ", response=" + response + '}';
+        return "BeaconResponse{" + "beacon=" + beacon + ", query=" + query + ", response=" + response + ", stale=" + stale + ", pending=" + pending + '}';
     }
 
 }
@@ -25,18 +25,9 @@ package com.dnastack.bob.processor;
 
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.Query;
-import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import javax.ejb.AsyncResult;
-import javax.ejb.Asynchronous;
-
-import static com.dnastack.bob.util.Constants.REQUEST_TIMEOUT;
 
 /**
  * Abstract beacon service handling multiple genome specific queries.
@@ -48,68 +39,10 @@ public abstract class AbstractBeaconProcessor implements BeaconProcessor, Serial
 
     private static final long serialVersionUID = 10L;
 
-    private List<Future<String>> executeQueriesInParallel(Beacon beacon, Query query) {
-        List<Future<String>> fs = new ArrayList<>();
-        if (query.getReference() == null) {
-            // query all refs
-            for (Reference ref : getSupportedReferences()) {
-                fs.add(getQueryResponse(beacon, new Query(query.getChromosome(), query.getPosition(), query.getAllele(), ref)));
-            }
-        } else if (getSupportedReferences().contains(query.getReference())) {
-            // query only the specified ref
-            fs.add(getQueryResponse(beacon, query));
-        }
-
-        return fs;
-    }
-
-    private List<Future<Boolean>> parseResultsInParallel(Beacon b, List<Future<String>> fs) {
-        List<Future<Boolean>> bs = new ArrayList<>();
-        for (Future<String> f : fs) {
-            try {
-                bs.add(parseQueryResponse(b, f.get(REQUEST_TIMEOUT, TimeUnit.SECONDS)));
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                // ignore
-            }
-        }
-
-        return bs;
-    }
-
-    private Boolean collectResults(List<Future<Boolean>> bs) {
-        Boolean res = null;
-
-        for (Future<Boolean> b : bs) {
-            Boolean r = null;
-            try {
-                r = b.get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                // ignore, already null
-            }
-            if (r != null) {
-                if (r) {
-                    res = r;
-                    break;
-                } else {
-                    if (res == null) {
-                        res = r;
-                    }
-                }
-            }
-        }
-
-        return res;
-    }
-
     @Override
-    @Asynchronous
-    public Future<Boolean> executeQuery(Beacon beacon, Query query) {
-        Boolean res = null;
-
-        if (query != null) {
-            res = collectResults(parseResultsInParallel(beacon, executeQueriesInParallel(beacon, query)));
-        }
-
-        return new AsyncResult<>(res);
+    public ListenableFuture<Boolean> executeQuery(Beacon beacon, Query query, Deadline deadline) {
+        // identical concurrent queries share one upstream request, genome specific queries are fetched and parsed
+        // independently of each other
+        return InFlightQueryRegistry.execute(LegacyBeaconProcessorAdapter.adapt(this), beacon, query, deadline);
     }
 }
@@ -26,19 +26,20 @@ package com.dnastack.bob.processor;
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.Query;
 import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Future;
-import javax.ejb.AsyncResult;
-import javax.ejb.Asynchronous;
 import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicNameValuePair;
 
 import static com.dnastack.bob.util.HttpUtils.createRequest;
-import static com.dnastack.bob.util.HttpUtils.executeRequest;
+import static com.dnastack.bob.util.HttpUtils.executeRequestAsync;
+import static com.dnastack.bob.util.ParsingUtils.containsStringMatcher;
 import static com.dnastack.bob.util.ParsingUtils.parseContainsStringCaseInsensitive;
 import static com.dnastack.bob.util.QueryUtils.denormalizeAllele;
 import static com.dnastack.bob.util.QueryUtils.denormalizeChromosome;
@@ -71,24 +72,22 @@ public class AmpLabBeaconProcessor extends AbstractBeaconProcessor {
     }
 
     @Override
-    @Asynchronous
-    public Future<String> getQueryResponse(Beacon beacon, Query query) {
-        String res = null;
+    public ListenableFuture<String> getQueryResponse(Beacon beacon, Query query, Deadline deadline) {
+        ListenableFuture<String> res = Futures.immediateFuture(null);
         try {
-            res = executeRequest(createRequest(BASE_URL, true, getQueryData(query.getReference().toString(), denormalizeChromosome(CHROM_TEMPLATE, query.getChromosome()), query.getPosition(), denormalizeAllele(query.getAllele()))));
+            res = executeRequestAsync(createRequest(BASE_URL, true, getQueryData(query.getReference().toString(), denormalizeChromosome(CHROM_TEMPLATE, query.getChromosome()), query.getPosition(), denormalizeAllele(query.getAllele()))), deadline, containsStringMatcher("beacon found", "beacon cannot find"));
         } catch (UnsupportedEncodingException ex) {
             // ignore, already null
         }
 
-        return new AsyncResult<>(res);
+        return res;
     }
 
     @Override
-    @Asynchronous
-    public Future<Boolean> parseQueryResponse(Beacon b, String response) {
+    public ListenableFuture<Boolean> parseQueryResponse(Beacon b, String response) {
         Boolean res = parseContainsStringCaseInsensitive(response, "beacon found", "beacon cannot find");
 
-        return new AsyncResult<>(res);
+        return Futures.immediateFuture(res);
     }
 
     @Override
@@ -26,11 +26,13 @@ package com.dnastack.bob.processor;
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.Query;
 import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.Set;
-import java.util.concurrent.Future;
 
 /**
- * Beacon query service.
+ * Beacon query service. Queries are executed through {@link BeaconQueryPipeline}, processors are adapted to the staged
+ * SPI by {@link LegacyBeaconProcessorAdapter}. New processors should implement {@link StagedBeaconProcessor} instead.
  *
  * @author Miroslav Cupak (mirocupak@gmail.com)
  * @version 1.0
@@ -45,14 +47,17 @@ public interface BeaconProcessor {
     Set<Reference> getSupportedReferences();
 
     /**
-     * Asynchronously executes a query agaist a beacon.
+     * Asynchronously executes a query agaist a beacon. Implementations must not block the calling thread, the result is
+     * delivered through the returned future.
      *
-     * @param beacon beacon
-     * @param query  query
+     * @param beacon   beacon
+     * @param query    query
+     * @param deadline deadline of the query
      *
-     * @return true/false according to the beacons response (or null if the valid response could not be obtained)
+     * @return true/false according to the beacons response (or null if the valid response could not be obtained),
+     *         fails with {@link com.dnastack.bob.util.QueryRejectedException} if the query was shed locally
      */
-    Future<Boolean> executeQuery(Beacon beacon, Query query);
+    ListenableFuture<Boolean> executeQuery(Beacon beacon, Query query, Deadline deadline);
 
     /**
      * Asynchronously xtracts beacon response value from the given raw query reponse.
@@ -62,16 +67,17 @@ public interface BeaconProcessor {
      *
      * @return true/false for valid values, null otherwise
      */
-    Future<Boolean> parseQueryResponse(Beacon beacon, String response);
+    ListenableFuture<Boolean> parseQueryResponse(Beacon beacon, String response);
 
     /**
      * Asynchronously obtains raw response to the query from the beacon.
      *
-     * @param beacon beacon to query
-     * @param query  query
+     * @param beacon   beacon to query
+     * @param query    query
+     * @param deadline deadline of the query
      *
      * @return raw result of the query from the beacon
      */
-    Future<String> getQueryResponse(Beacon beacon, Query query);
+    ListenableFuture<String> getQueryResponse(Beacon beacon, Query query, Deadline deadline);
 
 }
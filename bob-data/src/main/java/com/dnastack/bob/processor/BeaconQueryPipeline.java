@@ -0,0 +1,446 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.BeaconTimeouts;
+import com.dnastack.bob.util.Bulkhead;
+import com.dnastack.bob.util.CircuitBreaker;
+import com.dnastack.bob.util.CircuitBreakerRegistry;
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.QueryRejectedException;
+import com.dnastack.bob.util.RequestHedging;
+import com.dnastack.bob.util.Scheduler;
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes queries against {@link StagedBeaconProcessor}s. Every genome specific query runs its own fetch-parse chain,
+ * the results are OR-reduced once all the chains complete. Requests of a beacon are started and its responses parsed
+ * in its own {@link Bulkhead}, no thread waits for a stage to complete. Beacons of a {@link MultiBeaconProcessor} sharing a fetch group share
+ * the fetch stage of identical queries in progress. Every beacon is guarded by its own {@link CircuitBreaker} and
+ * gets its own timeout derived from its latencies by {@link BeaconTimeouts}, chains still running when it expires are
+ * cancelled. Slow fetches are hedged by {@link RequestHedging}. Queries shed locally fail with
+ * {@link QueryRejectedException} instead of completing with null, so that they are not mistaken for failures of the
+ * beacon.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconQueryPipeline {
+
+    private static final Function<List<Boolean>, Boolean> ANY_TRUE = new Function<List<Boolean>, Boolean>() {
+
+        @Override
+        public Boolean apply(List<Boolean> bs) {
+            Boolean res = null;
+
+            for (Boolean r : bs) {
+                if (r != null) {
+                    if (r) {
+                        res = r;
+                        break;
+                    } else {
+                        if (res == null) {
+                            res = r;
+                        }
+                    }
+                }
+            }
+
+            return res;
+        }
+    };
+
+    private static final InFlightRegistry<FetchKey, String> FETCHES = new InFlightRegistry<>();
+
+    private static final class FetchKey {
+
+        private final Class<?> processor;
+        private final String group;
+        private final Query query;
+
+        FetchKey(Class<?> processor, String group, Query query) {
+            this.processor = processor;
+            this.group = group;
+            this.query = query;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 29 * hash + Objects.hashCode(this.processor);
+            hash = 29 * hash + Objects.hashCode(this.group);
+            hash = 29 * hash + Objects.hashCode(this.query);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            final FetchKey other = (FetchKey) obj;
+            if (!Objects.equals(this.processor, other.processor)) {
+                return false;
+            }
+            if (!Objects.equals(this.group, other.group)) {
+                return false;
+            }
+            return Objects.equals(this.query, other.query);
+        }
+    }
+
+    private static Object unwrap(StagedBeaconProcessor p) {
+        return (p instanceof LegacyBeaconProcessorAdapter) ? ((LegacyBeaconProcessorAdapter) p).getProcessor() : p;
+    }
+
+    private static String getFetchGroup(StagedBeaconProcessor p, Beacon beacon) {
+        Object processor = unwrap(p);
+
+        return (processor instanceof MultiBeaconProcessor) ? ((MultiBeaconProcessor) processor).getFetchGroup(beacon) : null;
+    }
+
+    private static ListenableFuture<String> fetch(final StagedBeaconProcessor p, final Beacon beacon, final Query query, final Deadline deadline) {
+        final Supplier<ListenableFuture<String>> request = new Supplier<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> get() {
+                return p.fetch(beacon, query, deadline);
+            }
+        };
+        Supplier<ListenableFuture<String>> hedged = new Supplier<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> get() {
+                return RequestHedging.execute(beacon.getId(), deadline, request);
+            }
+        };
+
+        String group = getFetchGroup(p, beacon);
+        if (group == null) {
+            return hedged.get();
+        }
+
+        // pooled processor instances are interchangeable, fetches are shared by the processor class
+        return FETCHES.execute(new FetchKey(unwrap(p).getClass(), group, query), deadline, hedged);
+    }
+
+    private static List<Query> getReferenceQueries(StagedBeaconProcessor p, Query query) {
+        List<Query> qs = new ArrayList<>();
+        if (query.getReference() == null) {
+            // query all refs
+            for (Reference ref : p.getSupportedReferences()) {
+                qs.add(new Query(query.getChromosome(), query.getPosition(), query.getAllele(), ref));
+            }
+        } else if (p.getSupportedReferences().contains(query.getReference())) {
+            // query only the specified ref
+            qs.add(query);
+        }
+
+        return qs;
+    }
+
+    private static void propagateCancellation(final ListenableFuture<?> from, final ListenableFuture<?> to) {
+        from.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (from.isCancelled()) {
+                    to.cancel(true);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static QueryRejectedException getRejection(List<ListenableFuture<Boolean>> fs) {
+        for (ListenableFuture<Boolean> f : fs) {
+            if (f.isDone() && !f.isCancelled()) {
+                try {
+                    f.get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    if (ex.getCause() instanceof QueryRejectedException) {
+                        return (QueryRejectedException) ex.getCause();
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static void recordOutcome(String beaconId, CircuitBreaker breaker, ListenableFuture<Boolean> f, Deadline deadline, Deadline beaconDeadline, long duration) {
+        Boolean r = null;
+        boolean rejected = false;
+        if (!f.isCancelled()) {
+            try {
+                r = f.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                // null response, unless the beacon was not asked at all
+                rejected = ex.getCause() instanceof QueryRejectedException;
+            }
+        }
+
+        if (f.isCancelled() || rejected || (r == null && deadline.isExpired() && !breaker.isSlow(duration))) {
+            // the caller gave up, the query was shed locally or ran out of time before the beacon could be blamed
+            breaker.onIgnored();
+        } else if (r == null) {
+            breaker.onFailure(duration);
+        } else {
+            breaker.onSuccess(duration);
+        }
+
+        // beacon timeouts are recorded as well, so that the timeout of a beacon which slowed down grows
+        if (r != null || (!f.isCancelled() && !rejected && beaconDeadline.isExpired() && !deadline.isExpired())) {
+            BeaconTimeouts.record(beaconId, duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static ListenableFuture<Boolean> fetchAndParse(final StagedBeaconProcessor p, final Beacon beacon, final Query query, final Deadline deadline) {
+        final SettableFuture<Boolean> res = SettableFuture.create();
+        final Bulkhead bulkhead = Bulkhead.forBeacon(beacon.getId());
+        final FutureCallback<Boolean> parsed = new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean b) {
+                res.set(b);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                res.set(null);
+            }
+        };
+        final FutureCallback<String> fetched = new FutureCallback<String>() {
+
+            @Override
+            public void onSuccess(final String r) {
+                // parse off the I/O threads, so that a beacon with expensive responses only slows down itself
+                boolean accepted = bulkhead.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        Futures.addCallback(p.parse(beacon, r), parsed, MoreExecutors.directExecutor());
+                    }
+                });
+                if (!accepted) {
+                    res.setException(new QueryRejectedException("Bulkhead of " + beacon.getId() + " is full."));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (t instanceof QueryRejectedException) {
+                    res.setException(t);
+                } else {
+                    res.set(null);
+                }
+            }
+        };
+
+        boolean accepted = bulkhead.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                if (res.isDone() || deadline.isExpired()) {
+                    // abandoned while waiting in the bulkhead
+                    res.set(null);
+                    return;
+                }
+
+                ListenableFuture<String> response = fetch(p, beacon, query, deadline);
+                Futures.addCallback(response, fetched, MoreExecutors.directExecutor());
+                propagateCancellation(res, response);
+            }
+        });
+        if (!accepted) {
+            res.setException(new QueryRejectedException("Bulkhead of " + beacon.getId() + " is full."));
+        }
+
+        return res;
+    }
+
+    /**
+     * Asynchronously executes a query agaist a beacon.
+     *
+     * @param p        processor
+     * @param beacon   beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     *
+     * @return true/false according to the beacons response (or null if the valid response could not be obtained),
+     *         fails with {@link QueryRejectedException} if the query was shed locally
+     */
+    public static ListenableFuture<Boolean> execute(StagedBeaconProcessor p, Beacon beacon, Query query, final Deadline deadline) {
+        if (query == null) {
+            return Futures.immediateFuture(null);
+        }
+
+        List<Query> qs = getReferenceQueries(p, query);
+        if (qs.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+
+        // fail fast while the beacon is considered down
+        final String beaconId = beacon.getId();
+        final CircuitBreaker breaker = CircuitBreakerRegistry.get(beaconId);
+        if (!breaker.tryAcquire()) {
+            return Futures.immediateFailedFuture(new QueryRejectedException("Circuit breaker of " + beaconId + " is open."));
+        }
+
+        // the beacon gets only as much time as it usually needs
+        final long start = System.nanoTime();
+        final Deadline beaconDeadline = BeaconTimeouts.getDeadline(beaconId, deadline);
+        final List<ListenableFuture<Boolean>> bs = new ArrayList<>();
+        for (Query q : qs) {
+            bs.add(fetchAndParse(p, beacon, q, beaconDeadline));
+        }
+
+        // http timeouts restart on every activity, a slowly trickling response is abandoned at the beacon deadline
+        final ScheduledFuture<?> timeout = Scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                for (ListenableFuture<Boolean> b : bs) {
+                    b.cancel(true);
+                }
+            }
+        }, beaconDeadline.getRemaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+
+        // cancelling the reduced result cancels the components as well
+        final ListenableFuture<Boolean> res = Futures.transform(Futures.successfulAsList(bs), new Function<List<Boolean>, Boolean>() {
+
+            @Override
+            public Boolean apply(List<Boolean> rs) {
+                Boolean r = ANY_TRUE.apply(rs);
+                QueryRejectedException rejection = getRejection(bs);
+                if (r == null && rejection != null) {
+                    // the beacon was not asked, its answer is unknown
+                    throw rejection;
+                }
+
+                return r;
+            }
+        }, MoreExecutors.directExecutor());
+        res.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                timeout.cancel(false);
+                recordOutcome(beaconId, breaker, res, deadline, beaconDeadline, System.nanoTime() - start);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return res;
+    }
+
+    /**
+     * Asynchronously probes a beacon with a query. Unlike regular queries, probes bypass the circuit breaker, the
+     * bulkhead and the adaptive timeout of the beacon, and they are neither hedged nor shared with other queries, so
+     * that the result tells whether the beacon itself is responding. If the query does not specify a genome, only one
+     * of the genomes supported by the beacon is queried. Probes are still subject to the limits of the beacon's host.
+     *
+     * @param beacon   atomic beacon
+     * @param query    query
+     * @param deadline deadline of the probe
+     *
+     * @return true/false according to the beacons response (or null if the valid response could not be obtained),
+     *         fails with {@link QueryRejectedException} if the probe could not be sent in time
+     */
+    public static ListenableFuture<Boolean> probe(final Beacon beacon, Query query, Deadline deadline) {
+        if (query == null || beacon.getProcessor() == null) {
+            return Futures.immediateFuture(null);
+        }
+
+        final StagedBeaconProcessor p = LegacyBeaconProcessorAdapter.adapt(beacon.getProcessor());
+        List<Query> qs = getReferenceQueries(p, query);
+        if (qs.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+
+        final SettableFuture<Boolean> res = SettableFuture.create();
+        final FutureCallback<Boolean> parsed = new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean b) {
+                res.set(b);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                res.set(null);
+            }
+        };
+        ListenableFuture<String> response = p.fetch(beacon, qs.get(0), deadline);
+        Futures.addCallback(response, new FutureCallback<String>() {
+
+            @Override
+            public void onSuccess(String r) {
+                Futures.addCallback(p.parse(beacon, r), parsed, MoreExecutors.directExecutor());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (t instanceof QueryRejectedException) {
+                    res.setException(t);
+                } else {
+                    res.set(null);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+        propagateCancellation(res, response);
+
+        return res;
+    }
+
+    /**
+     * Asynchronously executes a query agaist a beacon using its processor.
+     *
+     * @param beacon   beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     *
+     * @return true/false according to the beacons response (or null if the valid response could not be obtained),
+     *         fails with {@link QueryRejectedException} if the query was shed locally
+     */
+    public static ListenableFuture<Boolean> execute(Beacon beacon, Query query, Deadline deadline) {
+        return beacon.getProcessor().executeQuery(beacon, query, deadline);
+    }
+}
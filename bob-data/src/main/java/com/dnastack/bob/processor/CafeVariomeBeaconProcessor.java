@@ -26,16 +26,16 @@ package com.dnastack.bob.processor;
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.Query;
 import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.Set;
-import java.util.concurrent.Future;
-import javax.ejb.AsyncResult;
-import javax.ejb.Asynchronous;
 
 import static com.dnastack.bob.util.HttpUtils.createRequest;
-import static com.dnastack.bob.util.HttpUtils.executeRequest;
+import static com.dnastack.bob.util.HttpUtils.executeRequestAsync;
 import static com.dnastack.bob.util.ParsingUtils.parseBooleanFromJson;
 import static com.dnastack.bob.util.QueryUtils.denormalizeChromosome;
 import static com.dnastack.bob.util.QueryUtils.denormalizePosition;
@@ -48,7 +48,7 @@ import static com.dnastack.bob.util.QueryUtils.denormalizePosition;
  */
 @Processor
 @CafeVariome
-public class CafeVariomeBeaconProcessor extends AbstractBeaconProcessor {
+public class CafeVariomeBeaconProcessor extends AbstractBeaconProcessor implements MultiBeaconProcessor {
 
     private static final long serialVersionUID = 12L;
     private static final String BASE_URL = "http://beacon.cafevariome.org/query";
@@ -74,25 +74,29 @@ public class CafeVariomeBeaconProcessor extends AbstractBeaconProcessor {
     }
 
     @Override
-    @Asynchronous
-    public Future<String> getQueryResponse(Beacon beacon, Query query) {
-        String res = null;
+    public ListenableFuture<String> getQueryResponse(Beacon beacon, Query query, Deadline deadline) {
+        ListenableFuture<String> res = Futures.immediateFuture(null);
 
         try {
-            res = executeRequest(createRequest(getQueryUrl(denormalizeChromosome("chr%s", query.getChromosome()).toLowerCase(), denormalizePosition(query.getPosition()), query.getAllele()), false, null));
+            res = executeRequestAsync(createRequest(getQueryUrl(denormalizeChromosome("chr%s", query.getChromosome()).toLowerCase(), denormalizePosition(query.getPosition()), query.getAllele()), false, null), deadline);
         } catch (MalformedURLException | UnsupportedEncodingException ex) {
             // ignore, already null
         }
 
-        return new AsyncResult<>(res);
+        return res;
     }
 
     @Override
-    @Asynchronous
-    public Future<Boolean> parseQueryResponse(Beacon b, String response) {
+    public ListenableFuture<Boolean> parseQueryResponse(Beacon b, String response) {
         Boolean res = parseBooleanFromJson(response, RESPONSE_FIELD, getJsonFieldName(b));
 
-        return new AsyncResult<>(res);
+        return Futures.immediateFuture(res);
+    }
+
+    @Override
+    public String getFetchGroup(Beacon beacon) {
+        // all the beacons are served by the same endpoint, they only differ in the field of the response
+        return BASE_URL;
     }
 
     @Override
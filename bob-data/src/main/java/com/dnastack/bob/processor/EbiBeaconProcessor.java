@@ -26,16 +26,17 @@ package com.dnastack.bob.processor;
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.Query;
 import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.Set;
-import java.util.concurrent.Future;
-import javax.ejb.AsyncResult;
-import javax.ejb.Asynchronous;
 
 import static com.dnastack.bob.util.HttpUtils.createRequest;
-import static com.dnastack.bob.util.HttpUtils.executeRequest;
+import static com.dnastack.bob.util.HttpUtils.executeRequestAsync;
+import static com.dnastack.bob.util.ParsingUtils.jsonMatcher;
 import static com.dnastack.bob.util.ParsingUtils.parseBooleanFromJson;
 import static com.dnastack.bob.util.QueryUtils.denormalizeAllele;
 import static com.dnastack.bob.util.QueryUtils.denormalizeAlleleToBrackets;
@@ -64,24 +65,22 @@ public class EbiBeaconProcessor extends AbstractBeaconProcessor {
     }
 
     @Override
-    @Asynchronous
-    public Future<String> getQueryResponse(Beacon beacon, Query query) {
-        String res = null;
+    public ListenableFuture<String> getQueryResponse(Beacon beacon, Query query, Deadline deadline) {
+        ListenableFuture<String> res = Futures.immediateFuture(null);
         try {
-            res = executeRequest(createRequest(getQueryUrl(denormalizeChromosomeToNumber(query.getChromosome()), denormalizePosition(query.getPosition()), denormalizeAlleleToBrackets(denormalizeAllele(query.getAllele()))), false, null));
+            res = executeRequestAsync(createRequest(getQueryUrl(denormalizeChromosomeToNumber(query.getChromosome()), denormalizePosition(query.getPosition()), denormalizeAlleleToBrackets(denormalizeAllele(query.getAllele()))), false, null), deadline, jsonMatcher("exists"));
         } catch (MalformedURLException | UnsupportedEncodingException ex) {
             // ignore, already null
         }
 
-        return new AsyncResult<>(res);
+        return res;
     }
 
     @Override
-    @Asynchronous
-    public Future<Boolean> parseQueryResponse(Beacon b, String response) {
+    public ListenableFuture<Boolean> parseQueryResponse(Beacon b, String response) {
         Boolean res = parseBooleanFromJson(response, "exists");
 
-        return new AsyncResult<>(res);
+        return Futures.immediateFuture(res);
     }
 
     @Override
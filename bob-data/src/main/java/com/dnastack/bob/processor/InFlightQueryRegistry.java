@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.util.BeaconQueryKey;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Registry of queries currently in progress. Concurrent identical queries against a beacon share a single upstream
+ * request instead of each issuing its own. Queries are identified by the beacon and the canonical query only, not by
+ * the processor instance, since the pooled processor beans serving concurrent requests are usually distinct.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class InFlightQueryRegistry {
+
+    private static final InFlightRegistry<BeaconQueryKey, Boolean> QUERIES = new InFlightRegistry<>();
+
+    /**
+     * Asynchronously executes a query agaist a beacon, joining an identical query already in progress if possible.
+     *
+     * @param p        processor
+     * @param beacon   beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     *
+     * @return true/false according to the beacons response (or null if the valid response could not be obtained)
+     */
+    public static ListenableFuture<Boolean> execute(final StagedBeaconProcessor p, final Beacon beacon, Query query, final Deadline deadline) {
+        if (query == null) {
+            return Futures.immediateFuture(null);
+        }
+
+        final BeaconQueryKey q = BeaconQueryKey.of(beacon, query);
+
+        return QUERIES.execute(q, deadline, new Supplier<ListenableFuture<Boolean>>() {
+
+            @Override
+            public ListenableFuture<Boolean> get() {
+                return BeaconQueryPipeline.execute(p, beacon, q.getQuery(), deadline);
+            }
+        });
+    }
+
+    /**
+     * Obtains the number of distinct queries in progress.
+     *
+     * @return number of upstream queries
+     */
+    public static int size() {
+        return QUERIES.size();
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.QueryRejectedException;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Registry of requests currently in progress. Concurrent requests with the same key share a single upstream request
+ * instead of each issuing its own. A caller only joins a request in progress if the request is allowed to run at least
+ * as long as the caller's deadline. The upstream request is cancelled once all of its callers cancel, failures are
+ * reported as null results, except for local rejections ({@link QueryRejectedException}), which are passed on.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class InFlightRegistry<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private static final class Flight<V> {
+
+        private final Deadline deadline;
+        private final SettableFuture<V> result = SettableFuture.create();
+        private ListenableFuture<V> upstream;
+        private int subscribers;
+        private boolean closed;
+
+        Flight(Deadline deadline) {
+            this.deadline = deadline;
+        }
+
+        synchronized boolean subscribe(Deadline d) {
+            if (closed || deadline.isBefore(d)) {
+                return false;
+            }
+            subscribers++;
+
+            return true;
+        }
+
+        synchronized void unsubscribe() {
+            if (--subscribers == 0 && !closed) {
+                closed = true;
+                if (upstream != null) {
+                    upstream.cancel(true);
+                }
+                result.cancel(false);
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+        }
+
+        void start(ListenableFuture<V> f) {
+            synchronized (this) {
+                upstream = f;
+                if (closed) {
+                    f.cancel(true);
+                }
+            }
+
+            Futures.addCallback(f, new FutureCallback<V>() {
+
+                @Override
+                public void onSuccess(V r) {
+                    result.set(r);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (t instanceof QueryRejectedException) {
+                        result.setException(t);
+                    } else {
+                        result.set(null);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        ListenableFuture<V> newSubscriber() {
+            final SettableFuture<V> res = SettableFuture.create();
+            Futures.addCallback(result, new FutureCallback<V>() {
+
+                @Override
+                public void onSuccess(V r) {
+                    res.set(r);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (t instanceof QueryRejectedException) {
+                        res.setException(t);
+                    } else {
+                        res.set(null);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+            res.addListener(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (res.isCancelled()) {
+                        unsubscribe();
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+
+            return res;
+        }
+    }
+
+    /**
+     * Executes a request, joining an identical request already in progress if possible.
+     *
+     * @param key      identification of the request
+     * @param deadline deadline of the request
+     * @param request  starts the upstream request if there is none to join
+     *
+     * @return result of the request
+     */
+    public ListenableFuture<V> execute(final K key, Deadline deadline, Supplier<ListenableFuture<V>> request) {
+        while (true) {
+            Flight<V> f = flights.get(key);
+            if (f != null && f.subscribe(deadline)) {
+                return f.newSubscriber();
+            }
+
+            final Flight<V> n = new Flight<>(deadline);
+            n.subscribe(deadline);
+            if ((f == null) ? flights.putIfAbsent(key, n) == null : flights.replace(key, f, n)) {
+                n.result.addListener(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        n.close();
+                        flights.remove(key, n);
+                    }
+                }, MoreExecutors.directExecutor());
+                ListenableFuture<V> res = n.newSubscriber();
+                ListenableFuture<V> upstream;
+                try {
+                    upstream = request.get();
+                } catch (RejectedExecutionException ex) {
+                    upstream = Futures.immediateFailedFuture(new QueryRejectedException(ex.getMessage()));
+                } catch (RuntimeException ex) {
+                    // the flight has to complete, otherwise later callers would join it forever
+                    upstream = Futures.immediateFailedFuture(ex);
+                }
+                n.start(upstream);
+
+                return res;
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of distinct requests in progress.
+     *
+     * @return number of upstream requests
+     */
+    public int size() {
+        return flights.size();
+    }
+
+}
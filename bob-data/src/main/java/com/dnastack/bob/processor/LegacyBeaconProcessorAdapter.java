@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Exposes a {@link BeaconProcessor} through the {@link StagedBeaconProcessor} SPI, so that the processors not migrated
+ * to the staged SPI yet can be used by {@link BeaconQueryPipeline}.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class LegacyBeaconProcessorAdapter implements StagedBeaconProcessor, Serializable {
+
+    private static final long serialVersionUID = 10L;
+
+    private final BeaconProcessor processor;
+
+    public LegacyBeaconProcessorAdapter(BeaconProcessor processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * Obtains staged view of the given processor.
+     *
+     * @param processor processor
+     *
+     * @return the processor itself if it implements the staged SPI, adapter otherwise
+     */
+    public static StagedBeaconProcessor adapt(BeaconProcessor processor) {
+        if (processor instanceof StagedBeaconProcessor) {
+            return (StagedBeaconProcessor) processor;
+        }
+
+        return new LegacyBeaconProcessorAdapter(processor);
+    }
+
+    public BeaconProcessor getProcessor() {
+        return processor;
+    }
+
+    @Override
+    public Set<Reference> getSupportedReferences() {
+        return processor.getSupportedReferences();
+    }
+
+    @Override
+    public ListenableFuture<String> fetch(Beacon beacon, Query query, Deadline deadline) {
+        return processor.getQueryResponse(beacon, query, deadline);
+    }
+
+    @Override
+    public ListenableFuture<Boolean> parse(Beacon beacon, String response) {
+        return processor.parseQueryResponse(beacon, response);
+    }
+
+    /**
+     * Obtains the class of the adapted processor. Processors are stateless, so any two instances of the same class are
+     * interchangeable.
+     *
+     * @return processor class
+     */
+    public Class<?> getProcessorClass() {
+        return processor.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(getProcessorClass());
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final LegacyBeaconProcessorAdapter other = (LegacyBeaconProcessorAdapter) obj;
+        return Objects.equals(getProcessorClass(), other.getProcessorClass());
+    }
+
+    @Override
+    public String toString() {
+        return "LegacyBeaconProcessorAdapter{" + "processor=" + processor + '}';
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Set;
+
+/**
+ * Beacon query service split into composable stages. Stages are chained by {@link BeaconQueryPipeline} as soon as
+ * their inputs become available, so a response for one reference is parsed regardless of the state of queries
+ * against the other references. Implementations must not block in any of the stages.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public interface StagedBeaconProcessor {
+
+    /**
+     * Obtains genomes supported by the service.
+     *
+     * @return set of supported genomes
+     */
+    Set<Reference> getSupportedReferences();
+
+    /**
+     * Builds the request for a query against a single reference and sends it to the beacon.
+     *
+     * @param beacon   beacon to query
+     * @param query    query with a specified reference
+     * @param deadline deadline of the query
+     *
+     * @return raw result of the query from the beacon (or null if the request failed)
+     */
+    ListenableFuture<String> fetch(Beacon beacon, Query query, Deadline deadline);
+
+    /**
+     * Extracts beacon response value from the given raw query reponse.
+     *
+     * @param beacon   beacon
+     * @param response response
+     *
+     * @return true/false for valid values, null otherwise
+     */
+    ListenableFuture<Boolean> parse(Beacon beacon, String response);
+
+}
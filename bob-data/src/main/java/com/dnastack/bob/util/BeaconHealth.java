@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.HEALTH_FAILURES;
+
+/**
+ * Reachability of a beacon as seen by periodic canary queries. A beacon is considered down after a number of
+ * consecutive failed probes and up again after the first successful one. Latency of the beacon is an exponentially
+ * weighted average of the durations of the successful probes.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconHealth {
+
+    private static final ConcurrentMap<String, BeaconHealth> BEACONS = new ConcurrentHashMap<>();
+
+    public enum Status {
+
+        UNKNOWN, UP, DOWN
+    }
+
+    private final String name;
+
+    private Status status = Status.UNKNOWN;
+    private int failures;
+    private long latency = -1;
+    private long checkedAt;
+
+    public BeaconHealth(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Obtains the health of a beacon, creating it if necessary.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return health
+     */
+    public static BeaconHealth get(String beaconId) {
+        BeaconHealth h = BEACONS.get(beaconId);
+        if (h == null) {
+            BeaconHealth n = new BeaconHealth(beaconId);
+            h = BEACONS.putIfAbsent(beaconId, n);
+            if (h == null) {
+                h = n;
+            }
+        }
+
+        return h;
+    }
+
+    /**
+     * Obtains the health of all the beacons probed so far.
+     *
+     * @return map of beacon IDs to health
+     */
+    public static Map<String, BeaconHealth> getAll() {
+        return Collections.unmodifiableMap(BEACONS);
+    }
+
+    /**
+     * Obtains the status of a beacon without tracking it.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return status, unknown if the beacon has not been probed yet
+     */
+    public static Status getStatus(String beaconId) {
+        BeaconHealth h = BEACONS.get(beaconId);
+
+        return (h == null) ? Status.UNKNOWN : h.getStatus();
+    }
+
+    /**
+     * Checks if a beacon is considered down.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return true if down, false if up or unknown
+     */
+    public static boolean isDown(String beaconId) {
+        return getStatus(beaconId) == Status.DOWN;
+    }
+
+    /**
+     * Reports a successful probe.
+     *
+     * @param duration duration of the probe in nanoseconds
+     */
+    public synchronized void onSuccess(long duration) {
+        status = Status.UP;
+        failures = 0;
+        latency = (latency < 0) ? duration : (latency * 3 + duration) / 4;
+        checkedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Reports a failed probe.
+     */
+    public synchronized void onFailure() {
+        failures++;
+        if (failures >= HEALTH_FAILURES) {
+            status = Status.DOWN;
+        }
+        checkedAt = System.currentTimeMillis();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Obtains the number of consecutive failed probes.
+     *
+     * @return number of failures since the last successful probe
+     */
+    public synchronized int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Obtains the average latency of the beacon.
+     *
+     * @param unit time unit
+     *
+     * @return latency, -1 if the beacon has not responded yet
+     */
+    public synchronized long getLatency(TimeUnit unit) {
+        return (latency < 0) ? -1 : unit.convert(latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Obtains the time of the last probe.
+     *
+     * @return time in milliseconds since the epoch, 0 if the beacon has not been probed yet
+     */
+    public synchronized long getCheckedAt() {
+        return checkedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BeaconHealth{" + "name=" + name + ", status=" + getStatus() + '}';
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Identification of a query against a particular beacon. Queries which are bound to yield the same response from the
+ * beacon are represented by the same key, e.g. a query with no reference specified and a query for the only reference
+ * supported by the beacon.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconQueryKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String beaconId;
+    private final Query query;
+
+    private BeaconQueryKey(String beaconId, Query query) {
+        this.beaconId = beaconId;
+        this.query = query;
+    }
+
+    /**
+     * Creates a key for the given beacon and query.
+     *
+     * @param beacon beacon
+     * @param query  query
+     *
+     * @return key
+     */
+    public static BeaconQueryKey of(Beacon beacon, Query query) {
+        Query q = query;
+        if (q.getReference() == null && beacon.getProcessor() != null) {
+            Set<Reference> refs = beacon.getProcessor().getSupportedReferences();
+            if (refs.size() == 1) {
+                // only one reference can be queried anyway
+                q = new Query(query.getChromosome(), query.getPosition(), query.getAllele(), refs.iterator().next());
+            }
+        }
+
+        return new BeaconQueryKey(beacon.getId(), q);
+    }
+
+    public String getBeaconId() {
+        return beaconId;
+    }
+
+    /**
+     * Obtains the canonical form of the query.
+     *
+     * @return query
+     */
+    public Query getQuery() {
+        return query;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 41 * hash + Objects.hashCode(this.beaconId);
+        hash = 41 * hash + Objects.hashCode(this.query);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final BeaconQueryKey other = (BeaconQueryKey) obj;
+        if (!Objects.equals(this.beaconId, other.beaconId)) {
+            return false;
+        }
+        return Objects.equals(this.query, other.query);
+    }
+
+    @Override
+    public String toString() {
+        return "BeaconQueryKey{" + "beaconId=" + beaconId + ", query=" + query + '}';
+    }
+
+}
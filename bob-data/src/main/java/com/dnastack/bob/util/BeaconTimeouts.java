@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_FACTOR;
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_MIN;
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_MIN_SAMPLES;
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_PERCENTILE;
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_WINDOW;
+import static com.dnastack.bob.util.Constants.MAX_REQUEST_TIMEOUT;
+import static com.dnastack.bob.util.Constants.TIMEOUT_PREFIX;
+
+/**
+ * Timeouts of the beacons derived from their observed latencies. Every beacon keeps a rolling latency histogram, its
+ * timeout is a high percentile of the latencies multiplied by a factor, so that fast beacons fail fast when they stall
+ * and slow beacons are not cut off prematurely. Beacons with a fixed timeout configured are not adapted.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconTimeouts {
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /**
+     * Obtains the latency histogram of a beacon, creating it if necessary.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return latency histogram
+     */
+    public static LatencyHistogram getHistogram(String beaconId) {
+        LatencyHistogram h = HISTOGRAMS.get(beaconId);
+        if (h == null) {
+            LatencyHistogram n = new LatencyHistogram(ADAPTIVE_TIMEOUT_WINDOW, TimeUnit.SECONDS);
+            h = HISTOGRAMS.putIfAbsent(beaconId, n);
+            if (h == null) {
+                h = n;
+            }
+        }
+
+        return h;
+    }
+
+    /**
+     * Records latency of a query of a beacon.
+     *
+     * @param beaconId beacon ID
+     * @param latency  latency
+     * @param unit     time unit of the latency
+     */
+    public static void record(String beaconId, long latency, TimeUnit unit) {
+        getHistogram(beaconId).record(latency, unit);
+    }
+
+    /**
+     * Obtains the current timeout of a beacon.
+     *
+     * @param beaconId beacon ID
+     * @param unit     time unit of the result
+     *
+     * @return timeout (or null if there is not enough data to derive one)
+     */
+    public static Long getTimeout(String beaconId, TimeUnit unit) {
+        Long fixed = Long.getLong(TIMEOUT_PREFIX + beaconId);
+        if (fixed != null) {
+            return unit.convert(fixed, TimeUnit.MILLISECONDS);
+        }
+
+        LatencyHistogram h = getHistogram(beaconId);
+        if (h.getCount() < ADAPTIVE_TIMEOUT_MIN_SAMPLES) {
+            return null;
+        }
+
+        long timeout = h.getPercentile(ADAPTIVE_TIMEOUT_PERCENTILE, TimeUnit.MILLISECONDS) * ADAPTIVE_TIMEOUT_FACTOR;
+        timeout = Math.max(ADAPTIVE_TIMEOUT_MIN, Math.min(timeout, TimeUnit.SECONDS.toMillis(MAX_REQUEST_TIMEOUT)));
+
+        return unit.convert(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtains the deadline of a query of a beacon.
+     *
+     * @param beaconId beacon ID
+     * @param deadline deadline of the request
+     *
+     * @return the earlier of the request deadline and the beacon timeout
+     */
+    public static Deadline getDeadline(String beaconId, Deadline deadline) {
+        Long timeout = getTimeout(beaconId, TimeUnit.MILLISECONDS);
+
+        return (timeout == null) ? deadline : deadline.cap(timeout, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.dnastack.bob.util.Constants.BULKHEAD_KEEP_ALIVE;
+import static com.dnastack.bob.util.Constants.BULKHEAD_QUEUE_SIZE;
+import static com.dnastack.bob.util.Constants.BULKHEAD_THREADS;
+import static com.dnastack.bob.util.Constants.BULKHEAD_THREADS_PREFIX;
+
+/**
+ * Dedicated executor of the work done on behalf of a single beacon (starting its requests and parsing its responses),
+ * so that a beacon which hangs or floods BoB with work can only exhaust its own threads. The executor has a fixed
+ * number of threads and a bounded queue, tasks which do not fit are rejected rather than queued indefinitely. Threads
+ * are only started when needed and stop once idle. Threads are created by the factory the bulkheads are started with
+ * (container managed in the application server), work submitted before the start or after the shutdown is rejected.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class Bulkhead {
+
+    private static final ConcurrentMap<String, Bulkhead> BULKHEADS = new ConcurrentHashMap<>();
+    private static ThreadFactory threadFactory;
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, int threads, int queueSize, ThreadFactory threadFactory) {
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(threads, threads, BULKHEAD_KEEP_ALIVE, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts creating the threads of the bulkheads by the given factory. The threads are owned by the caller, which
+     * stops them by {@link #shutdown()}.
+     *
+     * @param factory factory of the threads
+     */
+    public static synchronized void start(ThreadFactory factory) {
+        threadFactory = factory;
+    }
+
+    /**
+     * Obtains the bulkhead of a beacon, creating it if necessary. Number of threads of a beacon is given by
+     * bob.bulkhead.threads.&lt;beacon id&gt;, bob.bulkhead.threads by default.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return bulkhead
+     */
+    public static Bulkhead forBeacon(String beaconId) {
+        Bulkhead b = BULKHEADS.get(beaconId);
+        if (b == null) {
+            synchronized (Bulkhead.class) {
+                b = BULKHEADS.get(beaconId);
+                if (b == null) {
+                    int threads = Math.max(1, Integer.getInteger(BULKHEAD_THREADS_PREFIX + beaconId, BULKHEAD_THREADS));
+                    if (threadFactory == null) {
+                        // not started or already shut down, the bulkhead rejects everything
+                        b = new Bulkhead(beaconId, threads, 1, Executors.defaultThreadFactory());
+                        b.executor.shutdown();
+                        return b;
+                    }
+                    b = new Bulkhead(beaconId, threads, Math.max(1, BULKHEAD_QUEUE_SIZE), threadFactory);
+                    BULKHEADS.put(beaconId, b);
+                }
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Obtains the bulkheads of all the beacons queried so far.
+     *
+     * @return map of beacon IDs to bulkheads
+     */
+    public static Map<String, Bulkhead> getAll() {
+        return Collections.unmodifiableMap(BULKHEADS);
+    }
+
+    /**
+     * Stops the threads of all the bulkheads.
+     */
+    public static synchronized void shutdown() {
+        threadFactory = null;
+        for (Bulkhead b : BULKHEADS.values()) {
+            b.executor.shutdownNow();
+        }
+        BULKHEADS.clear();
+    }
+
+    /**
+     * Runs a task in the bulkhead.
+     *
+     * @param task task
+     *
+     * @return true if the task has been accepted, false if the bulkhead is saturated
+     */
+    public boolean execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompleted() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.BREAKER_FAILURE_RATE;
+import static com.dnastack.bob.util.Constants.BREAKER_MIN_CALLS;
+import static com.dnastack.bob.util.Constants.BREAKER_OPEN_DURATION;
+import static com.dnastack.bob.util.Constants.BREAKER_SLOW_CALL_DURATION;
+import static com.dnastack.bob.util.Constants.BREAKER_SLOW_CALL_RATE;
+import static com.dnastack.bob.util.Constants.BREAKER_WINDOW_SIZE;
+
+/**
+ * Circuit breaker guarding calls to a single upstream. Outcomes of the recent calls are kept in a sliding window, the
+ * breaker opens when the share of failed or slow calls in the window reaches a threshold. While open, calls are
+ * rejected. After a while the breaker becomes half-open and lets a single probe through, which either closes the
+ * breaker or opens it again.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class CircuitBreaker {
+
+    private static final byte OK = 0;
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    public enum State {
+
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final byte[] window = new byte[Math.max(1, BREAKER_WINDOW_SIZE)];
+    private final long slowCallDuration = TimeUnit.SECONDS.toNanos(BREAKER_SLOW_CALL_DURATION);
+    private final long openDuration;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private boolean probing;
+    private long notPermitted;
+
+    public CircuitBreaker(String name) {
+        this(name, BREAKER_OPEN_DURATION, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a breaker staying open for the given time before letting a probe through.
+     *
+     * @param name         name
+     * @param openDuration time the breaker stays open
+     * @param unit         time unit of the duration
+     */
+    public CircuitBreaker(String name, long openDuration, TimeUnit unit) {
+        this.name = name;
+        this.openDuration = unit.toNanos(openDuration);
+    }
+
+    private void reset() {
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        probing = false;
+    }
+
+    private void record(byte outcome) {
+        if (calls == window.length) {
+            byte old = window[next];
+            failures -= old & FAILED;
+            slowCalls -= (old & SLOW) >> 1;
+        } else {
+            calls++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (calls >= BREAKER_MIN_CALLS && (failures * 100 >= BREAKER_FAILURE_RATE * calls || slowCalls * 100 >= BREAKER_SLOW_CALL_RATE * calls)) {
+            open();
+        }
+    }
+
+    private void complete(byte outcome) {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+            if (outcome == OK) {
+                state = State.CLOSED;
+                reset();
+            } else {
+                open();
+            }
+        } else if (state == State.CLOSED) {
+            record(outcome);
+        }
+    }
+
+    /**
+     * Checks if a call is permitted. Every permitted call has to be followed by reporting its outcome.
+     *
+     * @return true if the call can proceed, false if it should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return true;
+        }
+        notPermitted++;
+
+        return false;
+    }
+
+    /**
+     * Reports a successful call.
+     *
+     * @param duration duration of the call in nanoseconds
+     */
+    public synchronized void onSuccess(long duration) {
+        complete(isSlow(duration) ? SLOW : OK);
+    }
+
+    /**
+     * Reports a failed call.
+     *
+     * @param duration duration of the call in nanoseconds
+     */
+    public synchronized void onFailure(long duration) {
+        complete((byte) (isSlow(duration) ? FAILED | SLOW : FAILED));
+    }
+
+    /**
+     * Reports a call whose outcome says nothing about the upstream, e.g. a call cancelled by the caller.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * Checks if a call of the given duration is considered slow.
+     *
+     * @param duration duration of the call in nanoseconds
+     *
+     * @return true if slow, false otherwise
+     */
+    public boolean isSlow(long duration) {
+        return duration >= slowCallDuration;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration) {
+            return State.HALF_OPEN;
+        }
+
+        return state;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return calls;
+    }
+
+    public synchronized float getFailureRate() {
+        return (calls == 0) ? 0 : 100f * failures / calls;
+    }
+
+    public synchronized float getSlowCallRate() {
+        return (calls == 0) ? 0 : 100f * slowCalls / calls;
+    }
+
+    public synchronized long getNotPermittedCalls() {
+        return notPermitted;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" + "name=" + name + ", state=" + getState() + '}';
+    }
+
+}
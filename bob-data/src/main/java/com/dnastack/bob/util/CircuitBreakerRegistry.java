@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breakers of the beacons, one per beacon.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class CircuitBreakerRegistry {
+
+    private static final ConcurrentMap<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * Obtains the circuit breaker of a beacon, creating it if necessary.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return circuit breaker
+     */
+    public static CircuitBreaker get(String beaconId) {
+        CircuitBreaker b = BREAKERS.get(beaconId);
+        if (b == null) {
+            CircuitBreaker n = new CircuitBreaker(beaconId);
+            b = BREAKERS.putIfAbsent(beaconId, n);
+            if (b == null) {
+                b = n;
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Obtains the circuit breakers of all the beacons queried so far.
+     *
+     * @return map of beacon IDs to circuit breakers
+     */
+    public static Map<String, CircuitBreaker> getAll() {
+        return Collections.unmodifiableMap(BREAKERS);
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.LIMIT_INITIAL;
+import static com.dnastack.bob.util.Constants.LIMIT_MAX;
+import static com.dnastack.bob.util.Constants.LIMIT_MIN;
+import static com.dnastack.bob.util.Constants.LIMIT_QUEUE_SIZE;
+import static com.dnastack.bob.util.Constants.LIMIT_QUEUE_TIME;
+import static com.dnastack.bob.util.Constants.LIMIT_RTT_TOLERANCE;
+
+/**
+ * Adaptive limit of concurrent requests to a single host (AIMD). The limit grows by one per round trip while the host
+ * answers promptly and shrinks by a fraction when a request fails or its round trip time grows well above the minimum
+ * observed recently. Requests over the limit wait in a short queue, requests which do not get through in time are
+ * rejected.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class ConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+    private static final int RTT_WINDOW = 100;
+    private static final ConcurrentMap<String, ConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Deque<SettableFuture<Boolean>> queue = new ArrayDeque<>();
+    private double limit = Math.max(LIMIT_MIN, Math.min(LIMIT_INITIAL, LIMIT_MAX));
+    private int inFlight;
+    private long minRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecrease;
+    private long rejected;
+
+    public ConcurrencyLimiter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Obtains the limiter of a host, creating it if necessary.
+     *
+     * @param host host
+     *
+     * @return limiter
+     */
+    public static ConcurrencyLimiter forHost(String host) {
+        ConcurrencyLimiter l = LIMITERS.get(host);
+        if (l == null) {
+            ConcurrencyLimiter n = new ConcurrencyLimiter(host);
+            l = LIMITERS.putIfAbsent(host, n);
+            if (l == null) {
+                l = n;
+            }
+        }
+
+        return l;
+    }
+
+    /**
+     * Obtains the limiters of all the hosts contacted so far.
+     *
+     * @return map of hosts to limiters
+     */
+    public static Map<String, ConcurrencyLimiter> getAll() {
+        return Collections.unmodifiableMap(LIMITERS);
+    }
+
+    /**
+     * Asks for a permit to send a request. Every granted permit has to be returned by one of the release methods.
+     *
+     * @param deadline deadline of the request
+     *
+     * @return true once the permit is granted, false if the request is rejected
+     */
+    public ListenableFuture<Boolean> acquire(Deadline deadline) {
+        final SettableFuture<Boolean> permit = SettableFuture.create();
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return Futures.immediateFuture(true);
+            }
+            if (queue.size() >= LIMIT_QUEUE_SIZE) {
+                rejected++;
+                return Futures.immediateFuture(false);
+            }
+            queue.add(permit);
+        }
+
+        Scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                // a permit taken off the queue is being granted
+                boolean waiting;
+                synchronized (ConcurrencyLimiter.this) {
+                    waiting = queue.remove(permit);
+                    if (waiting) {
+                        rejected++;
+                    }
+                }
+                if (waiting) {
+                    permit.set(false);
+                }
+            }
+        }, Math.min(LIMIT_QUEUE_TIME, deadline.getRemaining(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+        permit.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (permit.isCancelled()) {
+                    synchronized (ConcurrencyLimiter.this) {
+                        queue.remove(permit);
+                    }
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return permit;
+    }
+
+    private void grant() {
+        List<SettableFuture<Boolean>> granted = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                granted.add(queue.poll());
+                inFlight++;
+            }
+        }
+
+        // complete the permits outside of the lock, their callbacks start the requests
+        for (SettableFuture<Boolean> p : granted) {
+            if (!p.set(true)) {
+                release();
+            }
+        }
+    }
+
+    private void decrease(long now) {
+        // react to congestion at most once per round trip
+        if (lastDecrease == 0 || minRtt == Long.MAX_VALUE || now - lastDecrease > minRtt) {
+            limit = Math.max(LIMIT_MIN, limit * BACKOFF);
+            lastDecrease = now;
+        }
+    }
+
+    /**
+     * Returns a permit of a request which completed successfully.
+     *
+     * @param rtt round trip time of the request in nanoseconds
+     */
+    public void onSuccess(long rtt) {
+        synchronized (this) {
+            inFlight--;
+
+            windowMinRtt = Math.min(windowMinRtt, rtt);
+            if (minRtt == Long.MAX_VALUE || ++windowSamples >= RTT_WINDOW) {
+                // the baseline follows changes of the network path
+                minRtt = windowMinRtt;
+                windowMinRtt = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+
+            if (rtt > LIMIT_RTT_TOLERANCE * minRtt) {
+                decrease(System.nanoTime());
+            } else {
+                limit = Math.min(LIMIT_MAX, limit + 1 / limit);
+            }
+        }
+        grant();
+    }
+
+    /**
+     * Returns a permit of a request which failed or timed out.
+     */
+    public void onFailure() {
+        synchronized (this) {
+            inFlight--;
+            decrease(System.nanoTime());
+        }
+        grant();
+    }
+
+    /**
+     * Returns a permit of a request whose outcome says nothing about the host, e.g. a request cancelled by the caller.
+     */
+    public void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        grant();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" + "name=" + name + ", limit=" + getLimit() + ", inFlight=" + getInFlight() + '}';
+    }
+
+}
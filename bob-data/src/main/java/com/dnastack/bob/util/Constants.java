@@ -23,6 +23,8 @@
  */
 package com.dnastack.bob.util;
 
+import java.io.File;
+
 /**
  * Global constants.
  *
@@ -31,6 +33,95 @@ package com.dnastack.bob.util;
  */
 public class Constants {
 
-    public static final long REQUEST_TIMEOUT = 10L;
+    // request timeouts in seconds, can be overridden by system properties
+    public static final long REQUEST_TIMEOUT = Long.getLong("bob.request.timeout", 10L);
+    public static final long MAX_REQUEST_TIMEOUT = Long.getLong("bob.request.maxTimeout", 30L);
+
+    // connection pool settings, can be overridden by system properties
+    public static final int HTTP_MAX_CONNECTIONS = Integer.getInteger("bob.http.maxConnections", 200);
+    public static final int HTTP_MAX_CONNECTIONS_PER_ROUTE = Integer.getInteger("bob.http.maxConnectionsPerRoute", 20);
+    public static final long HTTP_KEEP_ALIVE = Long.getLong("bob.http.keepAlive", 30L);
+    public static final long HTTP_IDLE_TIMEOUT = Long.getLong("bob.http.idleTimeout", 60L);
+    public static final int HTTP_IO_THREADS = Integer.getInteger("bob.http.ioThreads", Runtime.getRuntime().availableProcessors());
+    public static final String HTTP_EXECUTION_MODE = System.getProperty("bob.http.executionMode", "async");
+    public static final int HTTP_BLOCKING_THREADS = Integer.getInteger("bob.http.blockingThreads", HTTP_MAX_CONNECTIONS);
+
+    // response cache settings (ttls in seconds), can be overridden by system properties, ttl per beacon by bob.cache.ttl.<beacon id>
+    public static final int CACHE_SIZE = Integer.getInteger("bob.cache.size", 10000);
+    public static final long CACHE_TTL = Long.getLong("bob.cache.ttl", 3600L);
+    public static final long CACHE_NULL_TTL = Long.getLong("bob.cache.nullTtl", 60L);
+    public static final String CACHE_TTL_PREFIX = "bob.cache.ttl.";
+    public static final long CACHE_HARD_TTL = Long.getLong("bob.cache.hardTtl", 86400L);
+    public static final String CACHE_HARD_TTL_PREFIX = "bob.cache.hardTtl.";
+    public static final String CACHE_STORE_FILE = System.getProperty("bob.cache.store.file", new File(System.getProperty("java.io.tmpdir"), "bob-responses.db").getPath());
+    public static final int CACHE_STORE_SIZE = Integer.getInteger("bob.cache.store.size", 64);
+    public static final int PREFETCH_SIZE = Integer.getInteger("bob.prefetch.size", 100);
+    public static final long PREFETCH_INTERVAL = Long.getLong("bob.prefetch.interval", 60L);
+    public static final int PREFETCH_MAX_QUERIES = Integer.getInteger("bob.prefetch.maxQueries", 200);
+    public static final int PREFETCH_MAX_LOAD = Integer.getInteger("bob.prefetch.maxLoad", 50);
+    public static final String PREFETCH_LOG = System.getProperty("bob.prefetch.log");
+
+    // circuit breaker settings (rates in percent, durations in seconds), can be overridden by system properties
+    public static final int BREAKER_WINDOW_SIZE = Integer.getInteger("bob.breaker.windowSize", 20);
+    public static final int BREAKER_MIN_CALLS = Integer.getInteger("bob.breaker.minCalls", 10);
+    public static final int BREAKER_FAILURE_RATE = Integer.getInteger("bob.breaker.failureRate", 50);
+    public static final int BREAKER_SLOW_CALL_RATE = Integer.getInteger("bob.breaker.slowCallRate", 80);
+    public static final long BREAKER_SLOW_CALL_DURATION = Long.getLong("bob.breaker.slowCallDuration", 5L);
+    public static final long BREAKER_OPEN_DURATION = Long.getLong("bob.breaker.openDuration", 30L);
+
+    // beacon health probing (interval and timeout in seconds), can be overridden by system properties
+    public static final long HEALTH_INTERVAL = Long.getLong("bob.health.interval", 60L);
+    public static final long HEALTH_TIMEOUT = Long.getLong("bob.health.timeout", 10L);
+    public static final int HEALTH_FAILURES = Integer.getInteger("bob.health.failures", 3);
+
+    // adaptive beacon timeouts (min in milliseconds, window in seconds), can be overridden by system properties, fixed
+    // timeout per beacon in milliseconds by bob.timeout.<beacon id>
+    public static final int ADAPTIVE_TIMEOUT_PERCENTILE = Integer.getInteger("bob.adaptiveTimeout.percentile", 99);
+    public static final int ADAPTIVE_TIMEOUT_FACTOR = Integer.getInteger("bob.adaptiveTimeout.factor", 3);
+    public static final long ADAPTIVE_TIMEOUT_MIN = Long.getLong("bob.adaptiveTimeout.min", 1000L);
+    public static final int ADAPTIVE_TIMEOUT_MIN_SAMPLES = Integer.getInteger("bob.adaptiveTimeout.minSamples", 20);
+    public static final long ADAPTIVE_TIMEOUT_WINDOW = Long.getLong("bob.adaptiveTimeout.window", 600L);
+    public static final String TIMEOUT_PREFIX = "bob.timeout.";
+
+    // request hedging (budget in percent of requests), can be overridden by system properties
+    public static final boolean HEDGE_ENABLED = Boolean.parseBoolean(System.getProperty("bob.hedge.enabled", "false"));
+    public static final int HEDGE_PERCENTILE = Integer.getInteger("bob.hedge.percentile", 95);
+    public static final int HEDGE_BUDGET = Integer.getInteger("bob.hedge.budget", 5);
+
+    // adaptive concurrency limits per beacon host (queue time in milliseconds), can be overridden by system properties
+    public static final int LIMIT_INITIAL = Integer.getInteger("bob.limit.initial", 10);
+    public static final int LIMIT_MIN = Integer.getInteger("bob.limit.min", 1);
+    public static final int LIMIT_MAX = Integer.getInteger("bob.limit.max", HTTP_MAX_CONNECTIONS_PER_ROUTE);
+    public static final int LIMIT_QUEUE_SIZE = Integer.getInteger("bob.limit.queueSize", 50);
+    public static final long LIMIT_QUEUE_TIME = Long.getLong("bob.limit.queueTime", 1000L);
+    public static final int LIMIT_RTT_TOLERANCE = Integer.getInteger("bob.limit.rttTolerance", 3);
+
+    // rate limits of beacon hosts in requests per second (0 for unlimited, queue time in milliseconds), can be overridden
+    // by system properties, rate per host by bob.rate.<host name>
+    public static final int RATE_DEFAULT = Integer.getInteger("bob.rate.default", 0);
+    public static final long RATE_QUEUE_TIME = Long.getLong("bob.rate.queueTime", 2000L);
+    public static final String RATE_PREFIX = "bob.rate.";
+
+    // per beacon bulkheads (keep alive in seconds), can be overridden by system properties, threads per beacon by
+    // bob.bulkhead.threads.<beacon id>
+    public static final int BULKHEAD_THREADS = Integer.getInteger("bob.bulkhead.threads", 4);
+    public static final int BULKHEAD_QUEUE_SIZE = Integer.getInteger("bob.bulkhead.queueSize", 100);
+    public static final long BULKHEAD_KEEP_ALIVE = Long.getLong("bob.bulkhead.keepAlive", 60L);
+    public static final String BULKHEAD_THREADS_PREFIX = "bob.bulkhead.threads.";
+
+    // batch queries, can be overridden by system properties
+    public static final int BATCH_MAX_SIZE = Integer.getInteger("bob.batch.maxSize", 1000);
+    public static final int BATCH_WINDOW = Integer.getInteger("bob.batch.window", 32);
+
+    // partial results (ttl in seconds after the deadline of the query), can be overridden by system properties
+    public static final int PENDING_SIZE = Integer.getInteger("bob.pending.size", 1000);
+    public static final long PENDING_TTL = Long.getLong("bob.pending.ttl", 60L);
+
+    // bulk query jobs (chunk timeout in seconds), can be overridden by system properties
+    public static final String JOB_DIR = System.getProperty("bob.job.dir", new File(System.getProperty("java.io.tmpdir"), "bob-jobs").getPath());
+    public static final int JOB_WORKERS = Integer.getInteger("bob.job.workers", 2);
+    public static final int JOB_CHUNK_SIZE = Integer.getInteger("bob.job.chunkSize", 100);
+    public static final long JOB_CHUNK_TIMEOUT = Long.getLong("bob.job.chunkTimeout", 300L);
+    public static final int JOB_MAX_PAGE_SIZE = Integer.getInteger("bob.job.maxPageSize", 1000);
 
 }
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Arrays;
+
+/**
+ * Searches a response for a list of strings, case insensitive. Strings are listed in the order of priority, the
+ * matcher is decided as soon as the first of them is found, because none of the others could change the result
+ * anymore. Responses are scanned without buffering, so a string split between two chunks is still found.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class ContainsMatcher implements ResponseMatcher {
+
+    private final String[] needles;
+    private final int[][] fallbacks;
+    private final int[] matched;
+    private final boolean[] found;
+
+    /**
+     * Creates a matcher.
+     *
+     * @param needles non-empty lower case strings to search for, in the order of priority
+     */
+    public ContainsMatcher(String... needles) {
+        this.needles = needles;
+        this.fallbacks = new int[needles.length][];
+        this.matched = new int[needles.length];
+        this.found = new boolean[needles.length];
+        for (int i = 0; i < needles.length; i++) {
+            fallbacks[i] = computeFallbacks(needles[i]);
+        }
+    }
+
+    private static int[] computeFallbacks(String needle) {
+        // longest proper prefix which is also a suffix of needle[0..i]
+        int[] res = new int[needle.length()];
+        int k = 0;
+        for (int i = 1; i < needle.length(); i++) {
+            while (k > 0 && needle.charAt(i) != needle.charAt(k)) {
+                k = res[k - 1];
+            }
+            if (needle.charAt(i) == needle.charAt(k)) {
+                k++;
+            }
+            res[i] = k;
+        }
+
+        return res;
+    }
+
+    @Override
+    public boolean feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length() && !isDecided(); i++) {
+            char c = Character.toLowerCase(chunk.charAt(i));
+            for (int j = 0; j < needles.length; j++) {
+                if (found[j]) {
+                    continue;
+                }
+                String n = needles[j];
+                int k = matched[j];
+                while (k > 0 && n.charAt(k) != c) {
+                    k = fallbacks[j][k - 1];
+                }
+                if (n.charAt(k) == c) {
+                    k++;
+                }
+                if (k == n.length()) {
+                    found[j] = true;
+                }
+                matched[j] = k;
+            }
+        }
+
+        return isDecided();
+    }
+
+    @Override
+    public boolean isDecided() {
+        return needles.length == 0 || found[0];
+    }
+
+    /**
+     * Obtains the index of the string with the highest priority found in the response.
+     *
+     * @return index of the string, -1 if none of the strings was found
+     */
+    public int getMatch() {
+        for (int i = 0; i < needles.length; i++) {
+            if (found[i]) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ContainsMatcher{" + "needles=" + Arrays.toString(needles) + ", found=" + Arrays.toString(found) + '}';
+    }
+}
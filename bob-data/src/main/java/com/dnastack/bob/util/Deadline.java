@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.MAX_REQUEST_TIMEOUT;
+import static com.dnastack.bob.util.Constants.REQUEST_TIMEOUT;
+
+/**
+ * Point in time by which a request has to be handled. A single deadline is created per incoming request and passed
+ * down to all the queries it triggers, so that every wait only uses the time remaining for the request as a whole. The
+ * deadline also carries identification of the client the request is handled for.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class Deadline implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long expiration;
+    private final String client;
+
+    private Deadline(long expiration, String client) {
+        this.expiration = expiration;
+        this.client = client;
+    }
+
+    /**
+     * Creates a deadline expiring after the given period from now.
+     *
+     * @param duration duration
+     * @param unit     time unit of the duration
+     *
+     * @return deadline
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(Math.max(0, duration)), null);
+    }
+
+    /**
+     * Creates a deadline with the default request timeout.
+     *
+     * @return deadline
+     */
+    public static Deadline getDefault() {
+        return after(REQUEST_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a deadline requested by a client. The requested timeout is capped by the max timeout configured for the
+     * server.
+     *
+     * @param timeout timeout in milliseconds (null or non-positive value for the default timeout)
+     *
+     * @return deadline
+     */
+    public static Deadline forRequestedTimeout(Long timeout) {
+        return after(getRequestedTimeout(timeout), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtains a timeout requested by a client. The requested timeout is capped by the max timeout configured for the
+     * server.
+     *
+     * @param timeout timeout in milliseconds (null or non-positive value for the default timeout)
+     *
+     * @return timeout in milliseconds
+     */
+    public static long getRequestedTimeout(Long timeout) {
+        if (timeout == null || timeout <= 0) {
+            return TimeUnit.SECONDS.toMillis(REQUEST_TIMEOUT);
+        }
+
+        return Math.min(timeout, TimeUnit.SECONDS.toMillis(MAX_REQUEST_TIMEOUT));
+    }
+
+    /**
+     * Obtains a deadline which expires after the given period from now, but not later than this deadline.
+     *
+     * @param duration max duration
+     * @param unit     time unit of the duration
+     *
+     * @return deadline
+     */
+    public Deadline cap(long duration, TimeUnit unit) {
+        Deadline d = after(duration, unit);
+
+        return isBefore(d) ? this : new Deadline(d.expiration, client);
+    }
+
+    /**
+     * Obtains the same deadline of a request made by the given client. Requests of different clients are scheduled
+     * fairly when they compete for a limited beacon.
+     *
+     * @param client identification of the client
+     *
+     * @return deadline
+     */
+    public Deadline forClient(String client) {
+        return new Deadline(expiration, client);
+    }
+
+    /**
+     * Obtains identification of the client who made the request.
+     *
+     * @return client (or null if unknown)
+     */
+    public String getClient() {
+        return client;
+    }
+
+    /**
+     * Obtains time remaining until the deadline.
+     *
+     * @param unit time unit
+     *
+     * @return remaining time (0 if the deadline has already expired)
+     */
+    public long getRemaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, expiration - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return expiration - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Checks if this deadline expires earlier than the given deadline.
+     *
+     * @param other deadline to compare with
+     *
+     * @return true if this deadline expires first, false otherwise
+     */
+    public boolean isBefore(Deadline other) {
+        return expiration - other.expiration < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" + "remaining=" + getRemaining(TimeUnit.MILLISECONDS) + "ms" + ", client=" + client + '}';
+    }
+
+}
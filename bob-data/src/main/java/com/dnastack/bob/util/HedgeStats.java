@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_WINDOW;
+
+/**
+ * Counters of hedged requests to a beacon, together with the latencies of its successful fetches the hedge delay is
+ * derived from.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class HedgeStats {
+
+    private final String name;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong wins = new AtomicLong();
+    private final LatencyHistogram latencies = new LatencyHistogram(ADAPTIVE_TIMEOUT_WINDOW, TimeUnit.SECONDS);
+
+    public HedgeStats(String name) {
+        this.name = name;
+    }
+
+    void onFetch(long latency) {
+        latencies.record(latency, TimeUnit.NANOSECONDS);
+    }
+
+    LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    void onRequest() {
+        requests.incrementAndGet();
+    }
+
+    void onHedge() {
+        hedges.incrementAndGet();
+    }
+
+    void onWin() {
+        wins.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtains the number of original requests.
+     *
+     * @return number of requests
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Obtains the number of hedge requests sent.
+     *
+     * @return number of hedges
+     */
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    /**
+     * Obtains the number of hedge requests which completed before the original ones.
+     *
+     * @return number of wins
+     */
+    public long getWins() {
+        return wins.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeStats{" + "name=" + name + ", requests=" + requests + ", hedges=" + hedges + ", wins=" + wins + '}';
+    }
+
+}
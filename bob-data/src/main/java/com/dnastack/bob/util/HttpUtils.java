@@ -23,30 +23,181 @@
  */
 package com.dnastack.bob.util;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.Consts;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultRoutePlanner;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncCharConsumer;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 
+import static com.dnastack.bob.util.Constants.HTTP_BLOCKING_THREADS;
+import static com.dnastack.bob.util.Constants.HTTP_EXECUTION_MODE;
+import static com.dnastack.bob.util.Constants.HTTP_IDLE_TIMEOUT;
+import static com.dnastack.bob.util.Constants.HTTP_IO_THREADS;
+import static com.dnastack.bob.util.Constants.HTTP_KEEP_ALIVE;
+import static com.dnastack.bob.util.Constants.HTTP_MAX_CONNECTIONS;
+import static com.dnastack.bob.util.Constants.HTTP_MAX_CONNECTIONS_PER_ROUTE;
+import static com.dnastack.bob.util.Constants.REQUEST_TIMEOUT;
+
 /**
- * Util methods for querying over HTTP.
+ * Util methods for querying over HTTP. All the requests share pooled clients, so that connections to the beacons are
+ * kept alive and reused across queries. By default, beacons are queried through a non-blocking (NIO) client, which
+ * notifies callers on completion instead of occupying a thread for each request in flight. Alternatively
+ * (bob.http.executionMode=blocking), every request in flight occupies a thread of a bounded pool using the blocking
+ * client.
+ * <p>
+ * Requests executed with a {@link ResponseMatcher} stop reading the response as soon as the matcher is decided. If the
+ * unread rest of the response is short, it is still drained so that the connection can be reused, otherwise the
+ * connection is closed.
  *
  * @author Miroslav Cupak (mirocupak@gmail.com)
  * @version 1.0
  */
 public class HttpUtils {
 
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final long DRAIN_LIMIT = 8 * 1024;
+
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = new ConnectionKeepAliveStrategy() {
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            // honor Keep-Alive header of the beacon if present, use default otherwise
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return (duration > 0) ? duration : TimeUnit.SECONDS.toMillis(HTTP_KEEP_ALIVE);
+        }
+    };
+    private static final ResponseHandler<String> RESPONSE_HANDLER = new ResponseHandler<String>() {
+
+        @Override
+        public String handleResponse(final HttpResponse response) throws ClientProtocolException, IOException {
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= 200 && status < 300) {
+                HttpEntity entity = response.getEntity();
+                return entity != null ? EntityUtils.toString(entity) : null;
+            } else {
+                // consume the body so that the connection can go back to the pool
+                EntityUtils.consume(response.getEntity());
+                throw new ClientProtocolException("Unexpected response status: " + status);
+            }
+        }
+    };
+    // both clients resolve routes the same way, so that the routes of the pool stats match the pooled ones
+    private static final HttpRoutePlanner ROUTE_PLANNER = new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE);
+    private static final RequestConfig DEFAULT_REQUEST_CONFIG = createRequestConfig();
+    private static final PoolingHttpClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+    private static final CloseableHttpClient HTTP_CLIENT = createHttpClient();
+    private static final PoolingNHttpClientConnectionManager ASYNC_CONNECTION_MANAGER = createAsyncConnectionManager();
+    private static final CloseableHttpAsyncClient HTTP_ASYNC_CLIENT = createHttpAsyncClient();
+    private static final boolean BLOCKING = HTTP_EXECUTION_MODE.equalsIgnoreCase("blocking");
+    private static volatile ThreadPoolExecutor blockingExecutor;
+    private static final ConcurrentMap<String, HttpRoute> ROUTES = new ConcurrentHashMap<>();
+
+    private static RequestConfig createRequestConfig() {
+        int timeout = (int) TimeUnit.SECONDS.toMillis(REQUEST_TIMEOUT);
+
+        return RequestConfig.custom().setConnectTimeout(timeout).setConnectionRequestTimeout(timeout).setSocketTimeout(timeout).build();
+    }
+
+    private static PoolingHttpClientConnectionManager createConnectionManager() {
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+        cm.setMaxTotal(HTTP_MAX_CONNECTIONS);
+        cm.setDefaultMaxPerRoute(HTTP_MAX_CONNECTIONS_PER_ROUTE);
+
+        return cm;
+    }
+
+    private static CloseableHttpClient createHttpClient() {
+        return HttpClients.custom().setConnectionManager(CONNECTION_MANAGER).setRoutePlanner(ROUTE_PLANNER).setKeepAliveStrategy(KEEP_ALIVE_STRATEGY).build();
+    }
+
+    private static PoolingNHttpClientConnectionManager createAsyncConnectionManager() {
+        IOReactorConfig config = IOReactorConfig.custom().setIoThreadCount(HTTP_IO_THREADS).setSoKeepAlive(true).build();
+
+        PoolingNHttpClientConnectionManager cm;
+        try {
+            cm = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(config));
+        } catch (IOReactorException ex) {
+            throw new IllegalStateException("Could not start I/O reactor.", ex);
+        }
+        cm.setMaxTotal(HTTP_MAX_CONNECTIONS);
+        cm.setDefaultMaxPerRoute(HTTP_MAX_CONNECTIONS_PER_ROUTE);
+
+        return cm;
+    }
+
+    private static CloseableHttpAsyncClient createHttpAsyncClient() {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom().setConnectionManager(ASYNC_CONNECTION_MANAGER).setRoutePlanner(ROUTE_PLANNER).setKeepAliveStrategy(KEEP_ALIVE_STRATEGY).setDefaultRequestConfig(DEFAULT_REQUEST_CONFIG).build();
+        client.start();
+
+        return client;
+    }
+
+    private static ThreadPoolExecutor createBlockingExecutor(ThreadFactory threadFactory) {
+        int threads = Math.max(1, HTTP_BLOCKING_THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, HTTP_KEEP_ALIVE, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(threads), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
     private static HttpGet createGet(String url) {
         HttpGet httpGet;
         httpGet = new HttpGet(url);
@@ -61,6 +212,22 @@ public class HttpUtils {
         return httpPost;
     }
 
+    private static void registerRoute(HttpRequestBase request) {
+        if (request.getURI() == null || !request.getURI().isAbsolute()) {
+            return;
+        }
+
+        HttpHost host = URIUtils.extractHost(request.getURI());
+        if (!ROUTES.containsKey(host.toHostString())) {
+            try {
+                // default ports and the scheme are resolved, as in the route the connection is pooled under
+                ROUTES.putIfAbsent(host.toHostString(), ROUTE_PLANNER.determineRoute(host, request, HttpClientContext.create()));
+            } catch (HttpException ex) {
+                // ignore, stats of the route are not reported
+            }
+        }
+    }
+
     /**
      * Creates a GET/POST request object.
      *
@@ -77,7 +244,7 @@ public class HttpUtils {
     }
 
     /**
-     * Executes GET/POST and obtain the response.
+     * Executes GET/POST and obtain the response. Blocks the calling thread until the response is available.
      *
      * @param request request
      *
@@ -86,32 +253,467 @@ public class HttpUtils {
     public static String executeRequest(HttpRequestBase request) {
         String response = null;
 
-        CloseableHttpClient httpclient = HttpClients.createDefault();
         try {
-            ResponseHandler<String> responseHandler = new ResponseHandler<String>() {
-
-                public String handleResponse(final HttpResponse response) throws ClientProtocolException, IOException {
-                    int status = response.getStatusLine().getStatusCode();
-                    if (status >= 200 && status < 300) {
-                        HttpEntity entity = response.getEntity();
-                        return entity != null ? EntityUtils.toString(entity) : null;
-                    } else {
-                        throw new ClientProtocolException("Unexpected response status: " + status);
+            registerRoute(request);
+            response = HTTP_CLIENT.execute(request, RESPONSE_HANDLER);
+        } catch (IOException ex) {
+            // ignore, response already set to null
+        }
+
+        return response;
+    }
+
+    private static boolean isSuccess(HttpResponse response) {
+        int status = response.getStatusLine().getStatusCode();
+
+        return status >= 200 && status < 300;
+    }
+
+    private static boolean shouldDrain(long length, long read) {
+        // lengths are compared in characters, which is exact enough for the mostly ASCII responses of beacons
+        return length >= 0 && length - read <= DRAIN_LIMIT;
+    }
+
+    private static String read(HttpRequestBase request, ResponseMatcher matcher) throws IOException {
+        if (matcher == null) {
+            return HTTP_CLIENT.execute(request, RESPONSE_HANDLER);
+        }
+
+        // closing the response without consuming the entity closes the connection instead of returning it to the pool
+        try (CloseableHttpResponse response = HTTP_CLIENT.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (!isSuccess(response) || entity == null) {
+                EntityUtils.consume(entity);
+                return null;
+            }
+
+            Charset charset = ContentType.getOrDefault(entity).getCharset();
+            Reader reader = new InputStreamReader(entity.getContent(), (charset == null) ? Consts.ISO_8859_1 : charset);
+            StringBuilder body = new StringBuilder();
+            char[] buffer = new char[BUFFER_SIZE];
+            long read = 0;
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                CharBuffer chunk = CharBuffer.wrap(buffer, 0, n);
+                body.append(chunk);
+                read += n;
+                if (matcher.feed(chunk)) {
+                    if (shouldDrain(entity.getContentLength(), read)) {
+                        EntityUtils.consume(entity);
                     }
+                    break;
                 }
-            };
+            }
 
-            response = httpclient.execute(request, responseHandler);
-        } catch (IOException ex) {
-            // ignore, response already set to null
-        } finally {
-            try {
-                httpclient.close();
-            } catch (IOException ex) {
-                // ignore
+            return body.toString();
+        }
+    }
+
+    /**
+     * Reads the response of an asynchronous request until the matcher is decided, completes the response at that point
+     * and drains or drops the rest.
+     */
+    private static class MatchingConsumer extends AsyncCharConsumer<String> {
+
+        private final ResponseMatcher matcher;
+        private final SettableFuture<String> response;
+        private final StringBuilder body = new StringBuilder();
+        private boolean success = false;
+        private long length = -1;
+        private long read = 0;
+
+        MatchingConsumer(ResponseMatcher matcher, SettableFuture<String> response) {
+            super(BUFFER_SIZE);
+            this.matcher = matcher;
+            this.response = response;
+        }
+
+        @Override
+        protected void onResponseReceived(HttpResponse r) throws HttpException, IOException {
+            success = isSuccess(r);
+            Header h = r.getFirstHeader(HTTP.CONTENT_LEN);
+            if (h != null) {
+                try {
+                    length = Long.parseLong(h.getValue().trim());
+                } catch (NumberFormatException ex) {
+                    // ignore, length stays unknown
+                }
+            }
+        }
+
+        @Override
+        protected void onCharReceived(CharBuffer buf, IOControl ioctrl) throws IOException {
+            read += buf.remaining();
+            if (success && !response.isDone()) {
+                body.append(buf);
+                if (matcher.feed(buf)) {
+                    response.set(body.toString());
+                    if (!shouldDrain(length, read)) {
+                        ioctrl.shutdown();
+                    }
+                }
+            }
+            buf.position(buf.limit());
+        }
+
+        @Override
+        protected String buildResult(HttpContext context) throws Exception {
+            return success ? body.toString() : null;
+        }
+    }
+
+    private static void configure(HttpRequestBase request, Deadline deadline) {
+        int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.getRemaining(TimeUnit.MILLISECONDS)));
+        request.setConfig(RequestConfig.copy(DEFAULT_REQUEST_CONFIG).setConnectTimeout(remaining).setConnectionRequestTimeout(remaining).setSocketTimeout(remaining).build());
+        registerRoute(request);
+    }
+
+    private static ListenableFuture<String> sendBlocking(final HttpRequestBase request, final Deadline deadline, final ResponseMatcher matcher) {
+        final SettableFuture<String> response = SettableFuture.create();
+        Runnable exchange = new Runnable() {
+
+            @Override
+            public void run() {
+                if (response.isDone() || deadline.isExpired()) {
+                    // abandoned while waiting for a thread
+                    response.set(null);
+                    return;
+                }
+
+                configure(request, deadline);
+                String body = null;
+                try {
+                    body = read(request, matcher);
+                } catch (IOException ex) {
+                    // ignore, body already null
+                }
+                response.set(body);
+            }
+        };
+
+        ThreadPoolExecutor executor = blockingExecutor;
+        if (executor == null) {
+            // not started or already shut down
+            return Futures.immediateFailedFuture(new QueryRejectedException("Blocking requests are not being executed."));
+        }
+        try {
+            executor.execute(exchange);
+        } catch (RejectedExecutionException ex) {
+            return Futures.immediateFailedFuture(new QueryRejectedException("No thread available for the request."));
+        }
+        response.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (response.isCancelled()) {
+                    request.abort();
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return response;
+    }
+
+    private static ListenableFuture<String> send(HttpRequestBase request, Deadline deadline, ResponseMatcher matcher) {
+        if (BLOCKING) {
+            return sendBlocking(request, deadline, matcher);
+        }
+
+        final SettableFuture<String> response = SettableFuture.create();
+        configure(request, deadline);
+        final Future<?> exchange = (matcher == null) ? sendBuffered(request, response) : HTTP_ASYNC_CLIENT.execute(HttpAsyncMethods.create(request), new MatchingConsumer(matcher, response), new FutureCallback<String>() {
+
+            @Override
+            public void completed(String result) {
+                response.set(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                // also reached when the connection is dropped after the matcher was decided
+                response.set(null);
             }
+
+            @Override
+            public void cancelled() {
+                response.cancel(false);
+            }
+        });
+
+        response.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (response.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return response;
+    }
+
+    private static Future<HttpResponse> sendBuffered(HttpRequestBase request, final SettableFuture<String> response) {
+        return HTTP_ASYNC_CLIENT.execute(request, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse result) {
+                String body = null;
+                try {
+                    body = RESPONSE_HANDLER.handleResponse(result);
+                } catch (IOException ex) {
+                    // ignore, body already null
+                }
+                response.set(body);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                response.set(null);
+            }
+
+            @Override
+            public void cancelled() {
+                response.cancel(false);
+            }
+        });
+    }
+
+    private static ListenableFuture<Boolean> acquire(TokenBucket bucket, final ConcurrencyLimiter limiter, final Deadline deadline) {
+        if (bucket == null) {
+            return limiter.acquire(deadline);
+        }
+
+        // rate limit first, so that requests waiting for a token do not hold concurrency permits
+        final SettableFuture<Boolean> res = SettableFuture.create();
+        final ListenableFuture<Boolean> token = bucket.acquire(deadline);
+        Futures.addCallback(token, new com.google.common.util.concurrent.FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean t) {
+                if (!t) {
+                    res.set(false);
+                    return;
+                }
+
+                final ListenableFuture<Boolean> permit = limiter.acquire(deadline);
+                Futures.addCallback(permit, new com.google.common.util.concurrent.FutureCallback<Boolean>() {
+
+                    @Override
+                    public void onSuccess(Boolean p) {
+                        if (!res.set(p) && p) {
+                            // nobody is waiting for the permit anymore
+                            limiter.release();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        res.set(false);
+                    }
+                }, MoreExecutors.directExecutor());
+                res.addListener(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (res.isCancelled()) {
+                            permit.cancel(false);
+                        }
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                res.set(false);
+            }
+        }, MoreExecutors.directExecutor());
+        res.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (res.isCancelled()) {
+                    token.cancel(false);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return res;
+    }
+
+    /**
+     * Executes GET/POST without blocking. The returned future completes with the response (or null if the request
+     * failed) once it is received, cancelling the future aborts the request. Connection and socket timeouts of the
+     * request are limited by the time remaining until the deadline. Requests to a host are limited by its
+     * {@link TokenBucket} (if rate limited) and its {@link ConcurrencyLimiter}, requests which cannot be sent in time
+     * fail with {@link QueryRejectedException}.
+     *
+     * @param request  request
+     * @param deadline deadline of the request
+     *
+     * @return future response
+     */
+    public static ListenableFuture<String> executeRequestAsync(HttpRequestBase request, Deadline deadline) {
+        return executeRequestAsync(request, deadline, null);
+    }
+
+    /**
+     * Executes GET/POST without blocking like {@link #executeRequestAsync(HttpRequestBase, Deadline)}, but reads the
+     * response only until the given matcher is decided. The future completes with the part of the response read so
+     * far, so parsing it yields the same result as parsing the whole response would.
+     *
+     * @param request  request
+     * @param deadline deadline of the request
+     * @param matcher  fresh matcher deciding the response, null to read the whole response
+     *
+     * @return future response, possibly truncated after the decisive part
+     */
+    public static ListenableFuture<String> executeRequestAsync(final HttpRequestBase request, final Deadline deadline, final ResponseMatcher matcher) {
+        if (deadline.isExpired()) {
+            return Futures.immediateFuture(null);
+        }
+        if (request.getURI() == null || !request.getURI().isAbsolute()) {
+            return send(request, deadline, matcher);
         }
 
+        HttpHost host = URIUtils.extractHost(request.getURI());
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.forHost(host.toHostString());
+        final SettableFuture<String> response = SettableFuture.create();
+        final ListenableFuture<Boolean> permit = acquire(TokenBucket.forHost(host.getHostName()), limiter, deadline);
+        Futures.addCallback(permit, new com.google.common.util.concurrent.FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean granted) {
+                if (!granted) {
+                    response.setException(new QueryRejectedException("Request to " + request.getURI().getHost() + " could not be sent in time."));
+                    return;
+                }
+
+                final long start = System.nanoTime();
+                final ListenableFuture<String> r = send(request, deadline, matcher);
+                r.addListener(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (r.isCancelled()) {
+                            limiter.release();
+                            response.cancel(false);
+                            return;
+                        }
+
+                        String body;
+                        try {
+                            body = Futures.getUnchecked(r);
+                        } catch (UncheckedExecutionException ex) {
+                            // not sent, the host is not to blame
+                            limiter.release();
+                            response.setException(ex.getCause());
+                            return;
+                        }
+                        if (body == null) {
+                            limiter.onFailure();
+                        } else {
+                            limiter.onSuccess(System.nanoTime() - start);
+                        }
+                        response.set(body);
+                    }
+                }, MoreExecutors.directExecutor());
+                response.addListener(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (response.isCancelled()) {
+                            r.cancel(true);
+                        }
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // the permit request was cancelled together with the response
+                response.set(null);
+            }
+        }, MoreExecutors.directExecutor());
+        response.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (response.isCancelled()) {
+                    permit.cancel(false);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
         return response;
     }
+
+    /**
+     * Obtains statistics of the whole pool of connections used for querying beacons.
+     *
+     * @return pool stats
+     */
+    public static PoolStats getTotalStats() {
+        return BLOCKING ? CONNECTION_MANAGER.getTotalStats() : ASYNC_CONNECTION_MANAGER.getTotalStats();
+    }
+
+    /**
+     * Obtains connection pool statistics for every route (beacon host) contacted so far.
+     *
+     * @return map of beacon hosts (as used by {@link ConcurrencyLimiter#forHost(String)}) and their pool stats
+     */
+    public static Map<String, PoolStats> getRouteStats() {
+        Map<String, PoolStats> res = new HashMap<>();
+        for (Map.Entry<String, HttpRoute> e : ROUTES.entrySet()) {
+            HttpRoute r = e.getValue();
+            res.put(e.getKey(), BLOCKING ? CONNECTION_MANAGER.getStats(r) : ASYNC_CONNECTION_MANAGER.getStats(r));
+        }
+
+        return res;
+    }
+
+    /**
+     * Evicts expired connections and connections idle for longer than the configured idle timeout.
+     */
+    public static void closeIdleConnections() {
+        CONNECTION_MANAGER.closeExpiredConnections();
+        CONNECTION_MANAGER.closeIdleConnections(HTTP_IDLE_TIMEOUT, TimeUnit.SECONDS);
+        ASYNC_CONNECTION_MANAGER.closeExpiredConnections();
+        ASYNC_CONNECTION_MANAGER.closeIdleConnections(HTTP_IDLE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the threads executing requests in the blocking execution mode (no-op in the async mode). The threads are
+     * owned by the caller, which stops them by {@link #shutdown()}.
+     *
+     * @param threadFactory factory of the threads
+     */
+    public static synchronized void startBlockingExecutor(ThreadFactory threadFactory) {
+        if (BLOCKING && blockingExecutor == null) {
+            blockingExecutor = createBlockingExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * Shuts down the pooled clients and closes all the connections.
+     */
+    public static void shutdown() {
+        synchronized (HttpUtils.class) {
+            if (blockingExecutor != null) {
+                blockingExecutor.shutdownNow();
+                blockingExecutor = null;
+            }
+        }
+        try {
+            HTTP_CLIENT.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+        CONNECTION_MANAGER.shutdown();
+        try {
+            HTTP_ASYNC_CLIENT.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
 }
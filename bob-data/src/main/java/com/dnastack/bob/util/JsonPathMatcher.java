@@ -0,0 +1,289 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Arrays;
+
+/**
+ * Extracts a single value from a JSON response without building the whole document. The response is tokenized as it
+ * is fed, only the keys of the objects on the searched path and the searched value itself are retained. The matcher
+ * is decided as soon as the value is read or it is clear it is not present, i.e. usually long before the end of a
+ * verbose response.
+ * <p>
+ * The path is resolved in the same way as by {@link ParsingUtils#parseBooleanFromJson(String, String...)}: keys are
+ * looked up in nested objects, an array is replaced by its first element and the first scalar found on the path is
+ * the result.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class JsonPathMatcher implements ResponseMatcher {
+
+    private static final int DEFAULT = 0;
+    private static final int STRING = 1;
+    private static final int ESCAPE = 2;
+    private static final int UNICODE = 3;
+    private static final int LITERAL = 4;
+
+    private final String[] path;
+
+    // tokenizer
+    private int state = DEFAULT;
+    private boolean capture;
+    private final StringBuilder text = new StringBuilder();
+    private int unicodeDigits;
+    private int unicodeValue;
+
+    // position on the path
+    private boolean started = false;
+    private int depth = 0;
+    private int searchDepth = 1;
+    private int level = 0;
+    private boolean expectKey = false;
+    private boolean matched = false;
+    private boolean firstElement = false;
+
+    // result
+    private boolean decided = false;
+    private String value = null;
+
+    /**
+     * Creates a matcher.
+     *
+     * @param path list of JSON keys determining the path to the searched value
+     */
+    public JsonPathMatcher(String... path) {
+        this.path = path;
+        if (path.length == 0) {
+            decided = true;
+        }
+    }
+
+    private void decide(String v) {
+        decided = true;
+        value = v;
+    }
+
+    private boolean isInteresting() {
+        return (depth == searchDepth && (expectKey || matched)) || (firstElement && depth == searchDepth + 1);
+    }
+
+    private void descend() {
+        if (level == path.length - 1) {
+            // the searched value is an object
+            decide(null);
+        } else {
+            level++;
+            searchDepth = depth + 1;
+            expectKey = true;
+        }
+    }
+
+    private void onBegin(boolean object) {
+        if (!started) {
+            started = true;
+            if (!object) {
+                decide(null);
+                return;
+            }
+            expectKey = true;
+        } else if (depth == searchDepth && matched) {
+            matched = false;
+            if (object) {
+                descend();
+            } else {
+                firstElement = true;
+            }
+        } else if (firstElement && depth == searchDepth + 1) {
+            firstElement = false;
+            if (object) {
+                descend();
+            } else {
+                decide(null);
+            }
+        }
+        depth++;
+    }
+
+    private void onEnd() {
+        depth--;
+        if (depth < searchDepth || (firstElement && depth == searchDepth)) {
+            // end of the searched object or empty array
+            decide(null);
+        }
+    }
+
+    private void onComma() {
+        if (depth == searchDepth) {
+            expectKey = true;
+        }
+    }
+
+    private void onScalar(String s, boolean string) {
+        if (!started) {
+            decide(null);
+        } else if (depth == searchDepth && expectKey) {
+            expectKey = false;
+            matched = string && path[level].equals(s);
+        } else if ((depth == searchDepth && matched) || (firstElement && depth == searchDepth + 1)) {
+            decide(s);
+        }
+    }
+
+    private void startToken(int newState) {
+        state = newState;
+        capture = isInteresting();
+        text.setLength(0);
+    }
+
+    private void append(char c) {
+        if (capture) {
+            text.append(c);
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == ',' || c == ':' || c == '[' || c == ']' || c == '{' || c == '}' || c == '"';
+    }
+
+    @Override
+    public boolean feed(CharSequence chunk) {
+        int i = 0;
+        while (i < chunk.length() && !decided) {
+            char c = chunk.charAt(i);
+            switch (state) {
+                case STRING:
+                    if (c == '\\') {
+                        state = ESCAPE;
+                    } else if (c == '"') {
+                        state = DEFAULT;
+                        onScalar(text.toString(), true);
+                    } else {
+                        append(c);
+                    }
+                    break;
+                case ESCAPE:
+                    state = STRING;
+                    switch (c) {
+                        case 'b':
+                            append('\b');
+                            break;
+                        case 'f':
+                            append('\f');
+                            break;
+                        case 'n':
+                            append('\n');
+                            break;
+                        case 'r':
+                            append('\r');
+                            break;
+                        case 't':
+                            append('\t');
+                            break;
+                        case 'u':
+                            state = UNICODE;
+                            unicodeDigits = 0;
+                            unicodeValue = 0;
+                            break;
+                        default:
+                            append(c);
+                    }
+                    break;
+                case UNICODE:
+                    int digit = Character.digit(c, 16);
+                    if (digit < 0) {
+                        // malformed response
+                        decide(null);
+                        break;
+                    }
+                    unicodeValue = unicodeValue * 16 + digit;
+                    if (++unicodeDigits == 4) {
+                        state = STRING;
+                        append((char) unicodeValue);
+                    }
+                    break;
+                case LITERAL:
+                    if (isDelimiter(c)) {
+                        state = DEFAULT;
+                        onScalar(text.toString(), false);
+                        // the delimiter is processed as a separate token
+                        continue;
+                    }
+                    append(c);
+                    break;
+                default:
+                    if (c == '"') {
+                        startToken(STRING);
+                    } else if (c == '{' || c == '[') {
+                        onBegin(c == '{');
+                    } else if (c == '}' || c == ']') {
+                        onEnd();
+                    } else if (c == ',') {
+                        onComma();
+                    } else if (c != ':' && !Character.isWhitespace(c)) {
+                        startToken(LITERAL);
+                        append(c);
+                    }
+            }
+            i++;
+        }
+
+        return decided;
+    }
+
+    @Override
+    public boolean isDecided() {
+        return decided;
+    }
+
+    /**
+     * Obtains the searched value as a boolean.
+     *
+     * @return value if it is true/false (case insensitive, quoted or not), null otherwise
+     */
+    public Boolean getBoolean() {
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtains the searched value as a string. Unquoted values (numbers, booleans, null) are returned as written.
+     *
+     * @return value, null if the value was not found or is not a scalar
+     */
+    public String getString() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPathMatcher{" + "path=" + Arrays.toString(path) + ", decided=" + decided + ", value=" + value + '}';
+    }
+}
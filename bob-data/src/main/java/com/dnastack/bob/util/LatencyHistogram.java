@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling histogram of latencies. Latencies are counted in exponentially growing buckets (20% wide), so percentiles are
+ * accurate to 20% with constant memory. The histogram covers a sliding time window made up of slices, the oldest slice
+ * is dropped as the window moves.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int SLICES = 10;
+    private static final long[] BOUNDS;
+
+    static {
+        // bucket upper bounds in milliseconds, from 1 ms to 2 minutes
+        List<Long> bounds = new ArrayList<>();
+        double b = 1;
+        while (b < TimeUnit.MINUTES.toMillis(2)) {
+            bounds.add((long) Math.ceil(b));
+            b *= 1.2;
+        }
+        bounds.add(Long.MAX_VALUE);
+
+        BOUNDS = new long[bounds.size()];
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUNDS[i] = bounds.get(i);
+        }
+    }
+
+    private final long[][] slices = new long[SLICES][BOUNDS.length];
+    private final long sliceLength;
+    private long sliceStart = System.nanoTime();
+    private int current;
+
+    /**
+     * Creates a histogram covering the given time window.
+     *
+     * @param window length of the window
+     * @param unit   time unit of the window
+     */
+    public LatencyHistogram(long window, TimeUnit unit) {
+        this.sliceLength = Math.max(1, unit.toNanos(window) / SLICES);
+    }
+
+    private void rotate() {
+        long now = System.nanoTime();
+        long elapsed = (now - sliceStart) / sliceLength;
+        for (long i = 0; i < Math.min(elapsed, SLICES); i++) {
+            current = (current + 1) % SLICES;
+            slices[current] = new long[BOUNDS.length];
+        }
+        sliceStart = (elapsed >= SLICES) ? now : sliceStart + elapsed * sliceLength;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latency latency
+     * @param unit    time unit of the latency
+     */
+    public synchronized void record(long latency, TimeUnit unit) {
+        rotate();
+
+        long ms = unit.toMillis(latency);
+        int i = 0;
+        while (BOUNDS[i] < ms) {
+            i++;
+        }
+        slices[current][i]++;
+    }
+
+    /**
+     * Obtains the number of latencies recorded within the window.
+     *
+     * @return count
+     */
+    public synchronized long getCount() {
+        rotate();
+
+        long res = 0;
+        for (long[] slice : slices) {
+            for (long c : slice) {
+                res += c;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Estimates a percentile of the latencies recorded within the window.
+     *
+     * @param percentile percentile (0-100)
+     * @param unit       time unit of the result
+     *
+     * @return upper bound of the percentile (0 if nothing has been recorded)
+     */
+    public synchronized long getPercentile(double percentile, TimeUnit unit) {
+        rotate();
+
+        long[] totals = new long[BOUNDS.length];
+        long count = 0;
+        for (long[] slice : slices) {
+            for (int i = 0; i < BOUNDS.length; i++) {
+                totals[i] += slice[i];
+                count += slice[i];
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        int i = 0;
+        while (i < BOUNDS.length - 1 && (seen += totals[i]) < rank) {
+            i++;
+        }
+
+        return unit.convert(Math.min(BOUNDS[i], TimeUnit.MINUTES.toMillis(2)), TimeUnit.MILLISECONDS);
+    }
+
+}
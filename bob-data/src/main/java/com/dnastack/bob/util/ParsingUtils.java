@@ -27,9 +27,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 /**
  * Utils for parsing query responses.
@@ -39,6 +36,60 @@ import org.json.JSONObject;
  */
 public class ParsingUtils {
 
+    /**
+     * Creates a matcher deciding {@link #parseContainsStringCaseInsensitive(String, String, String)}.
+     *
+     * @param trueString  string reporting a positive query result
+     * @param falseString string reporting a negative query result
+     *
+     * @return matcher
+     */
+    public static ContainsMatcher containsStringMatcher(String trueString, String falseString) {
+        return new ContainsMatcher(trueString, falseString);
+    }
+
+    /**
+     * Creates a matcher deciding {@link #parseStartsWithStringCaseInsensitive(String, String, String)}.
+     *
+     * @param trueString  string reporting a positive query result
+     * @param falseString string reporting a negative query result
+     *
+     * @return matcher
+     */
+    public static PrefixMatcher startsWithStringMatcher(String trueString, String falseString) {
+        return new PrefixMatcher(trueString, falseString);
+    }
+
+    /**
+     * Creates a matcher deciding {@link #parseYesNoCaseInsensitive(String)}.
+     *
+     * @return matcher
+     */
+    public static PrefixMatcher yesNoMatcher() {
+        return startsWithStringMatcher("yes", "no");
+    }
+
+    /**
+     * Creates a matcher deciding {@link #parseYesNoCaseInsensitive(String)} and {@link #parseRef(String)}.
+     *
+     * @return matcher
+     */
+    public static PrefixMatcher yesNoRefMatcher() {
+        return new PrefixMatcher("yes", "no", "ref");
+    }
+
+    /**
+     * Creates a matcher deciding {@link #parseBooleanFromJson(String, String...)} and
+     * {@link #parseStringFromJson(String, String...)}.
+     *
+     * @param path list of JSON keys determining the path to the searched value
+     *
+     * @return matcher
+     */
+    public static JsonPathMatcher jsonMatcher(String... path) {
+        return new JsonPathMatcher(path);
+    }
+
     /**
      * Checks whether a given response contains the specified string (found/not found), case insensitive.
      *
@@ -53,15 +104,16 @@ public class ParsingUtils {
             return null;
         }
 
-        String s = response.toLowerCase();
-        if (s.contains(trueString)) {
-            return true;
-        }
-        if (s.contains(falseString)) {
-            return false;
+        ContainsMatcher m = containsStringMatcher(trueString, falseString);
+        m.feed(response);
+        switch (m.getMatch()) {
+            case 0:
+                return true;
+            case 1:
+                return false;
+            default:
+                return null;
         }
-
-        return null;
     }
 
     /**
@@ -78,15 +130,16 @@ public class ParsingUtils {
             return null;
         }
 
-        String s = response.toLowerCase();
-        if (s.startsWith(trueString)) {
-            return true;
-        }
-        if (s.startsWith(falseString)) {
-            return false;
+        PrefixMatcher m = startsWithStringMatcher(trueString, falseString);
+        m.feed(response);
+        switch (m.getMatch()) {
+            case 0:
+                return true;
+            case 1:
+                return false;
+            default:
+                return null;
         }
-
-        return null;
     }
 
     /**
@@ -112,11 +165,15 @@ public class ParsingUtils {
             return null;
         }
 
-        return response.toLowerCase().startsWith("ref");
+        PrefixMatcher m = new PrefixMatcher("ref");
+        m.feed(response);
+
+        return m.matches(0);
     }
 
     /**
-     * Parses boolean value out of the given field in a JSON response.
+     * Parses boolean value out of the given field in a JSON response. Only the part of the response up to the field is
+     * read.
      *
      * @param response response in JSON format
      * @param path     list of JSON keys determining the path to the searched value
@@ -128,77 +185,30 @@ public class ParsingUtils {
             return null;
         }
 
-        JSONObject jo = new JSONObject(response);
-        JSONObject current = null;
-        for (String s : path) {
-            current = jo.optJSONObject(s);
-            if (current == null) {
-                JSONArray a = jo.optJSONArray(s);
-                if (a != null) {
-                    current = a.optJSONObject(0);
-                    if (current == null) {
-                        try {
-                            return a.getBoolean(0);
-                        } catch (JSONException jex) {
-                            return null;
-                        }
-                    }
-                }
-            }
-            if (current == null) {
-                try {
-                    return jo.getBoolean(s);
-                } catch (JSONException jex) {
-                    return null;
-                }
-            }
-            jo = current;
-        }
+        JsonPathMatcher m = jsonMatcher(path);
+        m.feed(response);
 
-        return null;
+        return m.getBoolean();
     }
 
     /**
-     * Parses string value out of the given field in a JSON response.
+     * Parses string value out of the given field in a JSON response. Only the part of the response up to the field is
+     * read.
      *
      * @param response response in JSON format
      * @param path     list of JSON keys determining the path to the searched value
      *
-     * @return field value if it is true/false, null otherwise
+     * @return field value, null if there is no such scalar field
      */
     public static String parseStringFromJson(String response, String... path) {
         if (response == null) {
             return null;
         }
 
-        JSONObject jo = new JSONObject(response);
-        JSONObject current = null;
-        for (String s : path) {
-            current = jo.optJSONObject(s);
-            if (current == null) {
-                JSONArray a = jo.optJSONArray(s);
-                if (a != null) {
-                    current = a.optJSONObject(0);
-                    if (current == null) {
-                        try {
-                            return a.getString(0);
-                        } catch (JSONException jex) {
-                            return null;
-                        }
-                    }
-                }
-            }
-            if (current == null) {
-                try {
-                    return jo.getString(s);
-                } catch (JSONException jex) {
-                    return null;
-                }
-            }
-            jo = current;
-        }
+        JsonPathMatcher m = jsonMatcher(path);
+        m.feed(response);
 
-        return null;
+        return m.getString();
     }
 
     /**
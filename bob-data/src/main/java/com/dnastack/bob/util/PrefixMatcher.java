@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.Arrays;
+
+/**
+ * Matches the beginning of a response against a list of prefixes, case insensitive. The matcher is decided as soon as
+ * every prefix either matched or failed, i.e. after reading at most as many characters as the longest prefix has.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class PrefixMatcher implements ResponseMatcher {
+
+    private final String[] prefixes;
+    private final boolean[] failed;
+    private int position = 0;
+    private int undecided;
+
+    /**
+     * Creates a matcher.
+     *
+     * @param prefixes lower case prefixes
+     */
+    public PrefixMatcher(String... prefixes) {
+        this.prefixes = prefixes;
+        this.failed = new boolean[prefixes.length];
+        this.undecided = prefixes.length;
+        for (int i = 0; i < prefixes.length; i++) {
+            if (prefixes[i].isEmpty()) {
+                undecided--;
+            }
+        }
+    }
+
+    @Override
+    public boolean feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length() && undecided > 0; i++) {
+            char c = Character.toLowerCase(chunk.charAt(i));
+            for (int j = 0; j < prefixes.length; j++) {
+                if (failed[j] || position >= prefixes[j].length()) {
+                    continue;
+                }
+                if (prefixes[j].charAt(position) != c) {
+                    failed[j] = true;
+                    undecided--;
+                } else if (position == prefixes[j].length() - 1) {
+                    undecided--;
+                }
+            }
+            position++;
+        }
+
+        return isDecided();
+    }
+
+    @Override
+    public boolean isDecided() {
+        return undecided == 0;
+    }
+
+    /**
+     * Checks whether the response read so far starts with the given prefix.
+     *
+     * @param index index of the prefix
+     *
+     * @return true if the response starts with the prefix, false otherwise
+     */
+    public boolean matches(int index) {
+        return !failed[index] && position >= prefixes[index].length();
+    }
+
+    /**
+     * Obtains the index of the first prefix the response starts with.
+     *
+     * @return index of the matching prefix, -1 if there is none
+     */
+    public int getMatch() {
+        for (int i = 0; i < prefixes.length; i++) {
+            if (matches(i)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixMatcher{" + "prefixes=" + Arrays.toString(prefixes) + ", position=" + position + ", undecided=" + undecided + '}';
+    }
+}
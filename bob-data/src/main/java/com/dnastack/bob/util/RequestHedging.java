@@ -0,0 +1,296 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.ADAPTIVE_TIMEOUT_MIN_SAMPLES;
+import static com.dnastack.bob.util.Constants.HEDGE_BUDGET;
+import static com.dnastack.bob.util.Constants.HEDGE_ENABLED;
+import static com.dnastack.bob.util.Constants.HEDGE_PERCENTILE;
+
+/**
+ * Hedging of requests to the beacons (disabled by default). If a request does not complete within a high percentile
+ * of the latencies of the beacon's successful requests, an identical request is sent and whichever completes first
+ * wins, the other one is cancelled. Hedges are limited by a global budget relative to the number of requests. If no
+ * attempt succeeds and any of them was rejected locally, the hedged request is rejected as well.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class RequestHedging {
+
+    private static final double MAX_TOKENS = 10;
+    private static final ConcurrentMap<String, HedgeStats> STATS = new ConcurrentHashMap<>();
+    private static double tokens = MAX_TOKENS;
+
+    private static final class Hedge<V> implements Runnable {
+
+        private final Supplier<ListenableFuture<V>> request;
+        private final HedgeStats stats;
+        private final SettableFuture<V> result = SettableFuture.create();
+        private ListenableFuture<V> primary;
+        private ListenableFuture<V> hedge;
+        private ScheduledFuture<?> timer;
+        private int pending;
+        private boolean decided;
+        private QueryRejectedException rejection;
+
+        Hedge(Supplier<ListenableFuture<V>> request, HedgeStats stats) {
+            this.request = request;
+            this.stats = stats;
+        }
+
+        private void attach(final ListenableFuture<V> attempt, final boolean hedged) {
+            Futures.addCallback(attempt, new FutureCallback<V>() {
+
+                @Override
+                public void onSuccess(V r) {
+                    complete(r, hedged, null);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    complete(null, hedged, t);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        void start(long delay) {
+            ListenableFuture<V> p = request.get();
+            synchronized (this) {
+                primary = p;
+                pending++;
+            }
+            attach(p, false);
+            ScheduledFuture<?> t = Scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                timer = t;
+            }
+
+            // the losing requests are not needed anymore
+            result.addListener(new Runnable() {
+
+                @Override
+                public void run() {
+                    cancelAll();
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        void complete(V r, boolean hedged, Throwable t) {
+            QueryRejectedException rejected;
+            synchronized (this) {
+                pending--;
+                if (t instanceof QueryRejectedException) {
+                    rejection = (QueryRejectedException) t;
+                }
+                if (decided || (r == null && pending > 0)) {
+                    // already decided or another attempt is still running, do not hedge a request which failed
+                    return;
+                }
+                decided = true;
+                rejected = (r == null) ? rejection : null;
+            }
+
+            // callbacks of the result run outside of the lock
+            if (rejected != null) {
+                result.setException(rejected);
+                return;
+            }
+            if (r != null && hedged) {
+                stats.onWin();
+            }
+            result.set(r);
+        }
+
+        void cancelAll() {
+            ScheduledFuture<?> t;
+            ListenableFuture<V> p;
+            ListenableFuture<V> h;
+            synchronized (this) {
+                decided = true;
+                t = timer;
+                p = primary;
+                h = hedge;
+            }
+
+            if (t != null) {
+                t.cancel(false);
+            }
+            if (p != null) {
+                p.cancel(true);
+            }
+            if (h != null) {
+                h.cancel(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (decided || !tryAcquire()) {
+                    return;
+                }
+                pending++;
+            }
+
+            stats.onHedge();
+            ListenableFuture<V> h = request.get();
+            boolean cancelled;
+            synchronized (this) {
+                hedge = h;
+                cancelled = decided;
+            }
+            attach(h, true);
+            if (cancelled) {
+                // decided while the hedge was being sent
+                h.cancel(true);
+            }
+        }
+    }
+
+    private static synchronized void addTokens() {
+        tokens = Math.min(MAX_TOKENS, tokens + HEDGE_BUDGET / 100d);
+    }
+
+    private static synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+
+        return true;
+    }
+
+    private static <V> Supplier<ListenableFuture<V>> timed(final Supplier<ListenableFuture<V>> request, final HedgeStats stats) {
+        return new Supplier<ListenableFuture<V>>() {
+
+            @Override
+            public ListenableFuture<V> get() {
+                final long start = System.nanoTime();
+                final ListenableFuture<V> f = request.get();
+                Futures.addCallback(f, new FutureCallback<V>() {
+
+                    @Override
+                    public void onSuccess(V r) {
+                        if (r != null) {
+                            stats.onFetch(System.nanoTime() - start);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        // ignore, only successful fetches tell how long the beacon usually takes
+                    }
+                }, MoreExecutors.directExecutor());
+
+                return f;
+            }
+        };
+    }
+
+    private static Long getDelay(HedgeStats stats) {
+        LatencyHistogram h = stats.getLatencies();
+        if (h.getCount() < ADAPTIVE_TIMEOUT_MIN_SAMPLES) {
+            return null;
+        }
+
+        return h.getPercentile(HEDGE_PERCENTILE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtains the hedging counters of a beacon, creating them if necessary.
+     *
+     * @param beaconId beacon ID
+     *
+     * @return hedging counters
+     */
+    public static HedgeStats getStats(String beaconId) {
+        HedgeStats s = STATS.get(beaconId);
+        if (s == null) {
+            HedgeStats n = new HedgeStats(beaconId);
+            s = STATS.putIfAbsent(beaconId, n);
+            if (s == null) {
+                s = n;
+            }
+        }
+
+        return s;
+    }
+
+    /**
+     * Obtains the hedging counters of all the beacons queried so far.
+     *
+     * @return map of beacon IDs to hedging counters
+     */
+    public static Map<String, HedgeStats> getAllStats() {
+        return Collections.unmodifiableMap(STATS);
+    }
+
+    /**
+     * Executes a request to a beacon, hedging it if it takes longer than usual.
+     *
+     * @param <V>      result type
+     * @param beaconId beacon ID
+     * @param deadline deadline of the request
+     * @param request  starts the request, called again for the hedge
+     *
+     * @return result of the request which completed first (or null if none of them succeeded)
+     */
+    public static <V> ListenableFuture<V> execute(String beaconId, Deadline deadline, Supplier<ListenableFuture<V>> request) {
+        HedgeStats stats = getStats(beaconId);
+        stats.onRequest();
+        addTokens();
+
+        if (!HEDGE_ENABLED) {
+            return request.get();
+        }
+
+        // the delay is based on the latencies of the fetches alone, not of the whole queries of the beacon
+        Supplier<ListenableFuture<V>> r = timed(request, stats);
+        Long delay = getDelay(stats);
+        if (delay == null || delay >= deadline.getRemaining(TimeUnit.MILLISECONDS)) {
+            // no data to decide when to hedge or no time for a hedge to help
+            return r.get();
+        }
+
+        Hedge<V> h = new Hedge<>(r, stats);
+        h.start(delay);
+
+        return h.result;
+    }
+
+}
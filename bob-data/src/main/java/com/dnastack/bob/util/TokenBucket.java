@@ -0,0 +1,292 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.dnastack.bob.util.Constants.RATE_DEFAULT;
+import static com.dnastack.bob.util.Constants.RATE_PREFIX;
+import static com.dnastack.bob.util.Constants.RATE_QUEUE_TIME;
+
+/**
+ * Rate limit of requests to a single host. Tokens are added at a fixed rate up to a burst of one second worth of
+ * requests. Requests which find no token wait in per client queues served round-robin, so that a client sending many
+ * requests cannot starve the others. Requests which do not get a token in time are rejected.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class TokenBucket {
+
+    private static final String UNKNOWN_CLIENT = "";
+    private static final ConcurrentMap<String, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int rate;
+    private final Map<String, Deque<SettableFuture<Boolean>>> queues = new HashMap<>();
+    private final Deque<String> clients = new ArrayDeque<>();
+    private double tokens;
+    private long refilled = System.nanoTime();
+    private ScheduledFuture<?> drain;
+    private int queued;
+    private long granted;
+    private long rejected;
+    private long waitTime;
+
+    public TokenBucket(String name, int rate) {
+        this.name = name;
+        this.rate = rate;
+        this.tokens = rate;
+    }
+
+    /**
+     * Obtains the bucket of a host, creating it if necessary.
+     *
+     * @param host host name
+     *
+     * @return bucket (or null if the host is not rate limited)
+     */
+    public static TokenBucket forHost(String host) {
+        TokenBucket b = BUCKETS.get(host);
+        if (b == null) {
+            int rate = Integer.getInteger(RATE_PREFIX + host, RATE_DEFAULT);
+            if (rate <= 0) {
+                return null;
+            }
+
+            TokenBucket n = new TokenBucket(host, rate);
+            b = BUCKETS.putIfAbsent(host, n);
+            if (b == null) {
+                b = n;
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Obtains the buckets of all the rate limited hosts contacted so far.
+     *
+     * @return map of hosts to buckets
+     */
+    public static Map<String, TokenBucket> getAll() {
+        return Collections.unmodifiableMap(BUCKETS);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(rate, tokens + (now - refilled) * rate / (double) TimeUnit.SECONDS.toNanos(1));
+        refilled = now;
+    }
+
+    private void scheduleDrain() {
+        if (queued > 0 && (drain == null || drain.isDone())) {
+            long delay = (long) Math.ceil((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / rate);
+            drain = Scheduler.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    drain();
+                }
+            }, Math.max(0, delay), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SettableFuture<Boolean> pollNext() {
+        // round-robin over the clients with queued requests
+        while (!clients.isEmpty()) {
+            String c = clients.poll();
+            Deque<SettableFuture<Boolean>> q = queues.get(c);
+            SettableFuture<Boolean> p = q.poll();
+            if (q.isEmpty()) {
+                queues.remove(c);
+            } else {
+                clients.add(c);
+            }
+            if (p != null) {
+                queued--;
+                return p;
+            }
+        }
+
+        return null;
+    }
+
+    private void drain() {
+        List<SettableFuture<Boolean>> ready = new ArrayList<>();
+        synchronized (this) {
+            // this is the scheduled drain, which is not done until it returns
+            drain = null;
+            refill();
+            while (tokens >= 1 && queued > 0) {
+                SettableFuture<Boolean> p = pollNext();
+                if (p == null) {
+                    break;
+                }
+                if (p.isDone()) {
+                    // timed out or cancelled while waiting
+                    continue;
+                }
+                tokens--;
+                ready.add(p);
+            }
+            scheduleDrain();
+        }
+
+        // complete the permits outside of the lock, their callbacks start the requests
+        for (SettableFuture<Boolean> p : ready) {
+            p.set(true);
+        }
+    }
+
+    private synchronized boolean remove(String client, SettableFuture<Boolean> permit) {
+        Deque<SettableFuture<Boolean>> q = queues.get(client);
+        if (q == null || !q.remove(permit)) {
+            return false;
+        }
+
+        queued--;
+        rejected++;
+        if (q.isEmpty()) {
+            queues.remove(client);
+            clients.remove(client);
+        }
+
+        return true;
+    }
+
+    /**
+     * Asks for a token to send a request.
+     *
+     * @param deadline deadline of the request (identifying the client)
+     *
+     * @return true once the token is granted, false if the request is rejected
+     */
+    public ListenableFuture<Boolean> acquire(Deadline deadline) {
+        final String client = (deadline.getClient() == null) ? UNKNOWN_CLIENT : deadline.getClient();
+        final SettableFuture<Boolean> permit = SettableFuture.create();
+        final long start = System.nanoTime();
+        synchronized (this) {
+            refill();
+            if (queued == 0 && tokens >= 1) {
+                tokens--;
+                granted++;
+                return Futures.immediateFuture(true);
+            }
+
+            Deque<SettableFuture<Boolean>> q = queues.get(client);
+            if (q == null) {
+                q = new ArrayDeque<>();
+                queues.put(client, q);
+                clients.add(client);
+            }
+            q.add(permit);
+            queued++;
+            scheduleDrain();
+        }
+
+        Scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                // a permit taken off the queue is being granted
+                if (remove(client, permit)) {
+                    permit.set(false);
+                }
+            }
+        }, Math.min(RATE_QUEUE_TIME, deadline.getRemaining(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+        permit.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (permit.isCancelled()) {
+                    remove(client, permit);
+                } else if (Futures.getUnchecked(permit)) {
+                    synchronized (TokenBucket.this) {
+                        granted++;
+                        waitTime += System.nanoTime() - start;
+                    }
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return permit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtains the rate limit.
+     *
+     * @return max number of requests per second
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    public synchronized long getGranted() {
+        return granted;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Obtains the average time requests waited for a token.
+     *
+     * @param unit time unit of the result
+     *
+     * @return average wait time
+     */
+    public synchronized double getAverageWaitTime(TimeUnit unit) {
+        return (granted == 0) ? 0 : (double) unit.convert(waitTime, TimeUnit.NANOSECONDS) / granted;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucket{" + "name=" + name + ", rate=" + rate + ", queued=" + getQueued() + '}';
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Chromosome;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Bulkhead;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the beacon query pipeline.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconQueryPipelineTest {
+
+    /**
+     * Processor serving multiple beacons by a shared request, whose responses are completed by the test.
+     */
+    private static class SharedProcessor implements StagedBeaconProcessor, MultiBeaconProcessor {
+
+        private final List<SettableFuture<String>> fetches;
+
+        SharedProcessor(List<SettableFuture<String>> fetches) {
+            this.fetches = fetches;
+        }
+
+        @Override
+        public String getFetchGroup(Beacon beacon) {
+            return "organization";
+        }
+
+        @Override
+        public Set<Reference> getSupportedReferences() {
+            return EnumSet.of(Reference.HG19);
+        }
+
+        @Override
+        public ListenableFuture<Boolean> parse(Beacon beacon, String response) {
+            return Futures.immediateFuture(response == null ? null : Boolean.valueOf(response));
+        }
+
+        @Override
+        public ListenableFuture<String> fetch(Beacon beacon, Query query, Deadline deadline) {
+            SettableFuture<String> f = SettableFuture.create();
+            fetches.add(f);
+
+            return f;
+        }
+    }
+
+    private static void awaitFetch(List<?> fetches) throws InterruptedException {
+        // requests are started asynchronously
+        long start = System.nanoTime();
+        while (fetches.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(10);
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        Bulkhead.start(Executors.defaultThreadFactory());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Bulkhead.shutdown();
+    }
+
+    @Test
+    public void testDistinctProcessorInstancesShareFetch() throws Exception {
+        List<SettableFuture<String>> fetches = new CopyOnWriteArrayList<>();
+        Query q = new Query(Chromosome.CHR13, 32888798L, "G", Reference.HG19);
+        Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+
+        // two beacons of one organization served by different pooled instances of the processor
+        SharedProcessor p1 = new SharedProcessor(fetches);
+        SharedProcessor p2 = new SharedProcessor(fetches);
+        ListenableFuture<Boolean> r1 = BeaconQueryPipeline.execute(p1, new Beacon("shared-1", "Shared 1", null), q, deadline);
+        ListenableFuture<Boolean> r2 = BeaconQueryPipeline.execute(p2, new Beacon("shared-2", "Shared 2", null), q, deadline);
+
+        awaitFetch(fetches);
+        Thread.sleep(100);
+        assertEquals(1, fetches.size());
+
+        fetches.get(0).set("true");
+        assertTrue(r1.get(5, TimeUnit.SECONDS));
+        assertTrue(r2.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStalledFetchCancelledAtDeadline() throws Exception {
+        List<SettableFuture<String>> fetches = new CopyOnWriteArrayList<>();
+        Query q = new Query(Chromosome.CHR13, 32888798L, "G", Reference.HG19);
+        Deadline deadline = Deadline.after(200, TimeUnit.MILLISECONDS);
+
+        // the beacon never responds
+        SharedProcessor p = new SharedProcessor(fetches);
+        ListenableFuture<Boolean> r = BeaconQueryPipeline.execute(p, new Beacon("stalled", "Stalled", null), q, deadline);
+
+        assertNull(r.get(5, TimeUnit.SECONDS));
+        awaitFetch(fetches);
+        // cancellation reaches the fetch after the result completes
+        try {
+            fetches.get(0).get(5, TimeUnit.SECONDS);
+            fail("The stalled fetch has not been cancelled.");
+        } catch (CancellationException ex) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Chromosome;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.Bulkhead;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of coalescing of identical queries in progress.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class InFlightQueryRegistryTest {
+
+    /**
+     * Processor whose responses are completed by the test.
+     */
+    private static class PendingProcessor extends AbstractBeaconProcessor {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<SettableFuture<String>> fetches;
+
+        PendingProcessor(List<SettableFuture<String>> fetches) {
+            this.fetches = fetches;
+        }
+
+        @Override
+        public Set<Reference> getSupportedReferences() {
+            return EnumSet.of(Reference.HG19);
+        }
+
+        @Override
+        public ListenableFuture<Boolean> parseQueryResponse(Beacon beacon, String response) {
+            return Futures.immediateFuture(response == null ? null : Boolean.valueOf(response));
+        }
+
+        @Override
+        public ListenableFuture<String> getQueryResponse(Beacon beacon, Query query, Deadline deadline) {
+            SettableFuture<String> f = SettableFuture.create();
+            fetches.add(f);
+
+            return f;
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        Bulkhead.start(Executors.defaultThreadFactory());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Bulkhead.shutdown();
+    }
+
+    @Test
+    public void testDistinctProcessorInstancesShareQuery() throws Exception {
+        List<SettableFuture<String>> fetches = new CopyOnWriteArrayList<>();
+        Query q = new Query(Chromosome.CHR13, 32888798L, "G", Reference.HG19);
+        Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+
+        // two pooled instances of the same processor serving the same beacon
+        PendingProcessor p1 = new PendingProcessor(fetches);
+        PendingProcessor p2 = new PendingProcessor(fetches);
+        ListenableFuture<Boolean> r1 = p1.executeQuery(new Beacon("coalesced", "Coalesced", p1), q, deadline);
+        ListenableFuture<Boolean> r2 = p2.executeQuery(new Beacon("coalesced", "Coalesced", p2), q, deadline);
+
+        assertEquals(1, InFlightQueryRegistry.size());
+
+        // the request is started asynchronously
+        long start = System.nanoTime();
+        while (fetches.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(10);
+        }
+        for (SettableFuture<String> f : fetches) {
+            f.set("true");
+        }
+
+        assertTrue(r1.get(5, TimeUnit.SECONDS));
+        assertTrue(r2.get(5, TimeUnit.SECONDS));
+        assertEquals(0, InFlightQueryRegistry.size());
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.processor;
+
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.QueryRejectedException;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the registry of requests in progress.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class InFlightRegistryTest {
+
+    private static Supplier<ListenableFuture<String>> failing(final RuntimeException ex) {
+        return new Supplier<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> get() {
+                throw ex;
+            }
+        };
+    }
+
+    @Test
+    public void testFailedRequestReleasesKey() throws Exception {
+        InFlightRegistry<String, String> registry = new InFlightRegistry<>();
+        Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+
+        ListenableFuture<String> r = registry.execute("key", deadline, failing(new IllegalStateException()));
+        assertNull(r.get(5, TimeUnit.SECONDS));
+        assertEquals(0, registry.size());
+
+        // the next caller starts a request of its own
+        ListenableFuture<String> n = registry.execute("key", deadline, new Supplier<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> get() {
+                return Futures.immediateFuture("response");
+            }
+        });
+        assertEquals("response", n.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRejectedRequestIsRejection() throws Exception {
+        InFlightRegistry<String, String> registry = new InFlightRegistry<>();
+
+        ListenableFuture<String> r = registry.execute("key", Deadline.after(10, TimeUnit.SECONDS), failing(new RejectedExecutionException()));
+        try {
+            r.get(5, TimeUnit.SECONDS);
+            fail("request not rejected");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof QueryRejectedException);
+        }
+        assertEquals(0, registry.size());
+    }
+
+}
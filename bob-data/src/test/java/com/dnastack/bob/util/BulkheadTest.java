@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the per beacon bulkheads.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BulkheadTest {
+
+    private static Runnable await(final CountDownLatch latch) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    // ignore, the bulkhead is shutting down
+                }
+            }
+        };
+    }
+
+    private static Runnable countDown(final CountDownLatch latch) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+    }
+
+    @Test
+    public void testSaturatedBulkheadRejects() throws InterruptedException {
+        Bulkhead b = new Bulkhead("test", 1, 1, Executors.defaultThreadFactory());
+        CountDownLatch hung = new CountDownLatch(1);
+
+        // one task hangs in the only thread, one waits in the queue
+        assertTrue(b.execute(await(hung)));
+        assertTrue(b.execute(await(hung)));
+        assertFalse(b.execute(await(hung)));
+        assertEquals(1, b.getRejected());
+
+        // the beacon recovers once its thread is released
+        hung.countDown();
+        long start = System.nanoTime();
+        while (b.getQueued() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(10);
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(b.execute(countDown(done)));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBulkheadsRejectUntilStarted() {
+        Bulkhead.shutdown();
+        assertFalse(Bulkhead.forBeacon("test").execute(countDown(new CountDownLatch(1))));
+
+        Bulkhead.start(Executors.defaultThreadFactory());
+        try {
+            assertTrue(Bulkhead.forBeacon("test").execute(countDown(new CountDownLatch(1))));
+        } finally {
+            Bulkhead.shutdown();
+        }
+
+        // shut down bulkheads reject as well
+        assertFalse(Bulkhead.forBeacon("test").execute(countDown(new CountDownLatch(1))));
+    }
+
+}
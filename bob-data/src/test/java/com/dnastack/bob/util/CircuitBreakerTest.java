@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static com.dnastack.bob.util.Constants.BREAKER_MIN_CALLS;
+import static com.dnastack.bob.util.Constants.BREAKER_SLOW_CALL_DURATION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the circuit breaker.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION = 100;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(BREAKER_SLOW_CALL_DURATION);
+
+    private static CircuitBreaker createOpenBreaker() {
+        CircuitBreaker b = new CircuitBreaker("test", OPEN_DURATION, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < BREAKER_MIN_CALLS; i++) {
+            assertTrue(b.tryAcquire());
+            b.onFailure(FAST);
+        }
+
+        return b;
+    }
+
+    private static void awaitHalfOpen(CircuitBreaker b) throws InterruptedException {
+        Thread.sleep(OPEN_DURATION + 50);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, b.getState());
+    }
+
+    @Test
+    public void testOpensOnFailures() {
+        CircuitBreaker b = new CircuitBreaker("test", OPEN_DURATION, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < BREAKER_MIN_CALLS - 1; i++) {
+            assertTrue(b.tryAcquire());
+            b.onFailure(FAST);
+        }
+
+        // too few calls to judge the upstream
+        assertEquals(CircuitBreaker.State.CLOSED, b.getState());
+
+        assertTrue(b.tryAcquire());
+        b.onFailure(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, b.getState());
+        assertFalse(b.tryAcquire());
+        assertEquals(1, b.getNotPermittedCalls());
+    }
+
+    @Test
+    public void testOpensOnSlowCalls() {
+        CircuitBreaker b = new CircuitBreaker("test", OPEN_DURATION, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < BREAKER_MIN_CALLS; i++) {
+            assertTrue(b.tryAcquire());
+            b.onSuccess(SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, b.getState());
+    }
+
+    @Test
+    public void testSuccessfulProbeCloses() throws InterruptedException {
+        CircuitBreaker b = createOpenBreaker();
+        awaitHalfOpen(b);
+
+        // a single probe at a time
+        assertTrue(b.tryAcquire());
+        assertFalse(b.tryAcquire());
+
+        b.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, b.getState());
+        assertEquals(0, b.getBufferedCalls());
+        assertTrue(b.tryAcquire());
+    }
+
+    @Test
+    public void testFailedProbeReopens() throws InterruptedException {
+        CircuitBreaker b = createOpenBreaker();
+        awaitHalfOpen(b);
+
+        assertTrue(b.tryAcquire());
+        b.onFailure(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, b.getState());
+        assertFalse(b.tryAcquire());
+
+        // the open period starts again
+        awaitHalfOpen(b);
+        assertTrue(b.tryAcquire());
+    }
+
+    @Test
+    public void testIgnoredProbeReleased() throws InterruptedException {
+        CircuitBreaker b = createOpenBreaker();
+        awaitHalfOpen(b);
+
+        assertTrue(b.tryAcquire());
+        b.onIgnored();
+
+        // a cancelled probe says nothing about the upstream, another one is let through
+        assertEquals(CircuitBreaker.State.HALF_OPEN, b.getState());
+        assertTrue(b.tryAcquire());
+    }
+
+}
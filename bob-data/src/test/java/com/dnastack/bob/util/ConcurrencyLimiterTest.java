@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static com.dnastack.bob.util.Constants.LIMIT_INITIAL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the adaptive concurrency limit of a host.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static Deadline deadline() {
+        return Deadline.after(10, TimeUnit.SECONDS);
+    }
+
+    private static ConcurrencyLimiter createFullLimiter() throws Exception {
+        ConcurrencyLimiter l = new ConcurrencyLimiter("test");
+        for (int i = 0; i < LIMIT_INITIAL; i++) {
+            ListenableFuture<Boolean> p = l.acquire(deadline());
+            assertTrue(p.isDone() && p.get());
+        }
+
+        return l;
+    }
+
+    @Test
+    public void testRequestsOverLimitWait() throws Exception {
+        ConcurrencyLimiter l = createFullLimiter();
+
+        ListenableFuture<Boolean> p = l.acquire(deadline());
+        assertFalse(p.isDone());
+        assertEquals(1, l.getQueued());
+
+        // the permit of a completed request is passed on
+        l.release();
+        assertTrue(p.isDone() && p.get());
+        assertEquals(0, l.getQueued());
+        assertEquals(LIMIT_INITIAL, l.getInFlight());
+    }
+
+    @Test
+    public void testRequestRejectedAtDeadline() throws Exception {
+        ConcurrencyLimiter l = createFullLimiter();
+
+        ListenableFuture<Boolean> p = l.acquire(Deadline.after(50, TimeUnit.MILLISECONDS));
+        assertFalse(p.get(1, TimeUnit.SECONDS));
+        assertEquals(0, l.getQueued());
+        assertEquals(1, l.getRejected());
+
+        // the rejected request does not take a permit released later
+        l.release();
+        assertEquals(LIMIT_INITIAL - 1, l.getInFlight());
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws Exception {
+        ConcurrencyLimiter l = createFullLimiter();
+
+        // a full limit worth of prompt round trips adds one permit
+        for (int i = 0; i <= LIMIT_INITIAL; i++) {
+            l.onSuccess(RTT);
+            assertTrue(l.acquire(deadline()).get());
+        }
+        assertEquals(LIMIT_INITIAL + 1, l.getLimit());
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() throws Exception {
+        ConcurrencyLimiter l = createFullLimiter();
+        l.onSuccess(RTT);
+        assertTrue(l.acquire(deadline()).get());
+
+        // round trips well above the minimum mean congestion
+        l.onSuccess(10 * RTT);
+        int limit = l.getLimit();
+        assertEquals((int) ((LIMIT_INITIAL + 1.0 / LIMIT_INITIAL) * 0.9), limit);
+        assertTrue(limit < LIMIT_INITIAL);
+    }
+
+    @Test
+    public void testDecreaseOncePerRoundTrip() throws Exception {
+        ConcurrencyLimiter l = createFullLimiter();
+        // a round trip longer than the test
+        l.onSuccess(TimeUnit.SECONDS.toNanos(10));
+        int limit = l.getLimit();
+
+        // failures of requests sent in the same round trip are a single congestion signal
+        l.onFailure();
+        l.onFailure();
+        l.onFailure();
+        assertEquals((int) ((LIMIT_INITIAL + 1.0 / LIMIT_INITIAL) * 0.9), l.getLimit());
+        assertTrue(l.getLimit() < limit);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the execution modes of {@link HttpUtils} at high concurrency against a local beacon stub answering after a
+ * fixed delay. The mode is fixed for the lifetime of a JVM, so every mode is measured by a separate run:
+ *
+ * <pre>
+ * java -cp ... com.dnastack.bob.util.HttpExecutionModeBenchmark async [concurrency] [requests] [latency ms]
+ * java -cp ... com.dnastack.bob.util.HttpExecutionModeBenchmark blocking [concurrency] [requests] [latency ms]
+ * </pre>
+ *
+ * Reports throughput, latency percentiles and the peak number of live threads on the client side.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class HttpExecutionModeBenchmark {
+
+    private static final byte[] BODY = "beacon found".getBytes(StandardCharsets.UTF_8);
+    private static final String STUB_THREAD_PREFIX = "stub-";
+
+    private static HttpServer startStub(final long latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        final ExecutorService handlers = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(STUB_THREAD_PREFIX + "%d").setDaemon(true).build());
+        server.setExecutor(handlers);
+        server.createContext("/", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException ex) {
+                    // ignore, answer right away
+                }
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(BODY);
+                }
+            }
+        });
+        server.start();
+
+        return server;
+    }
+
+    private static int countClientThreads() {
+        int res = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (!t.getName().startsWith(STUB_THREAD_PREFIX)) {
+                res++;
+            }
+        }
+
+        return res;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p / 100 * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = (args.length > 0) ? args[0] : "async";
+        int concurrency = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+        int requests = (args.length > 2) ? Integer.parseInt(args[2]) : 20000;
+        long latency = (args.length > 3) ? Long.parseLong(args[3]) : 200;
+
+        // lift the limits meant to protect real beacons before the util classes are initialized
+        System.setProperty("bob.http.executionMode", mode);
+        System.setProperty("bob.http.maxConnections", String.valueOf(concurrency));
+        System.setProperty("bob.http.maxConnectionsPerRoute", String.valueOf(concurrency));
+        System.setProperty("bob.limit.initial", String.valueOf(concurrency));
+        System.setProperty("bob.limit.queueSize", String.valueOf(requests));
+        System.setProperty("bob.limit.queueTime", "60000");
+        System.setProperty("bob.request.timeout", "60");
+
+        HttpUtils.startBlockingExecutor(new ThreadFactoryBuilder().setNameFormat("bob-http-%d").setDaemon(true).build());
+        HttpServer server = startStub(latency);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        try {
+            // warm up connections and code paths
+            for (int i = 0; i < Math.min(concurrency, 100); i++) {
+                HttpUtils.executeRequestAsync(HttpUtils.createRequest(url, false, null), Deadline.after(60, TimeUnit.SECONDS)).get();
+            }
+
+            // sample the number of threads on the client side, the stub runs in the same JVM
+            final AtomicInteger peakThreads = new AtomicInteger();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(STUB_THREAD_PREFIX + "sampler").setDaemon(true).build());
+            sampler.scheduleAtFixedRate(new Runnable() {
+
+                @Override
+                public void run() {
+                    int n = countClientThreads();
+                    if (n > peakThreads.get()) {
+                        peakThreads.set(n);
+                    }
+                }
+            }, 0, 10, TimeUnit.MILLISECONDS);
+
+            final long[] latencies = new long[requests];
+            int failed = 0;
+            long start = System.nanoTime();
+            for (int sent = 0; sent < requests; sent += concurrency) {
+                // keep up to the given number of requests in flight
+                int n = Math.min(concurrency, requests - sent);
+                List<ListenableFuture<String>> fs = new ArrayList<>(n);
+                long[] starts = new long[n];
+                for (int i = 0; i < n; i++) {
+                    starts[i] = System.nanoTime();
+                    fs.add(HttpUtils.executeRequestAsync(HttpUtils.createRequest(url, false, null), Deadline.after(60, TimeUnit.SECONDS)));
+                }
+                for (int i = 0; i < n; i++) {
+                    try {
+                        if (Futures.getUnchecked(fs.get(i)) == null) {
+                            failed++;
+                        }
+                    } catch (UncheckedExecutionException ex) {
+                        // rejected by the limits of the host
+                        failed++;
+                    }
+                    latencies[sent + i] = System.nanoTime() - starts[i];
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            sampler.shutdownNow();
+
+            Arrays.sort(latencies);
+            System.out.println("mode:        " + mode);
+            System.out.println("concurrency: " + concurrency + ", requests: " + requests + ", upstream latency: " + latency + " ms");
+            System.out.println("throughput:  " + (requests * TimeUnit.SECONDS.toNanos(1) / elapsed) + " requests/s");
+            System.out.println("latency:     p50 " + TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 50)) + " ms, p99 " + TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 99)) + " ms, max " + TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length - 1]) + " ms");
+            System.out.println("failed:      " + failed);
+            System.out.println("threads:     " + peakThreads.get() + " at peak (client side)");
+        } finally {
+            HttpUtils.shutdown();
+            Scheduler.shutdown();
+            server.stop(0);
+            System.exit(0);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static com.dnastack.bob.util.Constants.HEDGE_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test of hedged requests.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class RequestHedgingTest {
+
+    @Test
+    public void testNoHedgesByDefault() throws InterruptedException {
+        assertFalse(HEDGE_ENABLED);
+
+        // plenty of fast requests, after which a slow one would be hedged
+        for (int i = 0; i < 100; i++) {
+            RequestHedging.execute("hedging", Deadline.after(10, TimeUnit.SECONDS), new Supplier<ListenableFuture<String>>() {
+
+                @Override
+                public ListenableFuture<String> get() {
+                    return Futures.immediateFuture("fast");
+                }
+            });
+        }
+        final AtomicInteger calls = new AtomicInteger();
+        final SettableFuture<String> stalled = SettableFuture.create();
+        ListenableFuture<String> res = RequestHedging.execute("hedging", Deadline.after(10, TimeUnit.SECONDS), new Supplier<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> get() {
+                calls.incrementAndGet();
+                return stalled;
+            }
+        });
+        Thread.sleep(200);
+
+        // the request is passed through as it is
+        assertSame(stalled, res);
+        assertEquals(1, calls.get());
+        assertEquals(0, RequestHedging.getStats("hedging").getHedges());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the incremental response matchers. Responses are fed in chunks of various sizes until the matchers are
+ * decided, the part of a response read by then has to be parsed to the same result as the whole response was by the
+ * original parsers, which worked on complete responses only.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class ResponseMatcherTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 5, 8, 1024};
+
+    private static String read(ResponseMatcher m, String response, int chunkSize) {
+        int read = 0;
+        while (read < response.length()) {
+            int end = Math.min(response.length(), read + chunkSize);
+            boolean decided = m.feed(response.substring(read, end));
+            read = end;
+            if (decided) {
+                break;
+            }
+        }
+
+        return response.substring(0, read);
+    }
+
+    // original implementations of the parsers
+    private static Boolean contains(String response, String trueString, String falseString) {
+        String s = response.toLowerCase();
+        if (s.contains(trueString)) {
+            return true;
+        }
+        if (s.contains(falseString)) {
+            return false;
+        }
+
+        return null;
+    }
+
+    private static Boolean startsWith(String response, String trueString, String falseString) {
+        String s = response.toLowerCase();
+        if (s.startsWith(trueString)) {
+            return true;
+        }
+        if (s.startsWith(falseString)) {
+            return false;
+        }
+
+        return null;
+    }
+
+    @Test
+    public void testContainsMatcher() {
+        String[] responses = {"<p>Beacon found the allele.</p>", "BEACON FOUND", "<p>Beacon cannot find the allele.</p>", "beacon cannot find, beacon found", "beacon beacon found", "beacon foun", "", "no answer"};
+        for (String r : responses) {
+            for (int size : CHUNK_SIZES) {
+                String read = read(ParsingUtils.containsStringMatcher("beacon found", "beacon cannot find"), r, size);
+                assertEquals(r + " in chunks of " + size, contains(r, "beacon found", "beacon cannot find"), ParsingUtils.parseContainsStringCaseInsensitive(read, "beacon found", "beacon cannot find"));
+            }
+        }
+    }
+
+    @Test
+    public void testNeedleSplitAcrossChunks() {
+        // the partial match has to fall back to a shorter prefix of the needle
+        String response = "xaaabx";
+        for (int i = 0; i <= response.length(); i++) {
+            ContainsMatcher m = new ContainsMatcher("aab");
+            m.feed(response.substring(0, i));
+            m.feed(response.substring(i));
+            assertTrue(m.isDecided());
+            assertEquals(0, m.getMatch());
+        }
+    }
+
+    @Test
+    public void testPrefixMatcher() {
+        String[] responses = {"Yes", "yes\n", "NO", "no, ref", "REF", "Reference", "yesno", "ye", "", " yes", "maybe"};
+        for (String r : responses) {
+            for (int size : CHUNK_SIZES) {
+                PrefixMatcher m = ParsingUtils.yesNoRefMatcher();
+                String read = read(m, r, size);
+                assertEquals(r + " in chunks of " + size, startsWith(r, "yes", "no"), ParsingUtils.parseYesNoCaseInsensitive(read));
+                assertEquals(r + " in chunks of " + size, r.toLowerCase().startsWith("ref"), ParsingUtils.parseRef(read));
+                // no more than the longest prefix is needed
+                assertTrue(r.length() < 3 || m.isDecided());
+            }
+        }
+    }
+
+    private static void assertJson(String response, Boolean expected, String... path) {
+        for (int size : CHUNK_SIZES) {
+            JsonPathMatcher m = ParsingUtils.jsonMatcher(path);
+            String read = read(m, response, size);
+            assertEquals(response + " in chunks of " + size, expected, m.getBoolean());
+            assertEquals(response + " in chunks of " + size, expected, ParsingUtils.parseBooleanFromJson(read, path));
+        }
+    }
+
+    private static void assertJson(String response, String expected, String... path) {
+        for (int size : CHUNK_SIZES) {
+            JsonPathMatcher m = ParsingUtils.jsonMatcher(path);
+            String read = read(m, response, size);
+            assertEquals(response + " in chunks of " + size, expected, m.getString());
+            assertEquals(response + " in chunks of " + size, expected, ParsingUtils.parseStringFromJson(read, path));
+        }
+    }
+
+    @Test
+    public void testJsonPath() {
+        assertJson("{\"exists\":true}", true, "exists");
+        assertJson("{ \"exists\" : false }", false, "exists");
+        assertJson("{\"exists\":\"TRUE\"}", true, "exists");
+        assertJson("{\"exists\":null}", (Boolean) null, "exists");
+        assertJson("{\"other\":true}", (Boolean) null, "exists");
+        assertJson("{\"response\":{\"exists\":false}}", false, "response", "exists");
+        assertJson("{\"response\":{\"other\":true}}", (Boolean) null, "response", "exists");
+        // values of other keys are skipped, whatever they contain
+        assertJson("{\"other\":{\"exists\":true},\"exists\":false}", false, "exists");
+        assertJson("{\"other\":[1,{\"exists\":false}],\"exists\":true}", true, "exists");
+        assertJson("{\"other\":\"}]\\\"{\",\"exists\":true}", true, "exists");
+        // the searched value is an object
+        assertJson("{\"response\":{\"exists\":{\"value\":true}}}", (Boolean) null, "response", "exists");
+    }
+
+    @Test
+    public void testJsonArrays() {
+        // an array is replaced by its first element
+        assertJson("{\"response\":[{\"exists\":true},{\"exists\":false}]}", true, "response", "exists");
+        assertJson("{\"exists\":[false,true]}", false, "exists");
+        assertJson("{\"response\":[\"first\",\"second\"]}", "first", "response");
+        assertJson("{\"response\":{\"name\":[\"x\"]}}", "x", "response", "name");
+        assertJson("{\"exists\":[]}", (Boolean) null, "exists");
+        assertJson("{\"response\":[]}", (Boolean) null, "response", "exists");
+        assertJson("{\"exists\":[[true]]}", (Boolean) null, "exists");
+    }
+
+    @Test
+    public void testJsonScalarOnPath() {
+        // the first scalar found on the path is the result
+        assertJson("{\"response\":true}", true, "response", "exists");
+        assertJson("{\"response\":\"yes\"}", (Boolean) null, "response", "exists");
+        assertJson("{\"response\":\"yes\"}", "yes", "response", "exists");
+    }
+
+    @Test
+    public void testJsonEscapes() {
+        assertJson("{\"name\":\"a\\\"b\\\\c\\/d\\ne\\tf\"}", "a\"b\\c/d\ne\tf", "name");
+        assertJson("{\"name\":\"caf\\u00e9 \\u00C9\"}", "caf\u00e9 \u00c9", "name");
+        assertJson("{\"ex\\u0069sts\":true}", true, "exists");
+    }
+
+    @Test
+    public void testMalformedJson() {
+        // the original parsers failed, which the processors reported as no response
+        String[] responses = {"", "not json", "[true]", "{\"exists\":tru", "{\"exists\"", "{\"exists\":}", "{\"exists\":\"\\u00zz\"}"};
+        for (String r : responses) {
+            assertJson(r, (Boolean) null, "exists");
+            assertJson(r, (String) null, "exists");
+        }
+    }
+
+}
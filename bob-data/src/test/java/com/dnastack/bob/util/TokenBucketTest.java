@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.util;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the rate limit of a host.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class TokenBucketTest {
+
+    private static final int RATE = 20;
+
+    private static Deadline deadline(String client) {
+        return Deadline.after(10, TimeUnit.SECONDS).forClient(client);
+    }
+
+    private static TokenBucket createEmptyBucket() throws Exception {
+        TokenBucket b = new TokenBucket("test", RATE);
+        for (int i = 0; i < RATE; i++) {
+            ListenableFuture<Boolean> p = b.acquire(deadline("burst"));
+            assertTrue(p.isDone() && p.get());
+        }
+
+        return b;
+    }
+
+    @Test
+    public void testRequestsOverRateWait() throws Exception {
+        TokenBucket b = createEmptyBucket();
+
+        ListenableFuture<Boolean> p = b.acquire(deadline("a"));
+        assertFalse(p.isDone());
+        assertEquals(1, b.getQueued());
+
+        // a token is added after 1/RATE of a second
+        assertTrue(p.get(1, TimeUnit.SECONDS));
+        assertEquals(0, b.getQueued());
+    }
+
+    @Test
+    public void testClientsServedRoundRobin() throws Exception {
+        TokenBucket b = createEmptyBucket();
+
+        List<String> clients = Arrays.asList("a", "a", "a", "a", "b", "c");
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch granted = new CountDownLatch(clients.size());
+        for (final String client : clients) {
+            final ListenableFuture<Boolean> p = b.acquire(deadline(client));
+            p.addListener(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (Futures.getUnchecked(p)) {
+                        order.add(client);
+                        granted.countDown();
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        assertTrue(granted.await(2, TimeUnit.SECONDS));
+
+        // clients which came later do not wait for all the requests of the first one
+        assertEquals(Arrays.asList("a", "b", "c", "a", "a", "a"), order);
+    }
+
+    @Test
+    public void testRequestRejectedAtDeadline() throws Exception {
+        TokenBucket b = new TokenBucket("test", 1);
+        assertTrue(b.acquire(deadline("a")).get());
+
+        ListenableFuture<Boolean> p = b.acquire(Deadline.after(50, TimeUnit.MILLISECONDS).forClient("a"));
+        assertFalse(p.get(1, TimeUnit.SECONDS));
+        assertEquals(0, b.getQueued());
+        assertEquals(1, b.getRejected());
+    }
+
+}
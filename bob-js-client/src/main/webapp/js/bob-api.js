@@ -3,6 +3,7 @@ var timeout = 60000;
 var restUrl = "http://beacon-dnastack.rhcloud.com/rest/";
 var beaconsUrl = restUrl + "beacons";
 var responsesUrl = restUrl + "responses?";
+var responsesStreamUrl = restUrl + "responses/stream?";
 var beaconsListUrl = restUrl + "beacons";
 
 function createRequest() {
@@ -124,62 +125,65 @@ function writeInvalid(name) {
     div.innerHTML = newHTML;
 }
 
-function queryBeacon(beacon, chrom, pos, alt, ref) {
-    var xhr = createRequest();
+function formatResponseRow(obj) {
+    var response = obj.response;
+    var responseIndicator = "";
 
-    xhr.onreadystatechange = function () {
+    if (response == null) {
+        responseIndicator = "<span title='There was a problem obtaining the response for this beacon.' class='label label-warning'>&#x2005;&#x2005;&#x2005;&#x2005;</span>";
+    } else if (response == true) {
+        responseIndicator = "<span class='label label-success'>Yes</span>";
+    } else {
+        responseIndicator = "<span class='label label-danger'>No</span>";
+    }
 
-        if (xhr.readyState == 4 && xhr.status == 200) {
+    if (obj.stale == true) {
+        responseIndicator += " <span title='Cached response which is being refreshed.' class='label label-default'>stale</span>";
+    }
 
-            obj = JSON.parse(xhr.responseText);
-            var arrayLength = obj.length;
-            var resultTable = "";
-            //resultTable += "<center><table><tr><th>Beacon</th><th>Result</th></tr>";
-            resultTable += "<center><table>";
-
-            var rows = "";
-
-            for (var i = 0; i < arrayLength; i++) {
-                var response = obj[i].response;
-                var responseIndicator = "";
-
-                if (response == null) {
-                    responseIndicator = "<span title='There was a problem obtaining the response for this beacon.' class='label label-warning'>&#x2005;&#x2005;&#x2005;&#x2005;</span>";
-                } else if (response == true) {
-                    responseIndicator = "<span class='label label-success'>Yes</span>";
-                } else {
-                    responseIndicator = "<span class='label label-danger'>No</span>";
-                }
-
-                var aggField = obj[i].beacon.aggregator;
-                var aggString = "";
-
-                if (aggField != null && aggField == true) {
-                    aggString = " [aggregator]";
-                }
-
-                if (obj[i].beacon.name == "Beacon of Beacons") {
-                    var line = "<tr style=\"padding-bottom: 10em;\"><td>" + responseIndicator + "</td><td><b>" + obj[i].beacon.name + " (" + obj[i].beacon.organization + ")</b></td></tr>";
-                    rows = line + rows; // prepend
-                } else {
-                    var line = "<tr><td>" + responseIndicator + "</td><td>" + obj[i].beacon.name + " (" + obj[i].beacon.organization + ")" + aggString + "</td></tr>";
-                    rows += line; // append
-                }
-            }
+    var aggField = obj.beacon.aggregator;
+    var aggString = "";
+
+    if (aggField != null && aggField == true) {
+        aggString = " [aggregator]";
+    }
 
-            resultTable += rows;
-            resultTable += "</table></center>";
+    if (obj.beacon.name == "Beacon of Beacons") {
+        return "<tr style=\"padding-bottom: 10em;\"><td>" + responseIndicator + "</td><td><b>" + obj.beacon.name + " (" + obj.beacon.organization + ")</b></td></tr>";
+    }
 
-            document.getElementById("results").innerHTML = resultTable;
+    return "<tr><td>" + responseIndicator + "</td><td>" + obj.beacon.name + " (" + obj.beacon.organization + ")" + aggString + "</td></tr>";
+}
+
+function printResponseRows(obj, pending) {
+    var arrayLength = obj.length;
+    var resultTable = "";
+    //resultTable += "<center><table><tr><th>Beacon</th><th>Result</th></tr>";
+    resultTable += "<center><table>";
+
+    var rows = "";
+
+    for (var i = 0; i < arrayLength; i++) {
+        if (obj[i].beacon.name == "Beacon of Beacons") {
+            rows = formatResponseRow(obj[i]) + rows; // prepend
+        } else {
+            rows += formatResponseRow(obj[i]); // append
         }
-    };
+    }
 
-    xhr.ontimeout = function () {
-        document.getElementById("results").innerHTML = "Request timed out.";
-    };
+    resultTable += rows;
+    resultTable += "</table></center>";
+
+    if (pending) {
+        resultTable += "<center><img height='30' src='img/wait.gif'</center>";
+    }
 
+    document.getElementById("results").innerHTML = resultTable;
+}
+
+function getQueryParams(beacon, chrom, pos, alt, ref) {
     var urlArr = [];
-    urlArr.push(responsesUrl, "chrom=" + chrom, "&pos=" + pos, "&allele=" + alt);
+    urlArr.push("chrom=" + chrom, "&pos=" + pos, "&allele=" + alt);
 
     if (beacon != "all") {
         urlArr.push("&beacon=" + beacon);
@@ -187,9 +191,55 @@ function queryBeacon(beacon, chrom, pos, alt, ref) {
     if (ref != "all") {
         urlArr.push("&ref=" + ref);
     }
-    var url = urlArr.join("");
 
-    sendRequest(openRequest(xhr, "GET", url));
+    return urlArr.join("");
+}
+
+function streamBeacon(beacon, chrom, pos, alt, ref) {
+    // responses are displayed one by one as the beacons answer
+    var source = new EventSource(responsesStreamUrl + getQueryParams(beacon, chrom, pos, alt, ref));
+    var obj = [];
+
+    source.onmessage = function (e) {
+        obj.push(JSON.parse(e.data));
+        printResponseRows(obj, true);
+    };
+
+    source.addEventListener("end", function () {
+        source.close();
+        printResponseRows(obj, false);
+    }, false);
+
+    source.onerror = function () {
+        source.close();
+        if (obj.length == 0) {
+            document.getElementById("results").innerHTML = "Request failed.";
+        } else {
+            printResponseRows(obj, false);
+        }
+    };
+}
+
+function queryBeacon(beacon, chrom, pos, alt, ref) {
+    if (typeof EventSource != "undefined") {
+        streamBeacon(beacon, chrom, pos, alt, ref);
+        return;
+    }
+
+    var xhr = createRequest();
+
+    xhr.onreadystatechange = function () {
+
+        if (xhr.readyState == 4 && xhr.status == 200) {
+            printResponseRows(JSON.parse(xhr.responseText), false);
+        }
+    };
+
+    xhr.ontimeout = function () {
+        document.getElementById("results").innerHTML = "Request timed out.";
+    };
+
+    sendRequest(openRequest(xhr, "GET", responsesUrl + getQueryParams(beacon, chrom, pos, alt, ref)));
 }
 
 function printResponses() {
@@ -266,6 +316,16 @@ function groupResponseByOrganization(response) {
 	return groupedResponse;
 }
 
+function formatHealth(beacon) {
+	if (beacon.health == "DOWN") {
+		return " <span title=\"Not responding, skipped until it recovers.\" class=\"label label-danger\">down</span>";
+	}
+	if (beacon.health == "UP" && beacon.latency != null) {
+		return " <span title=\"Average response time.\" class=\"label label-default\">" + beacon.latency + " ms</span>";
+	}
+	return "";
+}
+
 function printBeaconsList(xhr) {
 
 	var response = groupResponseByOrganization(JSON.parse(xhr.response)),
@@ -283,7 +343,7 @@ function printBeaconsList(xhr) {
 
 		for(var j = 0; j < response[org].length; j++) {
 			var aggregatorIndicator = response[org][j]["aggregator"] == true ? "<span class=\"label label-success\">Yes</span>" : "<span class=\"label label-danger\">No</span>";
-			beacons += "<tr><td style=\"border: none\">" + response[org][j]["name"] + "</td></tr>";
+			beacons += "<tr><td style=\"border: none\">" + response[org][j]["name"] + formatHealth(response[org][j]) + "</td></tr>";
 			aggregators += "<tr><td style=\"border: none\">" + aggregatorIndicator + "</td></tr>";
 		}
 
@@ -23,10 +23,13 @@
  */
 package com.dnastack.bob.log;
 
+import com.dnastack.bob.rest.util.ClientAddressResolver;
+import com.dnastack.bob.service.QueryPrefetcher;
 import java.io.Serializable;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
@@ -34,7 +37,8 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.Provider;
 
 /**
- * Filter logging IP addresses requests coming to the REST API.
+ * Filter logging IP addresses requests coming to the REST API. Queries of the requests for beacon responses are also
+ * counted for prefetching.
  *
  * @author Miroslav Cupak (mirocupak@gmail.com)
  * @version 1.0
@@ -50,6 +54,9 @@ public class LoggingFilter implements ContainerRequestFilter, Serializable {
     @Context
     private HttpServletRequest request;
 
+    @Inject
+    private QueryPrefetcher queryPrefetcher;
+
     @Override
     public void filter(ContainerRequestContext requestContext) {
         String method = request.getMethod();
@@ -60,26 +67,12 @@ public class LoggingFilter implements ContainerRequestFilter, Serializable {
             url += q;
         }
 
-        String ip = request.getHeader("X-FORWARDED-FOR");
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteHost();
-        }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
+        String ip = ClientAddressResolver.getClientAddress(request);
 
         logger.info(DATE_FORMAT.format(new Date()) + " : Request from " + ip + ": " + method + " " + url);
+
+        if ("GET".equals(method)) {
+            queryPrefetcher.recordRequest(url);
+        }
     }
 }
@@ -42,6 +42,6 @@ public class BeaconApplication extends Application {
 
     @Override
     public Set<Class<?>> getClasses() {
-        return new HashSet<>(Arrays.asList(RestEndPointResource.class, BeaconResource.class, BeaconResponseResource.class, ReferenceResource.class, ChromosomeResource.class, AllleleResource.class, LoggingFilter.class, CORSFilter.class));
+        return new HashSet<>(Arrays.asList(RestEndPointResource.class, BeaconResource.class, BeaconResponseResource.class, JobResource.class, ReferenceResource.class, ChromosomeResource.class, AllleleResource.class, StatisticsResource.class, LoggingFilter.class, CORSFilter.class));
     }
 }
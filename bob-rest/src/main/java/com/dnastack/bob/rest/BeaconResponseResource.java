@@ -23,22 +23,48 @@
  */
 package com.dnastack.bob.rest;
 
+import com.dnastack.bob.dto.BatchQueryTo;
 import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.rest.util.BeaconResponseStreamWriter;
 import com.dnastack.bob.rest.util.BeaconResponseToComparator;
+import com.dnastack.bob.rest.util.ClientAddressResolver;
+import com.dnastack.bob.service.BeaconQueryExecution;
 import com.dnastack.bob.service.BeaconResponseServiceImpl;
+import com.dnastack.bob.service.PendingQueryStore;
+import com.dnastack.bob.util.Constants;
+import com.dnastack.bob.util.Deadline;
 import com.dnastack.bob.util.ParsingUtils;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.util.Collection;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * Query rest resource.
@@ -52,49 +78,269 @@ import javax.ws.rs.core.MediaType;
 @Named
 public class BeaconResponseResource {
 
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    public static final String CONTINUATION_HEADER = "X-Continuation-Token";
+    private static final MediaType SSE_TYPE = MediaType.valueOf(BeaconResponseStreamWriter.SSE);
+
     @Inject
     private BeaconResponseServiceImpl beaconResponseService;
 
     @Inject
     private BeaconResponseToComparator beaconResponseComparator;
 
+    @Inject
+    private PendingQueryStore pendingQueries;
+
+    @Context
+    private HttpServletRequest request;
+
+    private Deadline getDeadline(Long timeout, Long timeoutHeader) {
+        // query param takes precedence over the header
+        return Deadline.forRequestedTimeout((timeout == null) ? timeoutHeader : timeout).forClient(ClientAddressResolver.getClientAddress(request));
+    }
+
+    private static boolean isSet(Boolean flag) {
+        return flag != null && flag;
+    }
+
+    private Object getEntity(Collection<BeaconResponseTo> responses, boolean single) {
+        if (single) {
+            return responses.iterator().next();
+        }
+
+        Set<BeaconResponseTo> brs = new TreeSet<>(beaconResponseComparator);
+        brs.addAll(responses);
+
+        return brs;
+    }
+
+    private void resumeOnCompletion(AsyncResponse asyncResponse, final BeaconQueryExecution e, Deadline deadline, final boolean single) {
+        // respond with whatever has been resolved if the deadline expires
+        asyncResponse.setTimeoutHandler(new TimeoutHandler() {
+
+            @Override
+            public void handleTimeout(AsyncResponse ar) {
+                e.cancel();
+                ar.resume(getEntity(e.getSnapshot(), single));
+            }
+        });
+        asyncResponse.setTimeout(Math.max(1, deadline.getRemaining(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+
+        final AsyncResponse ar = asyncResponse;
+        Futures.addCallback(e.getResponses(), new FutureCallback<Collection<BeaconResponseTo>>() {
+
+            @Override
+            public void onSuccess(Collection<BeaconResponseTo> result) {
+                ar.resume(getEntity(result, single));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                ar.resume(getEntity(e.getSnapshot(), single));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private Response getPartialResponse(BeaconQueryExecution e, Deadline deadline, String token) {
+        if (!e.isDone()) {
+            // keep querying the remaining beacons in the background
+            String t = (token == null) ? pendingQueries.put(e, deadline) : token;
+            if (t != null) {
+                return Response.ok(getEntity(e.getSnapshot(), false)).header(CONTINUATION_HEADER, t).build();
+            }
+
+            // no room to keep the query
+            e.cancel();
+        }
+
+        return Response.ok(getEntity(e.getSnapshot(), false)).build();
+    }
+
+    private void resumeWithin(AsyncResponse asyncResponse, final BeaconQueryExecution e, final Deadline deadline, long maxWait, final String token) {
+        // respond with whatever has been resolved after max wait, the rest is marked pending
+        asyncResponse.setTimeoutHandler(new TimeoutHandler() {
+
+            @Override
+            public void handleTimeout(AsyncResponse ar) {
+                ar.resume(getPartialResponse(e, deadline, token));
+            }
+        });
+        asyncResponse.setTimeout(Math.max(1, maxWait), TimeUnit.MILLISECONDS);
+
+        final AsyncResponse ar = asyncResponse;
+        Futures.addCallback(e.getResponses(), new FutureCallback<Collection<BeaconResponseTo>>() {
+
+            @Override
+            public void onSuccess(Collection<BeaconResponseTo> result) {
+                ar.resume(getEntity(result, false));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                ar.resume(getPartialResponse(e, deadline, token));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
     /**
-     * Query a given beacon
+     * Query a given beacon. The request does not occupy a server thread while the beacon is being queried.
      *
-     * @param beaconId beacon to query
-     * @param chrom    chromosome
-     * @param pos      position
-     * @param allele   allele
-     * @param ref      reference genome (optional)
+     * @param asyncResponse response resumed once the beacon responds or the query times out
+     * @param beaconId      beacon to query
+     * @param chrom         chromosome
+     * @param pos           position
+     * @param allele        allele
+     * @param ref           reference genome (optional)
+     * @param timeout       timeout of the query in milliseconds (optional)
+     * @param timeoutHeader timeout of the query in milliseconds specified in a header (optional)
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively (optional)
      *
-     * @return list of beacon responses
      */
     @GET
     @Path("/{beaconId}")
-    public BeaconResponseTo queryBeacon(@PathParam("beaconId") String beaconId, @QueryParam("chrom") String chrom, @QueryParam("pos") Long pos, @QueryParam("allele") String allele, @QueryParam("ref") String ref) {
-        return beaconResponseService.queryBeacon(beaconId, chrom, pos, allele, ref);
+    public void queryBeacon(@Suspended AsyncResponse asyncResponse, @PathParam("beaconId") String beaconId, @QueryParam("chrom") String chrom, @QueryParam("pos") Long pos, @QueryParam("allele") String allele, @QueryParam("ref") String ref, @QueryParam("timeout") Long timeout, @HeaderParam(TIMEOUT_HEADER) Long timeoutHeader, @QueryParam("firstPositive") Boolean firstPositive) {
+        Deadline deadline = getDeadline(timeout, timeoutHeader);
+        resumeOnCompletion(asyncResponse, beaconResponseService.queryBeaconAsync(beaconId, chrom, pos, allele, ref, deadline, isSet(firstPositive)), deadline, true);
     }
 
     /**
-     * Query all the beacons or a specific beacon as determined by a param.
+     * Query all the beacons or a specific beacon as determined by a param. The request does not occupy a server thread
+     * while the beacons are being queried, beacons which do not respond in time are returned with null responses.
      *
-     * @param beaconIds beacon to query (optional)
-     * @param chrom     chromosome
-     * @param pos       position
-     * @param allele    allele
-     * @param ref       reference genome (optional)
+     * @param asyncResponse response resumed once all the beacons respond or the query times out
+     * @param beaconIds     beacon to query (optional)
+     * @param chrom         chromosome
+     * @param pos           position
+     * @param allele        allele
+     * @param ref           reference genome (optional)
+     * @param timeout       timeout of the query in milliseconds (optional)
+     * @param timeoutHeader timeout of the query in milliseconds specified in a header (optional)
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively (optional)
+     * @param maxWait       time in milliseconds after which the responses resolved so far are returned, the remaining
+     *                      beacons are marked pending and keep being queried until the timeout, their responses can be
+     *                      retrieved by the continuation token sent in a header (optional)
      *
-     * @return list of beacon responses
      */
     @GET
-    public Collection<BeaconResponseTo> query(@QueryParam("beacon") String beaconIds, @QueryParam("chrom") String chrom, @QueryParam("pos") Long pos, @QueryParam("allele") String allele, @QueryParam("ref") String ref) {
-        Set<BeaconResponseTo> brs = new TreeSet<>(beaconResponseComparator);
+    public void query(@Suspended AsyncResponse asyncResponse, @QueryParam("beacon") String beaconIds, @QueryParam("chrom") String chrom, @QueryParam("pos") Long pos, @QueryParam("allele") String allele, @QueryParam("ref") String ref, @QueryParam("timeout") Long timeout, @HeaderParam(TIMEOUT_HEADER) Long timeoutHeader, @QueryParam("firstPositive") Boolean firstPositive, @QueryParam("maxWait") Long maxWait) {
+        Deadline deadline = getDeadline(timeout, timeoutHeader);
+        BeaconQueryExecution e;
         if (beaconIds == null) {
-            brs.addAll(beaconResponseService.queryAll(chrom, pos, allele, ref));
+            e = beaconResponseService.queryAllAsync(chrom, pos, allele, ref, deadline, isSet(firstPositive));
         } else {
-            brs.addAll(beaconResponseService.queryBeacons(ParsingUtils.parseMultipleParameterValues(beaconIds), chrom, pos, allele, ref));
+            e = beaconResponseService.queryBeaconsAsync(ParsingUtils.parseMultipleParameterValues(beaconIds), chrom, pos, allele, ref, deadline, isSet(firstPositive));
         }
 
-        return brs;
+        if (maxWait == null || maxWait >= deadline.getRemaining(TimeUnit.MILLISECONDS)) {
+            resumeOnCompletion(asyncResponse, e, deadline, false);
+        } else {
+            resumeWithin(asyncResponse, e, deadline, maxWait, null);
+        }
+    }
+
+    /**
+     * Retrieve responses of a query which returned partial results. Beacons which have not been resolved yet are marked
+     * pending.
+     *
+     * @param asyncResponse response resumed once all the beacons respond or max wait elapses
+     * @param token         continuation token of the query
+     * @param maxWait       time in milliseconds to wait for the pending beacons (optional)
+     *
+     */
+    @GET
+    @Path("/pending/{token}")
+    public void queryPending(@Suspended AsyncResponse asyncResponse, @PathParam("token") String token, @QueryParam("maxWait") Long maxWait) {
+        BeaconQueryExecution e = pendingQueries.get(token);
+        if (e == null) {
+            throw new WebApplicationException(HttpURLConnection.HTTP_NOT_FOUND);
+        }
+
+        if (maxWait == null || maxWait <= 0 || e.isDone()) {
+            asyncResponse.resume(getPartialResponse(e, null, token));
+        } else {
+            resumeWithin(asyncResponse, e, null, maxWait, token);
+        }
+    }
+
+    /**
+     * Query all the beacons or a specific beacon as determined by a param, every beacon response is sent as soon as it
+     * is available. Responses are streamed as server-sent events if requested by the client (text/event-stream),
+     * newline delimited JSON is used otherwise.
+     *
+     * @param beaconIds     beacon to query (optional)
+     * @param chrom         chromosome
+     * @param pos           position
+     * @param allele        allele
+     * @param ref           reference genome (optional)
+     * @param timeout       timeout of the query in milliseconds (optional)
+     * @param timeoutHeader timeout of the query in milliseconds specified in a header (optional)
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively (optional)
+     * @param headers       request headers
+     *
+     * @return stream of beacon responses
+     */
+    @GET
+    @Path("/stream")
+    @Produces({BeaconResponseStreamWriter.NDJSON, BeaconResponseStreamWriter.SSE})
+    public Response stream(@QueryParam("beacon") final String beaconIds, @QueryParam("chrom") final String chrom, @QueryParam("pos") final Long pos, @QueryParam("allele") final String allele, @QueryParam("ref") final String ref, @QueryParam("timeout") Long timeout, @HeaderParam(TIMEOUT_HEADER) Long timeoutHeader, @QueryParam("firstPositive") final Boolean firstPositive, @Context HttpHeaders headers) {
+        final Deadline deadline = getDeadline(timeout, timeoutHeader);
+        final boolean sse = headers.getAcceptableMediaTypes().contains(SSE_TYPE);
+
+        StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(OutputStream os) throws IOException, WebApplicationException {
+                BeaconResponseStreamWriter writer = new BeaconResponseStreamWriter(os, sse);
+                if (beaconIds == null) {
+                    beaconResponseService.queryAll(chrom, pos, allele, ref, deadline, isSet(firstPositive), writer);
+                } else {
+                    beaconResponseService.queryBeacons(ParsingUtils.parseMultipleParameterValues(beaconIds), chrom, pos, allele, ref, deadline, isSet(firstPositive), writer);
+                }
+                writer.close();
+            }
+        };
+
+        return Response.ok(output, sse ? BeaconResponseStreamWriter.SSE : BeaconResponseStreamWriter.NDJSON).build();
+    }
+
+    /**
+     * Query the given beacons (all the beacons if not specified) with multiple variants at once. Queries of the
+     * variants are pipelined and the responses of every variant are sent as soon as all the beacons respond, as newline
+     * delimited JSON or as server-sent events (if requested by the client). The timeout applies to every variant
+     * separately, the whole batch takes at most the timeout per window of variants queried at a time.
+     *
+     * @param batch         beacons and variants to query
+     * @param timeout       timeout of a single variant in milliseconds (optional)
+     * @param timeoutHeader timeout of a single variant in milliseconds specified in a header (optional)
+     * @param headers       request headers
+     *
+     * @return stream of beacon responses
+     */
+    @POST
+    @Path("/batch")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({BeaconResponseStreamWriter.NDJSON, BeaconResponseStreamWriter.SSE})
+    public Response batch(final BatchQueryTo batch, @QueryParam("timeout") Long timeout, @HeaderParam(TIMEOUT_HEADER) Long timeoutHeader, @Context HttpHeaders headers) {
+        if (batch == null || batch.getVariants() == null || batch.getVariants().size() > Constants.BATCH_MAX_SIZE) {
+            throw new WebApplicationException(Response.Status.BAD_REQUEST);
+        }
+
+        // query param takes precedence over the header
+        final long variantTimeout = Deadline.getRequestedTimeout((timeout == null) ? timeoutHeader : timeout);
+        long windows = (batch.getVariants().size() + Constants.BATCH_WINDOW - 1) / Constants.BATCH_WINDOW;
+        final Deadline deadline = Deadline.after(variantTimeout * Math.max(1, windows), TimeUnit.MILLISECONDS).forClient(ClientAddressResolver.getClientAddress(request));
+        final boolean sse = headers.getAcceptableMediaTypes().contains(SSE_TYPE);
+
+        StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(OutputStream os) throws IOException, WebApplicationException {
+                BeaconResponseStreamWriter writer = new BeaconResponseStreamWriter(os, sse);
+                beaconResponseService.queryBatch(batch.getBeacons(), batch.getVariants(), variantTimeout, deadline, writer);
+                writer.close();
+            }
+        };
+
+        return Response.ok(output, sse ? BeaconResponseStreamWriter.SSE : BeaconResponseStreamWriter.NDJSON).build();
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.rest;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.dto.JobTo;
+import com.dnastack.bob.rest.util.BeaconResponseStreamWriter;
+import com.dnastack.bob.service.JobServiceImpl;
+import com.dnastack.bob.util.Constants;
+import com.dnastack.bob.util.ParsingUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.List;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * Bulk query job rest resource.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@Path("/jobs")
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.TEXT_PLAIN})
+@RequestScoped
+@Named
+public class JobResource {
+
+    private static final MediaType SSE_TYPE = MediaType.valueOf(BeaconResponseStreamWriter.SSE);
+
+    @Inject
+    private JobServiceImpl jobService;
+
+    @Context
+    private UriInfo uriInfo;
+
+    private static <T> T found(T entity) {
+        if (entity == null) {
+            throw new WebApplicationException(HttpURLConnection.HTTP_NOT_FOUND);
+        }
+        return entity;
+    }
+
+    /**
+     * Submits a job querying the given beacons (all the beacons if not specified) with all the variants of the uploaded
+     * VCF file or tab separated list of chromosome, position, allele and (optionally) reference genome.
+     *
+     * @param input     variants (the file can be gzipped)
+     * @param beaconIds beacons to query (optional)
+     * @param ref       reference genome (optional)
+     *
+     * @return submitted job
+     */
+    @POST
+    public Response submit(InputStream input, @QueryParam("beacon") String beaconIds, @QueryParam("ref") String ref) {
+        JobTo job;
+        try {
+            job = jobService.submit(input, (beaconIds == null) ? null : ParsingUtils.parseMultipleParameterValues(beaconIds), ref);
+        } catch (IOException ex) {
+            throw new WebApplicationException(ex);
+        }
+
+        return Response.created(uriInfo.getAbsolutePathBuilder().path(job.getId()).build()).entity(job).build();
+    }
+
+    /**
+     * Shows all the jobs.
+     *
+     * @return collection of jobs
+     */
+    @GET
+    public Collection<JobTo> show() {
+        return jobService.getAll();
+    }
+
+    /**
+     * Shows job details, including progress.
+     *
+     * @param jobId id of the job
+     *
+     * @return job
+     */
+    @GET
+    @Path("/{jobId}")
+    public JobTo showJob(@PathParam("jobId") String jobId) {
+        return found(jobService.getJob(jobId));
+    }
+
+    /**
+     * Cancels a job, results obtained so far are kept.
+     *
+     * @param jobId id of the job
+     *
+     * @return job
+     */
+    @DELETE
+    @Path("/{jobId}")
+    public JobTo cancel(@PathParam("jobId") String jobId) {
+        return found(jobService.cancel(jobId));
+    }
+
+    /**
+     * Shows a page of results of a job.
+     *
+     * @param jobId  id of the job
+     * @param offset number of results to skip
+     * @param limit  max number of results
+     *
+     * @return list of beacon responses
+     */
+    @GET
+    @Path("/{jobId}/results")
+    public List<BeaconResponseTo> showResults(@PathParam("jobId") String jobId, @QueryParam("offset") @DefaultValue("0") long offset, @QueryParam("limit") @DefaultValue("100") int limit) {
+        return found(jobService.getResults(jobId, Math.max(offset, 0), Math.max(Math.min(limit, Constants.JOB_MAX_PAGE_SIZE), 0)));
+    }
+
+    /**
+     * Streams all the results of a job obtained so far, as newline delimited JSON or as server-sent events (if
+     * requested by the client).
+     *
+     * @param jobId   id of the job
+     * @param headers request headers
+     *
+     * @return stream of beacon responses
+     */
+    @GET
+    @Path("/{jobId}/results/stream")
+    @Produces({BeaconResponseStreamWriter.NDJSON, BeaconResponseStreamWriter.SSE})
+    public Response streamResults(@PathParam("jobId") final String jobId, @Context HttpHeaders headers) {
+        found(jobService.getJob(jobId));
+        final boolean sse = headers.getAcceptableMediaTypes().contains(SSE_TYPE);
+
+        StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(OutputStream os) throws IOException, WebApplicationException {
+                BeaconResponseStreamWriter writer = new BeaconResponseStreamWriter(os, sse);
+                jobService.streamResults(jobId, writer);
+                writer.close();
+            }
+        };
+
+        return Response.ok(output, sse ? BeaconResponseStreamWriter.SSE : BeaconResponseStreamWriter.NDJSON).build();
+    }
+}
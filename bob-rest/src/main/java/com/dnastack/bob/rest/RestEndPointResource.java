@@ -52,9 +52,11 @@ public class RestEndPointResource {
 
     private static final RestEndPoint beacons = new RestEndPoint("beacons", "beacons", "beacons");
     private static final RestEndPoint responses = new RestEndPoint("responses", "responses", "responses?chrom=14&pos=106833421&allele=A");
+    private static final RestEndPoint jobs = new RestEndPoint("jobs", "jobs", "jobs");
     private static final RestEndPoint alleles = new RestEndPoint("alleles", "alleles", "alleles");
     private static final RestEndPoint chromosomes = new RestEndPoint("chromosomes", "chromosomes", "chromosomes");
     private static final RestEndPoint references = new RestEndPoint("references", "references", "references");
+    private static final RestEndPoint stats = new RestEndPoint("stats", "stats", "stats/connections");
 
     @Context
     private UriInfo uriInfo;
@@ -76,9 +78,11 @@ public class RestEndPointResource {
         Set<RestEndPoint> reps = new HashSet<>();
         reps.add(new RestEndPoint(beacons.getId(), baseUrl + beacons.getBaseUrl(), baseUrl + beacons.getExample()));
         reps.add(new RestEndPoint(responses.getId(), baseUrl + responses.getBaseUrl(), baseUrl + responses.getExample()));
+        reps.add(new RestEndPoint(jobs.getId(), baseUrl + jobs.getBaseUrl(), baseUrl + jobs.getExample()));
         reps.add(new RestEndPoint(alleles.getId(), baseUrl + alleles.getBaseUrl(), baseUrl + alleles.getExample()));
         reps.add(new RestEndPoint(chromosomes.getId(), baseUrl + chromosomes.getBaseUrl(), baseUrl + chromosomes.getExample()));
         reps.add(new RestEndPoint(references.getId(), baseUrl + references.getBaseUrl(), baseUrl + references.getExample()));
+        reps.add(new RestEndPoint(stats.getId(), baseUrl + stats.getBaseUrl(), baseUrl + stats.getExample()));
 
         return Collections.unmodifiableSet(reps);
     }
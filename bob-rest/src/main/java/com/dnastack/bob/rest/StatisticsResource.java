@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.rest;
+
+import com.dnastack.bob.dto.BulkheadStatsTo;
+import com.dnastack.bob.dto.CacheStatsTo;
+import com.dnastack.bob.dto.CircuitBreakerStatsTo;
+import com.dnastack.bob.dto.ConnectionPoolStatsTo;
+import com.dnastack.bob.dto.HedgeStatsTo;
+import com.dnastack.bob.dto.PrefetchStatsTo;
+import com.dnastack.bob.dto.RateLimitStatsTo;
+import com.dnastack.bob.service.StatisticsService;
+import java.util.Collection;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Monitoring rest resource.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@Path("/stats")
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.TEXT_PLAIN})
+@RequestScoped
+@Named
+public class StatisticsResource {
+
+    @Inject
+    private StatisticsService statisticsService;
+
+    /**
+     * Shows usage of the pool of connections to the beacons.
+     *
+     * @return connection pool stats (total and per route)
+     */
+    @GET
+    @Path("/connections")
+    public Collection<ConnectionPoolStatsTo> showConnectionPoolStats() {
+        return statisticsService.getConnectionPoolStats();
+    }
+
+    /**
+     * Shows efficiency of the cache of beacon responses.
+     *
+     * @return cache stats
+     */
+    @GET
+    @Path("/cache")
+    public CacheStatsTo showCacheStats() {
+        return statisticsService.getCacheStats();
+    }
+
+    /**
+     * Shows states of the circuit breakers guarding the beacons.
+     *
+     * @return circuit breaker stats (per beacon)
+     */
+    @GET
+    @Path("/breakers")
+    public Collection<CircuitBreakerStatsTo> showCircuitBreakerStats() {
+        return statisticsService.getCircuitBreakerStats();
+    }
+
+    /**
+     * Shows counts of hedged requests to the beacons.
+     *
+     * @return hedging stats (per beacon)
+     */
+    @GET
+    @Path("/hedges")
+    public Collection<HedgeStatsTo> showHedgeStats() {
+        return statisticsService.getHedgeStats();
+    }
+
+    /**
+     * Shows usage of the rate limits of the beacon hosts.
+     *
+     * @return rate limit stats (per rate limited host)
+     */
+    @GET
+    @Path("/rates")
+    public Collection<RateLimitStatsTo> showRateLimitStats() {
+        return statisticsService.getRateLimitStats();
+    }
+
+    /**
+     * Shows saturation of the bulkheads of the beacons.
+     *
+     * @return bulkhead stats (per beacon)
+     */
+    @GET
+    @Path("/bulkheads")
+    public Collection<BulkheadStatsTo> showBulkheadStats() {
+        return statisticsService.getBulkheadStats();
+    }
+
+    /**
+     * Shows the most popular queries kept prefetched.
+     *
+     * @return prefetch stats (per query)
+     */
+    @GET
+    @Path("/prefetch")
+    public Collection<PrefetchStatsTo> showPrefetchStats() {
+        return statisticsService.getPrefetchStats();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.rest.util;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.service.BeaconResponseListener;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.WebApplicationException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+
+/**
+ * Writes beacon responses to a stream as they arrive, either as newline delimited JSON or as server-sent events.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconResponseStreamWriter implements BeaconResponseListener {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String SSE = "text/event-stream";
+
+    private static final JAXBContext CONTEXT = createContext();
+
+    private final OutputStream os;
+    private final boolean sse;
+    private final Marshaller marshaller;
+
+    public BeaconResponseStreamWriter(OutputStream os, boolean sse) {
+        this.os = os;
+        this.sse = sse;
+        try {
+            this.marshaller = CONTEXT.createMarshaller();
+            marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, "application/json");
+            marshaller.setProperty(MarshallerProperties.JSON_INCLUDE_ROOT, false);
+        } catch (JAXBException ex) {
+            throw new WebApplicationException(ex);
+        }
+    }
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(BeaconResponseTo.class);
+        } catch (JAXBException ex) {
+            throw new IllegalStateException("Could not create JAXB context.", ex);
+        }
+    }
+
+    private void write(String s) {
+        try {
+            os.write(s.getBytes(StandardCharsets.UTF_8));
+            os.flush();
+        } catch (IOException ex) {
+            // client has gone away
+            throw new WebApplicationException(ex);
+        }
+    }
+
+    @Override
+    public void onResponse(BeaconResponseTo response) {
+        StringWriter json = new StringWriter();
+        try {
+            marshaller.marshal(response, json);
+        } catch (JAXBException ex) {
+            throw new WebApplicationException(ex);
+        }
+
+        // JSON is printed on a single line, so it does not need to be split into multiple data fields
+        write(sse ? "data: " + json + "\n\n" : json + "\n");
+    }
+
+    /**
+     * Marks the end of the stream. Event stream clients would otherwise reconnect once the connection is closed.
+     */
+    public void close() {
+        if (sse) {
+            write("event: end\ndata: \n\n");
+        }
+    }
+
+}
@@ -25,7 +25,7 @@ package com.dnastack.bob.rest.util;
 
 import com.dnastack.bob.dto.BeaconResponseTo;
 import java.util.Comparator;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -35,7 +35,7 @@ import javax.inject.Named;
  * @author Miroslav Cupak (mirocupak@gmail.com)
  * @version 1.0
  */
-@RequestScoped
+@ApplicationScoped
 @Named
 public class BeaconResponseToComparator implements Comparator<BeaconResponseTo> {
 
@@ -24,7 +24,7 @@
 package com.dnastack.bob.rest.util;
 
 import com.dnastack.bob.dto.BeaconTo;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Named;
 
 /**
@@ -33,7 +33,7 @@ import javax.inject.Named;
  * @author Miroslav Cupak (mirocupak@gmail.com)
  * @version 1.0
  */
-@RequestScoped
+@ApplicationScoped
 @Named
 @IdComparator
 public class BeaconToIdComparator implements BeaconToComparator {
@@ -24,6 +24,7 @@
 package com.dnastack.bob.rest;
 
 import com.dnastack.bob.util.HttpUtils;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
@@ -33,6 +34,9 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.transform.stream.StreamSource;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.eclipse.persistence.jaxb.JAXBContextProperties;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -72,18 +76,25 @@ public abstract class BasicTest {
         return war;
     }
 
-    public static Object readObject(Class c, String url) throws JAXBException, MalformedURLException {
+    private static Object readObject(Class c, StreamSource source) throws JAXBException {
         JAXBContext jc = JAXBContext.newInstance(c);
 
         Unmarshaller unmarshaller = jc.createUnmarshaller();
         unmarshaller.setProperty(JAXBContextProperties.MEDIA_TYPE, "application/json");
         unmarshaller.setProperty(JAXBContextProperties.JSON_INCLUDE_ROOT, false);
-        StreamSource source = new StreamSource(url);
         JAXBElement jaxbElement = unmarshaller.unmarshal(source, c);
 
         return jaxbElement.getValue();
     }
 
+    public static Object readObject(Class c, String url) throws JAXBException, MalformedURLException {
+        return readObject(c, new StreamSource(url));
+    }
+
+    public static Object readObject(Class c, InputStream in) throws JAXBException {
+        return readObject(c, new StreamSource(in));
+    }
+
     public static String readResponse(String url) {
         try {
             return HttpUtils.executeRequest(HttpUtils.createRequest(url, false, null));
@@ -92,6 +103,13 @@ public abstract class BasicTest {
         }
     }
 
+    public static String post(String url, String body, ContentType type) {
+        HttpPost post = new HttpPost(url);
+        post.setEntity(new StringEntity(body, type));
+
+        return HttpUtils.executeRequest(post);
+    }
+
     private static String readField(JSONObject field, List<String> path) {
         for (int i = 1; i < path.size(); i++) {
             field = field.getJSONObject(path.get(i - 1));
@@ -25,23 +25,31 @@ package com.dnastack.bob.rest;
 
 import com.dnastack.bob.dto.BeaconResponseTo;
 import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.xml.bind.JAXBException;
+import org.apache.http.entity.ContentType;
+import org.json.JSONObject;
 import org.jboss.arquillian.container.test.api.RunAsClient;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.arquillian.test.api.ArquillianResource;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static com.dnastack.bob.rest.BasicTest.post;
 import static com.dnastack.bob.rest.BasicTest.readObject;
+import static com.dnastack.bob.rest.BasicTest.readResponse;
 import static com.dnastack.bob.rest.util.BeaconResponseTestUtils.beaconsMatch;
 import static com.dnastack.bob.rest.util.BeaconResponseTestUtils.queriesMatch;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -58,6 +66,11 @@ public class BeaconResponsesTest extends BasicTest {
     public static final String QUERY_BEACON_WITH_REF_TEMPLATE = "rest/responses?beacon=%s&chrom=%s&pos=%s&allele=%s&ref=%s";
     public static final String QUERY_TEMPLATE = "rest/responses?chrom=%s&pos=%s&allele=%s";
     public static final String QUERY_WITH_REF_TEMPLATE = "rest/responses?chrom=%s&pos=%s&allele=%s&ref=%s";
+    public static final String TIMEOUT_TEMPLATE = "&timeout=%d";
+    public static final String MAX_WAIT_TEMPLATE = "&maxWait=%d";
+    public static final String PENDING_TEMPLATE = "rest/responses/pending/%s?maxWait=%d";
+    public static final String STREAM_TEMPLATE = "rest/responses/stream?chrom=%s&pos=%s&allele=%s";
+    public static final String BATCH_URL = "rest/responses/batch";
     private static final Set<String> BEACON_IDS = ImmutableSet.of("clinvar", "uniprot", "lovd", "ebi", "ncbi", "wtsi", "amplab", "kaviar", "broad", "icgc", "cafe-variome", "google", "thousandgenomes", "thousandgenomes-phase3", "platinum", "bob");
 
     protected static String getUrl(String b, String[] params) {
@@ -93,6 +106,11 @@ public class BeaconResponsesTest extends BasicTest {
         return (List<BeaconResponseTo>) readObject(BeaconResponseTo.class, url);
     }
 
+    @SuppressWarnings("unchecked")
+    public static List<BeaconResponseTo> readResponses(InputStream in) throws JAXBException {
+        return (List<BeaconResponseTo>) readObject(BeaconResponseTo.class, in);
+    }
+
     @Test
     public void testAllResponses(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
         String[] q = {"13", "32888798", "G", null};
@@ -369,4 +387,143 @@ public class BeaconResponsesTest extends BasicTest {
         assertNotNull(brs.get(1).getResponse());
     }
 
+    @Test
+    public void testAllResponsesWithTimeout(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
+        String[] q = {"13", "32888798", "G", null};
+        List<BeaconResponseTo> brs = readResponses(url.toExternalForm() + getUrl(q) + String.format(TIMEOUT_TEMPLATE, 1));
+
+        // every beacon is listed even if it did not respond in time
+        Set<String> ids = new HashSet<>();
+        for (BeaconResponseTo br : brs) {
+            ids.add(br.getBeacon().getId());
+        }
+        for (String s : BEACON_IDS) {
+            assertTrue(ids.contains(s));
+        }
+
+        for (BeaconResponseTo br : brs) {
+            assertTrue(queriesMatch(br.getQuery(), q));
+        }
+    }
+
+    @Test
+    public void testPartialResponses(@ArquillianResource URL url) throws JAXBException, IOException {
+        // a query nobody asked before, so that it cannot be answered from the cache
+        String[] q = {"13", String.valueOf(10000000 + System.currentTimeMillis() % 10000000), "G", null};
+        HttpURLConnection c = (HttpURLConnection) new URL(url.toExternalForm() + getUrl(q) + String.format(MAX_WAIT_TEMPLATE, 1)).openConnection();
+        String token;
+        List<BeaconResponseTo> first;
+        try (InputStream in = c.getInputStream()) {
+            token = c.getHeaderField(BeaconResponseResource.CONTINUATION_HEADER);
+            first = readResponses(in);
+        } finally {
+            c.disconnect();
+        }
+
+        // no beacon answers within a millisecond
+        assertNotNull(token);
+        boolean pending = false;
+        for (BeaconResponseTo br : first) {
+            if (br.isPending()) {
+                pending = true;
+                assertNull(br.getResponse());
+            }
+        }
+        assertTrue(pending);
+
+        // the remaining responses are available once the query completes
+        List<BeaconResponseTo> brs = readResponses(url.toExternalForm() + String.format(PENDING_TEMPLATE, token, 60000));
+
+        Set<String> ids = new HashSet<>();
+        for (BeaconResponseTo br : brs) {
+            ids.add(br.getBeacon().getId());
+            assertFalse(br.isPending());
+            assertTrue(queriesMatch(br.getQuery(), q));
+        }
+        for (String s : BEACON_IDS) {
+            assertTrue(ids.contains(s));
+        }
+    }
+
+    @Test
+    public void testStreamedResponses(@ArquillianResource URL url) {
+        String[] q = {"13", "32888798", "G", null};
+        String res = readResponse(url.toExternalForm() + String.format(STREAM_TEMPLATE, q[0], q[1], q[2]));
+
+        assertNotNull(res);
+        // one beacon response per line
+        Set<String> ids = new HashSet<>();
+        for (String line : res.split("\n")) {
+            ids.add(new JSONObject(line).getJSONObject("beacon").getString("id"));
+        }
+        for (String s : BEACON_IDS) {
+            assertTrue(ids.contains(s));
+        }
+    }
+
+    @Test
+    public void testBatchResponses(@ArquillianResource URL url) {
+        String[][] qs = {{"13", "32888798", "G"}, {"1", "10000", "T"}};
+        String res = post(url.toExternalForm() + BATCH_URL, "{\"beacons\":[\"amplab\",\"bob\"],\"variants\":[{\"chrom\":\"13\",\"pos\":32888798,\"allele\":\"G\"},{\"chrom\":\"1\",\"pos\":10000,\"allele\":\"T\"}]}", ContentType.APPLICATION_JSON);
+
+        assertNotNull(res);
+        // one beacon response per line for every variant
+        Set<String> found = new HashSet<>();
+        for (String line : res.split("\n")) {
+            JSONObject br = new JSONObject(line);
+            // every beacon response is sent only once
+            assertTrue(found.add(br.getJSONObject("beacon").getString("id") + ":" + br.getJSONObject("query").getLong("position")));
+        }
+        for (String b : ImmutableSet.of("amplab", "bob")) {
+            for (String[] q : qs) {
+                assertTrue(found.contains(b + ":" + q[1]));
+            }
+        }
+    }
+
+    @Test
+    public void testLateBatchVariantsResolve(@ArquillianResource URL url) {
+        // several windows of variants, each of them gets the full timeout
+        int n = 100;
+        StringBuilder variants = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            variants.append(i == 0 ? "" : ",").append("{\"chrom\":\"1\",\"pos\":").append(10000 + i).append(",\"allele\":\"T\"}");
+        }
+        String res = post(url.toExternalForm() + BATCH_URL + "?timeout=5000", "{\"beacons\":[\"amplab\"],\"variants\":[" + variants + "]}", ContentType.APPLICATION_JSON);
+
+        assertNotNull(res);
+        Set<Long> resolved = new HashSet<>();
+        for (String line : res.split("\n")) {
+            JSONObject br = new JSONObject(line);
+            if (!br.isNull("response")) {
+                resolved.add(br.getJSONObject("query").getLong("position"));
+            }
+        }
+        // the last variants are queried only after the earlier ones are resolved
+        assertTrue(resolved.contains(10000L + n - 1));
+    }
+
+    @Test
+    public void testTimedOutBatchVariantsReportedOnce(@ArquillianResource URL url) {
+        // variants time out long before the beacons respond
+        int n = 20;
+        StringBuilder variants = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            variants.append(i == 0 ? "" : ",").append("{\"chrom\":\"1\",\"pos\":").append(10000 + i).append(",\"allele\":\"T\"}");
+        }
+        String res = post(url.toExternalForm() + BATCH_URL + "?timeout=1", "{\"beacons\":[\"amplab\",\"bob\"],\"variants\":[" + variants + "]}", ContentType.APPLICATION_JSON);
+
+        assertNotNull(res);
+        Set<String> found = new HashSet<>();
+        for (String line : res.split("\n")) {
+            JSONObject br = new JSONObject(line);
+            assertTrue(found.add(br.getJSONObject("beacon").getString("id") + ":" + br.getJSONObject("query").getLong("position")));
+        }
+        for (String b : ImmutableSet.of("amplab", "bob")) {
+            for (int i = 0; i < n; i++) {
+                assertTrue(found.contains(b + ":" + (10000 + i)));
+            }
+        }
+    }
+
 }
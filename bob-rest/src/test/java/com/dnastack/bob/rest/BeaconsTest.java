@@ -114,6 +114,7 @@ public class BeaconsTest extends BasicTest {
 
             assertNotNull(b);
             assertEquals(id, b.getId());
+            assertNotNull(b.getHealth());
         }
     }
 }
@@ -67,6 +67,17 @@ public class BobResponseTest extends AbstractResponseTest {
         assertTrue(br.getResponse());
     }
 
+    @Test
+    public void testFirstPositiveFound(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
+        String[] query = {"13", "32888798", "G", null};
+        BeaconResponseTo br = readBeaconResponse(url.toExternalForm() + getUrl(BEACON, query) + "&firstPositive=true");
+
+        assertNotNull(br);
+        assertTrue(beaconsMatch(br.getBeacon(), BEACON));
+        assertTrue(queriesMatch(br.getQuery(), query));
+        assertTrue(br.getResponse());
+    }
+
     @Test
     @Override
     public void testSpecificRefFound(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
@@ -66,7 +66,7 @@ public class HelpTest extends BasicTest {
     public void testHelp(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
         List<RestEndPoint> rs = readRestEndPoints(url.toExternalForm() + getUrl());
 
-        assertEquals(5, rs.size());
+        assertEquals(7, rs.size());
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.rest;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.dto.JobStatusTo;
+import com.dnastack.bob.dto.JobTo;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import org.apache.http.entity.ContentType;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of bulk query jobs.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@RunWith(Arquillian.class)
+@RunAsClient
+public class JobsTest extends BasicTest {
+
+    public static final String JOBS_TEMPLATE = "rest/jobs?beacon=amplab";
+    public static final String JOB_TEMPLATE = "rest/jobs/%s";
+    public static final String RESULTS_TEMPLATE = "rest/jobs/%s/results?offset=%d&limit=%d";
+    public static final String VCF = "##fileformat=VCFv4.1\n#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\n13\t32888798\t.\tA\tG\t.\t.\t.\n14\t106833421\t.\tC\tA,T\t.\t.\t.\n";
+    private static final long MAX_WAIT = 60000;
+
+    public static JobTo readJob(String url) throws JAXBException, MalformedURLException {
+        return (JobTo) readObject(JobTo.class, url);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<BeaconResponseTo> readResults(String url) throws JAXBException, MalformedURLException {
+        return (List<BeaconResponseTo>) readObject(BeaconResponseTo.class, url);
+    }
+
+    @Test
+    public void testJob(@ArquillianResource URL url) throws JAXBException, MalformedURLException, InterruptedException {
+        String id = new JSONObject(post(url.toExternalForm() + JOBS_TEMPLATE, VCF, ContentType.TEXT_PLAIN)).getString("id");
+        assertNotNull(id);
+
+        JobTo job = readJob(url.toExternalForm() + String.format(JOB_TEMPLATE, id));
+        long start = System.currentTimeMillis();
+        while (!job.getStatus().isFinal() && System.currentTimeMillis() - start < MAX_WAIT) {
+            Thread.sleep(500);
+            job = readJob(url.toExternalForm() + String.format(JOB_TEMPLATE, id));
+        }
+
+        // one variant per alternate allele
+        assertEquals(JobStatusTo.COMPLETED, job.getStatus());
+        assertEquals(3, job.getVariants());
+        assertEquals(3, job.getResponses());
+
+        List<BeaconResponseTo> page = readResults(url.toExternalForm() + String.format(RESULTS_TEMPLATE, id, 1, 1));
+        assertEquals(1, page.size());
+        assertTrue(page.get(0).getBeacon().getId().equals("amplab"));
+    }
+
+}
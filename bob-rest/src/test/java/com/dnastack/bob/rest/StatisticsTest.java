@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.rest;
+
+import com.dnastack.bob.dto.CacheStatsTo;
+import com.dnastack.bob.dto.PrefetchStatsTo;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of monitoring stats.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@RunWith(Arquillian.class)
+@RunAsClient
+public class StatisticsTest extends BasicTest {
+
+    public static final String CACHE_TEMPLATE = "rest/stats/cache";
+    public static final String PREFETCH_TEMPLATE = "rest/stats/prefetch";
+    public static final String QUERY_TEMPLATE = "rest/responses/bob?chrom=13&pos=32888798&allele=G";
+    public static final String POPULAR_QUERY_TEMPLATE = "rest/responses/amplab?chrom=2&pos=123456&allele=A";
+
+    public static CacheStatsTo readCacheStats(String url) throws JAXBException, MalformedURLException {
+        return (CacheStatsTo) readObject(CacheStatsTo.class, url);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<PrefetchStatsTo> readPrefetchStats(String url) throws JAXBException, MalformedURLException {
+        return (List<PrefetchStatsTo>) readObject(PrefetchStatsTo.class, url);
+    }
+
+    @Test
+    public void testRepeatedQueryHitsCache(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
+        readResponse(url.toExternalForm() + QUERY_TEMPLATE);
+        CacheStatsTo before = readCacheStats(url.toExternalForm() + CACHE_TEMPLATE);
+
+        // the responses of the first query are reused
+        readResponse(url.toExternalForm() + QUERY_TEMPLATE);
+        CacheStatsTo after = readCacheStats(url.toExternalForm() + CACHE_TEMPLATE);
+
+        assertTrue(after.getHits() > before.getHits());
+    }
+
+    @Test
+    public void testPopularQueryTracked(@ArquillianResource URL url) throws JAXBException, MalformedURLException {
+        int n = 5;
+        for (int i = 0; i < n; i++) {
+            readResponse(url.toExternalForm() + POPULAR_QUERY_TEMPLATE);
+        }
+
+        List<PrefetchStatsTo> stats = readPrefetchStats(url.toExternalForm() + PREFETCH_TEMPLATE);
+
+        boolean found = false;
+        for (PrefetchStatsTo s : stats) {
+            if (s.getQuery().getPosition() == 123456L && "A".equals(s.getQuery().getAllele())) {
+                found = true;
+                assertTrue(s.getCount() >= n);
+            }
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Batch query DTO, a list of variants to query the given beacons (all the beacons if not specified) with.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "batch-query")
+public class BatchQueryTo implements Serializable {
+
+    private static final long serialVersionUID = 66L;
+
+    private List<String> beacons;
+    private List<VariantTo> variants;
+
+    public BatchQueryTo() {
+        // needed for JAXB
+    }
+
+    public BatchQueryTo(List<String> beacons, List<VariantTo> variants) {
+        this.beacons = beacons;
+        this.variants = variants;
+    }
+
+    public List<String> getBeacons() {
+        return beacons;
+    }
+
+    public void setBeacons(List<String> beacons) {
+        this.beacons = beacons;
+    }
+
+    public List<VariantTo> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(List<VariantTo> variants) {
+        this.variants = variants;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.beacons);
+        hash = 29 * hash + Objects.hashCode(this.variants);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final BatchQueryTo other = (BatchQueryTo) obj;
+        if (!Objects.equals(this.beacons, other.beacons)) {
+            return false;
+        }
+        if (!Objects.equals(this.variants, other.variants)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchQueryTo{" + "beacons=" + beacons + ", variants=" + variants + '}';
+    }
+
+}
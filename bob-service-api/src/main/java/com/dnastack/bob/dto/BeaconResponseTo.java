@@ -40,6 +40,8 @@ public class BeaconResponseTo implements Serializable {
     private BeaconTo beacon;
     private QueryTo query;
     private Boolean response = null;
+    private boolean stale = false;
+    private boolean pending = false;
 
     public BeaconResponseTo() {
         // needed for JAXB
@@ -75,12 +77,40 @@ public class BeaconResponseTo implements Serializable {
         this.response = response;
     }
 
+    /**
+     * Checks whether the response was served from a stale cache entry while being refreshed.
+     *
+     * @return true if stale, false otherwise
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    /**
+     * Checks whether the beacon is still being queried, i.e. the response is not known yet but may be retrieved later.
+     *
+     * @return true if pending, false otherwise
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 41 * hash + (this.beacon != null ? this.beacon.hashCode() : 0);
         hash = 41 * hash + (this.query != null ? this.query.hashCode() : 0);
         hash = 41 * hash + (this.response != null ? this.response.hashCode() : 0);
+        hash = 41 * hash + (this.stale ? 1 : 0);
+        hash = 41 * hash + (this.pending ? 1 : 0);
         return hash;
     }
 
@@ -102,12 +132,18 @@ public class BeaconResponseTo implements Serializable {
         if (this.response != other.response && (this.response == null || !this.response.equals(other.response))) {
             return false;
         }
+        if (this.stale != other.stale) {
+            return false;
+        }
+        if (this.pending != other.pending) {
+            return false;
+        }
         return true;
     }
 
     @Override
     public String toString() {
-        return "Response of '" + beacon + "' to '" + query + "': '" + response + "'";
+        return "Response of '" + beacon + "' to '" + query + "': '" + response + "'" + (stale ? " (stale)" : "") + (pending ? " (pending)" : "");
     }
 
 }
@@ -42,6 +42,8 @@ public class BeaconTo implements Serializable {
     private String name;
     private String organization;
     private boolean aggregator;
+    private String health;
+    private Long latency;
 
     public BeaconTo() {
         // needed for JAXB
@@ -86,6 +88,34 @@ public class BeaconTo implements Serializable {
         this.aggregator = aggregator;
     }
 
+    /**
+     * Obtains reachability of the beacon as seen by the periodic canary queries. An aggregator is up if any of its
+     * beacons is up and down if all of them are down.
+     *
+     * @return UP, DOWN or UNKNOWN
+     */
+    public String getHealth() {
+        return health;
+    }
+
+    public void setHealth(String health) {
+        this.health = health;
+    }
+
+    /**
+     * Obtains the average latency of the beacon's responses to the canary queries. The latency of an aggregator is the
+     * latency of its slowest beacon which is up.
+     *
+     * @return latency in milliseconds, null if unknown
+     */
+    public Long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(Long latency) {
+        this.latency = latency;
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -93,6 +123,8 @@ public class BeaconTo implements Serializable {
         hash = 97 * hash + Objects.hashCode(this.name);
         hash = 97 * hash + Objects.hashCode(this.organization);
         hash = 97 * hash + (this.aggregator ? 1 : 0);
+        hash = 97 * hash + Objects.hashCode(this.health);
+        hash = 97 * hash + Objects.hashCode(this.latency);
         return hash;
     }
 
@@ -117,12 +149,18 @@ public class BeaconTo implements Serializable {
         if (this.aggregator != other.aggregator) {
             return false;
         }
+        if (!Objects.equals(this.health, other.health)) {
+            return false;
+        }
+        if (!Objects.equals(this.latency, other.latency)) {
+            return false;
+        }
         return true;
     }
 
     @Override
     public String toString() {
-        return "BeaconTo{" + "id=" + id + ", name=" + name + ", organization=" + organization + ", aggregator=" + aggregator + '}';
+        return "BeaconTo{" + "id=" + id + ", name=" + name + ", organization=" + organization + ", aggregator=" + aggregator + ", health=" + health + ", latency=" + latency + '}';
     }
 
 }
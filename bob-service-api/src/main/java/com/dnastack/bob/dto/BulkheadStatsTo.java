@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Bulkhead statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "bulkhead-stats")
+public class BulkheadStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 68L;
+
+    private String beacon;
+    private int threads;
+    private int active;
+    private int queued;
+    private long completed;
+    private long rejected;
+
+    public BulkheadStatsTo() {
+        // needed for JAXB
+    }
+
+    public BulkheadStatsTo(String beacon, int threads, int active, int queued, long completed, long rejected) {
+        this.beacon = beacon;
+        this.threads = threads;
+        this.active = active;
+        this.queued = queued;
+        this.completed = completed;
+        this.rejected = rejected;
+    }
+
+    public String getBeacon() {
+        return beacon;
+    }
+
+    public void setBeacon(String beacon) {
+        this.beacon = beacon;
+    }
+
+    /**
+     * Obtains the size of the bulkhead.
+     *
+     * @return max number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.beacon);
+        hash = 29 * hash + this.threads;
+        hash = 29 * hash + this.active;
+        hash = 29 * hash + this.queued;
+        hash = 29 * hash + (int) (this.completed ^ (this.completed >>> 32));
+        hash = 29 * hash + (int) (this.rejected ^ (this.rejected >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final BulkheadStatsTo other = (BulkheadStatsTo) obj;
+        if (!Objects.equals(this.beacon, other.beacon)) {
+            return false;
+        }
+        if (this.threads != other.threads) {
+            return false;
+        }
+        if (this.active != other.active) {
+            return false;
+        }
+        if (this.queued != other.queued) {
+            return false;
+        }
+        if (this.completed != other.completed) {
+            return false;
+        }
+        if (this.rejected != other.rejected) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadStatsTo{" + "beacon=" + beacon + ", threads=" + threads + ", active=" + active + ", queued=" + queued + ", completed=" + completed + ", rejected=" + rejected + '}';
+    }
+
+}
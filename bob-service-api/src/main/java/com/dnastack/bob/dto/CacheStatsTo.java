@@ -0,0 +1,278 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Response cache statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "cache-stats")
+public class CacheStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 61L;
+
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long loads;
+    private double averageLoadTime;
+    private int storeSize;
+    private long storeUsedBytes;
+    private long storeCapacity;
+    private long storeHits;
+    private long storeCompactions;
+
+    public CacheStatsTo() {
+        // needed for JAXB
+    }
+
+    public CacheStatsTo(int size, int maxSize, long hits, long misses, double hitRate, long evictions, long loads, double averageLoadTime, int storeSize, long storeUsedBytes, long storeCapacity, long storeHits, long storeCompactions) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+        this.loads = loads;
+        this.averageLoadTime = averageLoadTime;
+        this.storeSize = storeSize;
+        this.storeUsedBytes = storeUsedBytes;
+        this.storeCapacity = storeCapacity;
+        this.storeHits = storeHits;
+        this.storeCompactions = storeCompactions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    /**
+     * Obtains average time spent querying a beacon on a cache miss.
+     *
+     * @return average load time in milliseconds
+     */
+    public double getAverageLoadTime() {
+        return averageLoadTime;
+    }
+
+    public void setAverageLoadTime(double averageLoadTime) {
+        this.averageLoadTime = averageLoadTime;
+    }
+
+    /**
+     * Obtains the number of responses in the persistent store.
+     *
+     * @return number of keys with a stored response
+     */
+    public int getStoreSize() {
+        return storeSize;
+    }
+
+    public void setStoreSize(int storeSize) {
+        this.storeSize = storeSize;
+    }
+
+    /**
+     * Obtains the space occupied in the persistent store, including superseded responses not compacted yet.
+     *
+     * @return bytes
+     */
+    public long getStoreUsedBytes() {
+        return storeUsedBytes;
+    }
+
+    public void setStoreUsedBytes(long storeUsedBytes) {
+        this.storeUsedBytes = storeUsedBytes;
+    }
+
+    /**
+     * Obtains the size of the persistent store.
+     *
+     * @return bytes, 0 if the store is disabled
+     */
+    public long getStoreCapacity() {
+        return storeCapacity;
+    }
+
+    public void setStoreCapacity(long storeCapacity) {
+        this.storeCapacity = storeCapacity;
+    }
+
+    /**
+     * Obtains the number of misses of the in-memory cache answered from the persistent store.
+     *
+     * @return hits
+     */
+    public long getStoreHits() {
+        return storeHits;
+    }
+
+    public void setStoreHits(long storeHits) {
+        this.storeHits = storeHits;
+    }
+
+    public long getStoreCompactions() {
+        return storeCompactions;
+    }
+
+    public void setStoreCompactions(long storeCompactions) {
+        this.storeCompactions = storeCompactions;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + this.size;
+        hash = 29 * hash + this.maxSize;
+        hash = 29 * hash + (int) (this.hits ^ (this.hits >>> 32));
+        hash = 29 * hash + (int) (this.misses ^ (this.misses >>> 32));
+        hash = 29 * hash + (int) (Double.doubleToLongBits(this.hitRate) ^ (Double.doubleToLongBits(this.hitRate) >>> 32));
+        hash = 29 * hash + (int) (this.evictions ^ (this.evictions >>> 32));
+        hash = 29 * hash + (int) (this.loads ^ (this.loads >>> 32));
+        hash = 29 * hash + (int) (Double.doubleToLongBits(this.averageLoadTime) ^ (Double.doubleToLongBits(this.averageLoadTime) >>> 32));
+        hash = 29 * hash + this.storeSize;
+        hash = 29 * hash + (int) (this.storeUsedBytes ^ (this.storeUsedBytes >>> 32));
+        hash = 29 * hash + (int) (this.storeCapacity ^ (this.storeCapacity >>> 32));
+        hash = 29 * hash + (int) (this.storeHits ^ (this.storeHits >>> 32));
+        hash = 29 * hash + (int) (this.storeCompactions ^ (this.storeCompactions >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final CacheStatsTo other = (CacheStatsTo) obj;
+        if (this.size != other.size) {
+            return false;
+        }
+        if (this.maxSize != other.maxSize) {
+            return false;
+        }
+        if (this.hits != other.hits) {
+            return false;
+        }
+        if (this.misses != other.misses) {
+            return false;
+        }
+        if (Double.doubleToLongBits(this.hitRate) != Double.doubleToLongBits(other.hitRate)) {
+            return false;
+        }
+        if (this.evictions != other.evictions) {
+            return false;
+        }
+        if (this.loads != other.loads) {
+            return false;
+        }
+        if (Double.doubleToLongBits(this.averageLoadTime) != Double.doubleToLongBits(other.averageLoadTime)) {
+            return false;
+        }
+        if (this.storeSize != other.storeSize) {
+            return false;
+        }
+        if (this.storeUsedBytes != other.storeUsedBytes) {
+            return false;
+        }
+        if (this.storeCapacity != other.storeCapacity) {
+            return false;
+        }
+        if (this.storeHits != other.storeHits) {
+            return false;
+        }
+        if (this.storeCompactions != other.storeCompactions) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsTo{" + "size=" + size + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses + ", hitRate=" + hitRate + ", evictions=" + evictions + ", loads=" + loads + ", averageLoadTime=" + averageLoadTime + ", storeSize=" + storeSize + ", storeUsedBytes=" + storeUsedBytes + ", storeCapacity=" + storeCapacity + ", storeHits=" + storeHits + ", storeCompactions=" + storeCompactions + '}';
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Circuit breaker statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "circuit-breaker-stats")
+public class CircuitBreakerStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 62L;
+
+    private String beacon;
+    private String state;
+    private float failureRate;
+    private float slowCallRate;
+    private int bufferedCalls;
+    private long notPermittedCalls;
+
+    public CircuitBreakerStatsTo() {
+        // needed for JAXB
+    }
+
+    public CircuitBreakerStatsTo(String beacon, String state, float failureRate, float slowCallRate, int bufferedCalls, long notPermittedCalls) {
+        this.beacon = beacon;
+        this.state = state;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.bufferedCalls = bufferedCalls;
+        this.notPermittedCalls = notPermittedCalls;
+    }
+
+    public String getBeacon() {
+        return beacon;
+    }
+
+    public void setBeacon(String beacon) {
+        this.beacon = beacon;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public float getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(float failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public float getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    public void setSlowCallRate(float slowCallRate) {
+        this.slowCallRate = slowCallRate;
+    }
+
+    public int getBufferedCalls() {
+        return bufferedCalls;
+    }
+
+    public void setBufferedCalls(int bufferedCalls) {
+        this.bufferedCalls = bufferedCalls;
+    }
+
+    public long getNotPermittedCalls() {
+        return notPermittedCalls;
+    }
+
+    public void setNotPermittedCalls(long notPermittedCalls) {
+        this.notPermittedCalls = notPermittedCalls;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.beacon);
+        hash = 29 * hash + Objects.hashCode(this.state);
+        hash = 29 * hash + Float.floatToIntBits(this.failureRate);
+        hash = 29 * hash + Float.floatToIntBits(this.slowCallRate);
+        hash = 29 * hash + this.bufferedCalls;
+        hash = 29 * hash + (int) (this.notPermittedCalls ^ (this.notPermittedCalls >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final CircuitBreakerStatsTo other = (CircuitBreakerStatsTo) obj;
+        if (!Objects.equals(this.beacon, other.beacon)) {
+            return false;
+        }
+        if (!Objects.equals(this.state, other.state)) {
+            return false;
+        }
+        if (Float.floatToIntBits(this.failureRate) != Float.floatToIntBits(other.failureRate)) {
+            return false;
+        }
+        if (Float.floatToIntBits(this.slowCallRate) != Float.floatToIntBits(other.slowCallRate)) {
+            return false;
+        }
+        if (this.bufferedCalls != other.bufferedCalls) {
+            return false;
+        }
+        if (this.notPermittedCalls != other.notPermittedCalls) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerStatsTo{" + "beacon=" + beacon + ", state=" + state + ", failureRate=" + failureRate + ", slowCallRate=" + slowCallRate + ", bufferedCalls=" + bufferedCalls + ", notPermittedCalls=" + notPermittedCalls + '}';
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Connection pool statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "connection-pool-stats")
+public class ConnectionPoolStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 60L;
+
+    private String route;
+    private int leased;
+    private int available;
+    private int pending;
+    private int max;
+    private int limit;
+    private int queued;
+    private long rejected;
+
+    public ConnectionPoolStatsTo() {
+        // needed for JAXB
+    }
+
+    public ConnectionPoolStatsTo(String route, int leased, int available, int pending, int max) {
+        this.route = route;
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    public ConnectionPoolStatsTo(String route, int leased, int available, int pending, int max, int limit, int queued, long rejected) {
+        this(route, leased, available, pending, max);
+        this.limit = limit;
+        this.queued = queued;
+        this.rejected = rejected;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    public int getLeased() {
+        return leased;
+    }
+
+    public void setLeased(int leased) {
+        this.leased = leased;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public void setMax(int max) {
+        this.max = max;
+    }
+
+    /**
+     * Obtains the current adaptive limit of concurrent requests.
+     *
+     * @return limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Obtains the number of requests waiting for the concurrency limit.
+     *
+     * @return number of queued requests
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Obtains the number of requests rejected because of the concurrency limit.
+     *
+     * @return number of rejected requests
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.route);
+        hash = 29 * hash + this.leased;
+        hash = 29 * hash + this.available;
+        hash = 29 * hash + this.pending;
+        hash = 29 * hash + this.max;
+        hash = 29 * hash + this.limit;
+        hash = 29 * hash + this.queued;
+        hash = 29 * hash + (int) (this.rejected ^ (this.rejected >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final ConnectionPoolStatsTo other = (ConnectionPoolStatsTo) obj;
+        if (!Objects.equals(this.route, other.route)) {
+            return false;
+        }
+        if (this.leased != other.leased) {
+            return false;
+        }
+        if (this.available != other.available) {
+            return false;
+        }
+        if (this.pending != other.pending) {
+            return false;
+        }
+        if (this.max != other.max) {
+            return false;
+        }
+        if (this.limit != other.limit) {
+            return false;
+        }
+        if (this.queued != other.queued) {
+            return false;
+        }
+        if (this.rejected != other.rejected) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStatsTo{" + "route=" + route + ", leased=" + leased + ", available=" + available + ", pending=" + pending + ", max=" + max + ", limit=" + limit + ", queued=" + queued + ", rejected=" + rejected + '}';
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Request hedging statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "hedge-stats")
+public class HedgeStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 63L;
+
+    private String beacon;
+    private long requests;
+    private long hedges;
+    private long wins;
+
+    public HedgeStatsTo() {
+        // needed for JAXB
+    }
+
+    public HedgeStatsTo(String beacon, long requests, long hedges, long wins) {
+        this.beacon = beacon;
+        this.requests = requests;
+        this.hedges = hedges;
+        this.wins = wins;
+    }
+
+    public String getBeacon() {
+        return beacon;
+    }
+
+    public void setBeacon(String beacon) {
+        this.beacon = beacon;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getHedges() {
+        return hedges;
+    }
+
+    public void setHedges(long hedges) {
+        this.hedges = hedges;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public void setWins(long wins) {
+        this.wins = wins;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.beacon);
+        hash = 29 * hash + (int) (this.requests ^ (this.requests >>> 32));
+        hash = 29 * hash + (int) (this.hedges ^ (this.hedges >>> 32));
+        hash = 29 * hash + (int) (this.wins ^ (this.wins >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final HedgeStatsTo other = (HedgeStatsTo) obj;
+        if (!Objects.equals(this.beacon, other.beacon)) {
+            return false;
+        }
+        if (this.requests != other.requests) {
+            return false;
+        }
+        if (this.hedges != other.hedges) {
+            return false;
+        }
+        if (this.wins != other.wins) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeStatsTo{" + "beacon=" + beacon + ", requests=" + requests + ", hedges=" + hedges + ", wins=" + wins + '}';
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+/**
+ * State of a bulk query job.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public enum JobStatusTo {
+
+    QUEUED("queued"), RUNNING("running"), COMPLETED("completed"), FAILED("failed"), CANCELLED("cancelled");
+
+    private final String status;
+
+    private JobStatusTo(String status) {
+        this.status = status;
+    }
+
+    public static JobStatusTo fromString(String text) {
+        if (text != null) {
+            for (JobStatusTo s : JobStatusTo.values()) {
+                if (text.equalsIgnoreCase(s.toString())) {
+                    return s;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether a job in this state is not going to progress any further.
+     *
+     * @return true if final, false otherwise
+     */
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+
+    @Override
+    public String toString() {
+        return status;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Bulk query job DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "job")
+public class JobTo implements Serializable {
+
+    private static final long serialVersionUID = 67L;
+
+    private String id;
+    private JobStatusTo status;
+    private List<String> beacons;
+    private String reference;
+    private long submitted;
+    private long variants;
+    private long responses;
+    private long skipped;
+    private String error;
+
+    public JobTo() {
+        // needed for JAXB
+    }
+
+    public JobTo(String id, JobStatusTo status, List<String> beacons, String reference, long submitted, long variants, long responses, long skipped, String error) {
+        this.id = id;
+        this.status = status;
+        this.beacons = beacons;
+        this.reference = reference;
+        this.submitted = submitted;
+        this.variants = variants;
+        this.responses = responses;
+        this.skipped = skipped;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public JobStatusTo getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatusTo status) {
+        this.status = status;
+    }
+
+    /**
+     * Obtains the beacons queried by the job.
+     *
+     * @return beacon IDs, null if all the beacons are queried
+     */
+    public List<String> getBeacons() {
+        return beacons;
+    }
+
+    public void setBeacons(List<String> beacons) {
+        this.beacons = beacons;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    /**
+     * Obtains the time the job was submitted.
+     *
+     * @return submission time in milliseconds since the epoch
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+
+    /**
+     * Obtains the progress of the job.
+     *
+     * @return number of variants processed so far
+     */
+    public long getVariants() {
+        return variants;
+    }
+
+    public void setVariants(long variants) {
+        this.variants = variants;
+    }
+
+    /**
+     * Obtains the number of results available.
+     *
+     * @return number of beacon responses
+     */
+    public long getResponses() {
+        return responses;
+    }
+
+    public void setResponses(long responses) {
+        this.responses = responses;
+    }
+
+    /**
+     * Obtains the number of input lines which could not be parsed.
+     *
+     * @return number of skipped lines
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.id);
+        hash = 29 * hash + Objects.hashCode(this.status);
+        hash = 29 * hash + Objects.hashCode(this.beacons);
+        hash = 29 * hash + Objects.hashCode(this.reference);
+        hash = 29 * hash + (int) (this.submitted ^ (this.submitted >>> 32));
+        hash = 29 * hash + (int) (this.variants ^ (this.variants >>> 32));
+        hash = 29 * hash + (int) (this.responses ^ (this.responses >>> 32));
+        hash = 29 * hash + (int) (this.skipped ^ (this.skipped >>> 32));
+        hash = 29 * hash + Objects.hashCode(this.error);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final JobTo other = (JobTo) obj;
+        if (!Objects.equals(this.id, other.id)) {
+            return false;
+        }
+        if (this.status != other.status) {
+            return false;
+        }
+        if (!Objects.equals(this.beacons, other.beacons)) {
+            return false;
+        }
+        if (!Objects.equals(this.reference, other.reference)) {
+            return false;
+        }
+        if (this.submitted != other.submitted) {
+            return false;
+        }
+        if (this.variants != other.variants) {
+            return false;
+        }
+        if (this.responses != other.responses) {
+            return false;
+        }
+        if (this.skipped != other.skipped) {
+            return false;
+        }
+        if (!Objects.equals(this.error, other.error)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JobTo{" + "id=" + id + ", status=" + status + ", beacons=" + beacons + ", reference=" + reference + ", submitted=" + submitted + ", variants=" + variants + ", responses=" + responses + ", skipped=" + skipped + ", error=" + error + '}';
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Rate limit statistics DTO.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@XmlRootElement(name = "rate-limit-stats")
+public class RateLimitStatsTo implements Serializable {
+
+    private static final long serialVersionUID = 64L;
+
+    private String host;
+    private int rate;
+    private int queued;
+    private long granted;
+    private long rejected;
+    private double averageWaitTime;
+
+    public RateLimitStatsTo() {
+        // needed for JAXB
+    }
+
+    public RateLimitStatsTo(String host, int rate, int queued, long granted, long rejected, double averageWaitTime) {
+        this.host = host;
+        this.rate = rate;
+        this.queued = queued;
+        this.granted = granted;
+        this.rejected = rejected;
+        this.averageWaitTime = averageWaitTime;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * Obtains the rate limit of the host.
+     *
+     * @return max number of requests per second
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public long getGranted() {
+        return granted;
+    }
+
+    public void setGranted(long granted) {
+        this.granted = granted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * Obtains the average time requests waited to be sent.
+     *
+     * @return average wait time in milliseconds
+     */
+    public double getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    public void setAverageWaitTime(double averageWaitTime) {
+        this.averageWaitTime = averageWaitTime;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.host);
+        hash = 29 * hash + this.rate;
+        hash = 29 * hash + this.queued;
+        hash = 29 * hash + (int) (this.granted ^ (this.granted >>> 32));
+        hash = 29 * hash + (int) (this.rejected ^ (this.rejected >>> 32));
+        hash = 29 * hash + (int) (Double.doubleToLongBits(this.averageWaitTime) ^ (Double.doubleToLongBits(this.averageWaitTime) >>> 32));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final RateLimitStatsTo other = (RateLimitStatsTo) obj;
+        if (!Objects.equals(this.host, other.host)) {
+            return false;
+        }
+        if (this.rate != other.rate) {
+            return false;
+        }
+        if (this.queued != other.queued) {
+            return false;
+        }
+        if (this.granted != other.granted) {
+            return false;
+        }
+        if (this.rejected != other.rejected) {
+            return false;
+        }
+        if (Double.doubleToLongBits(this.averageWaitTime) != Double.doubleToLongBits(other.averageWaitTime)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitStatsTo{" + "host=" + host + ", rate=" + rate + ", queued=" + queued + ", granted=" + granted + ", rejected=" + rejected + ", averageWaitTime=" + averageWaitTime + '}';
+    }
+
+}
@@ -72,4 +72,27 @@ public interface BeaconResponseService {
      */
     Collection<BeaconResponseTo> queryAll(String chrom, Long pos, String allele, String ref);
 
+    /**
+     * Query specified beacons, each response is passed to the listener as soon as it is available.
+     *
+     * @param beaconIds collection of beacon IDs
+     * @param chrom     chromosome
+     * @param pos       position
+     * @param allele    allele
+     * @param ref       reference genome (optional)
+     * @param listener  listener receiving the responses
+     */
+    void queryBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, BeaconResponseListener listener);
+
+    /**
+     * Query all the beacons, each response is passed to the listener as soon as it is available.
+     *
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param listener listener receiving the responses
+     */
+    void queryAll(String chrom, Long pos, String allele, String ref, BeaconResponseListener listener);
+
 }
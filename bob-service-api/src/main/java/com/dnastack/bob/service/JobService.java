@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.dto.JobTo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service managing bulk query jobs, which query beacons with all the variants of an uploaded file in the background.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public interface JobService {
+
+    /**
+     * Submits a new job. Variants are read from a VCF file or a tab separated list of chromosome, position, allele
+     * and (optionally) reference genome, the file can be gzipped.
+     *
+     * @param input     variants to query
+     * @param beaconIds collection of beacon IDs (optional, all the beacons are queried if not specified)
+     * @param ref       reference genome (optional)
+     *
+     * @return job
+     *
+     * @throws IOException if the input cannot be stored
+     */
+    JobTo submit(InputStream input, Collection<String> beaconIds, String ref) throws IOException;
+
+    /**
+     * Retrieves job details.
+     *
+     * @param jobId id of the job
+     *
+     * @return job, null if not found
+     */
+    JobTo getJob(String jobId);
+
+    /**
+     * Retrieves all the jobs.
+     *
+     * @return collection of jobs
+     */
+    Collection<JobTo> getAll();
+
+    /**
+     * Cancels a job. Results obtained so far are kept.
+     *
+     * @param jobId id of the job
+     *
+     * @return job, null if not found
+     */
+    JobTo cancel(String jobId);
+
+    /**
+     * Retrieves a page of results of a job, available as soon as they are obtained, even while the job is running.
+     *
+     * @param jobId  id of the job
+     * @param offset number of results to skip
+     * @param limit  max number of results
+     *
+     * @return list of beacon responses, null if the job does not exist
+     */
+    List<BeaconResponseTo> getResults(String jobId, long offset, int limit);
+
+    /**
+     * Passes all the results of a job obtained so far to the listener one by one.
+     *
+     * @param jobId    id of the job
+     * @param listener listener receiving the responses
+     *
+     * @return true if the job exists, false otherwise
+     */
+    boolean streamResults(String jobId, BeaconResponseListener listener);
+
+}
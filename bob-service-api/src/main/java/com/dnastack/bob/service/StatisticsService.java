@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.dto.BulkheadStatsTo;
+import com.dnastack.bob.dto.CacheStatsTo;
+import com.dnastack.bob.dto.CircuitBreakerStatsTo;
+import com.dnastack.bob.dto.ConnectionPoolStatsTo;
+import com.dnastack.bob.dto.HedgeStatsTo;
+import com.dnastack.bob.dto.PrefetchStatsTo;
+import com.dnastack.bob.dto.RateLimitStatsTo;
+import java.util.Collection;
+
+/**
+ * Service providing runtime statistics for monitoring.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public interface StatisticsService {
+
+    /**
+     * Retrieves statistics of the pool of connections to the beacons, one item per route plus the total.
+     *
+     * @return collection of connection pool stats
+     */
+    Collection<ConnectionPoolStatsTo> getConnectionPoolStats();
+
+    /**
+     * Retrieves statistics of the cache of beacon responses.
+     *
+     * @return cache stats
+     */
+    CacheStatsTo getCacheStats();
+
+    /**
+     * Retrieves states of the circuit breakers guarding the beacons, one item per beacon queried so far.
+     *
+     * @return collection of circuit breaker stats
+     */
+    Collection<CircuitBreakerStatsTo> getCircuitBreakerStats();
+
+    /**
+     * Retrieves counts of hedged requests to the beacons, one item per beacon queried so far.
+     *
+     * @return collection of hedging stats
+     */
+    Collection<HedgeStatsTo> getHedgeStats();
+
+    /**
+     * Retrieves usage of the rate limits of the beacon hosts, one item per rate limited host contacted so far. Beacons
+     * served by the same host share its limit.
+     *
+     * @return collection of rate limit stats
+     */
+    Collection<RateLimitStatsTo> getRateLimitStats();
+
+    /**
+     * Retrieves saturation of the bulkheads of the beacons, one item per beacon queried so far.
+     *
+     * @return collection of bulkhead stats
+     */
+    Collection<BulkheadStatsTo> getBulkheadStats();
+
+    /**
+     * Retrieves the most popular queries kept prefetched, the most popular first.
+     *
+     * @return collection of prefetch stats
+     */
+    Collection<PrefetchStatsTo> getPrefetchStats();
+
+}
@@ -0,0 +1,317 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.processor.BeaconQueryPipeline;
+import com.dnastack.bob.util.BeaconQueryKey;
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.QueryRejectedException;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+
+import static com.dnastack.bob.util.Constants.CACHE_HARD_TTL;
+import static com.dnastack.bob.util.Constants.CACHE_HARD_TTL_PREFIX;
+import static com.dnastack.bob.util.Constants.CACHE_NULL_TTL;
+import static com.dnastack.bob.util.Constants.CACHE_SIZE;
+import static com.dnastack.bob.util.Constants.CACHE_STORE_FILE;
+import static com.dnastack.bob.util.Constants.CACHE_STORE_SIZE;
+import static com.dnastack.bob.util.Constants.CACHE_TTL;
+import static com.dnastack.bob.util.Constants.CACHE_TTL_PREFIX;
+
+/**
+ * Cache of responses of atomic beacons. Responses are keyed by the beacon and the canonical form of the query, failed
+ * queries (null responses) are cached for a shorter period of time so that the beacon gets asked again soon. Queries
+ * shed locally ({@link QueryRejectedException}) are not cached at all, the beacon was not asked.
+ * <p>
+ * Responses are served stale-while-revalidate: a response older than its (soft) TTL is still served immediately, but
+ * a refresh is started in the background. Only once a response is older than its hard TTL, the beacon is queried
+ * while the caller waits. Failed queries are never served stale.
+ * <p>
+ * Responses are also persisted in a {@link PersistentResponseStore}, which backs the in-memory cache, so that
+ * responses obtained before a redeployment or a restart are served without querying the beacons again. Failed
+ * queries are not persisted.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@ApplicationScoped
+@Named
+public class BeaconResponseCache implements Serializable {
+
+    private static final long serialVersionUID = 120L;
+    private static final String REFRESH_CLIENT = "refresh";
+
+    private final transient TinyLfuCache<BeaconQueryKey, CachedResponse> cache = new TinyLfuCache<>(CACHE_SIZE);
+    private final transient Set<BeaconQueryKey> refreshing = Collections.newSetFromMap(new ConcurrentHashMap<BeaconQueryKey, Boolean>());
+    private transient PersistentResponseStore store;
+
+    @PostConstruct
+    private void init() {
+        if (CACHE_SIZE > 0 && CACHE_STORE_SIZE > 0) {
+            try {
+                store = PersistentResponseStore.open(new File(CACHE_STORE_FILE), CACHE_STORE_SIZE * 1024 * 1024);
+            } catch (IOException ex) {
+                // ignore, responses are only cached in memory
+            }
+        }
+    }
+
+    @PreDestroy
+    private void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private static long getTtl(BeaconQueryKey key, Boolean response) {
+        if (response == null) {
+            return CACHE_NULL_TTL;
+        }
+
+        return Long.getLong(CACHE_TTL_PREFIX + key.getBeaconId(), CACHE_TTL);
+    }
+
+    private static long getHardTtl(BeaconQueryKey key, Boolean response) {
+        long ttl = getTtl(key, response);
+        if (response == null) {
+            return ttl;
+        }
+
+        return Math.max(ttl, Long.getLong(CACHE_HARD_TTL_PREFIX + key.getBeaconId(), CACHE_HARD_TTL));
+    }
+
+    private void put(BeaconQueryKey key, Boolean response) {
+        long now = System.currentTimeMillis();
+        long hardTtl = TimeUnit.SECONDS.toMillis(getHardTtl(key, response));
+        cache.put(key, new CachedResponse(response, now + TimeUnit.SECONDS.toMillis(getTtl(key, response))), hardTtl, TimeUnit.MILLISECONDS);
+        if (response != null && store != null) {
+            store.put(key, response, hardTtl);
+        }
+    }
+
+    private CachedResponse getCached(BeaconQueryKey key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null || store == null) {
+            return cached;
+        }
+
+        long hardTtl = TimeUnit.SECONDS.toMillis(getHardTtl(key, true));
+        PersistentResponseStore.Entry stored = store.get(key, hardTtl);
+        if (stored == null) {
+            return null;
+        }
+
+        // promote to memory for the rest of its lifetime
+        CachedResponse res = new CachedResponse(stored.getResponse(), stored.getTimestamp() + TimeUnit.SECONDS.toMillis(getTtl(key, true)));
+        long remaining = Math.min(stored.getExpiration(), stored.getTimestamp() + hardTtl) - System.currentTimeMillis();
+        cache.put(key, res, remaining, TimeUnit.MILLISECONDS);
+
+        return res;
+    }
+
+    private ListenableFuture<Boolean> load(final BeaconQueryKey key, Beacon beacon, final Deadline deadline) {
+        final long start = System.nanoTime();
+        ListenableFuture<Boolean> res = BeaconQueryPipeline.execute(beacon, key.getQuery(), deadline);
+        Futures.addCallback(res, new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean result) {
+                if (result == null && deadline.isExpired()) {
+                    // the beacon ran out of time, the next query may have more
+                    return;
+                }
+                cache.recordLoad(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                put(key, result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (!(t instanceof CancellationException) && !(t instanceof QueryRejectedException)) {
+                    cache.recordLoad(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    put(key, null);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return res;
+    }
+
+    private void refresh(final BeaconQueryKey key, Beacon beacon) {
+        if (!refreshing.add(key)) {
+            // already being refreshed
+            return;
+        }
+
+        ListenableFuture<Boolean> res = BeaconQueryPipeline.execute(beacon, key.getQuery(), Deadline.getDefault().forClient(REFRESH_CLIENT));
+        Futures.addCallback(res, new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean result) {
+                refreshing.remove(key);
+                // a failed refresh keeps serving the stale response until the hard TTL
+                if (result != null) {
+                    put(key, result);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                refreshing.remove(key);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Obtains the response of an atomic beacon to a query, either from the cache or by querying the beacon.
+     *
+     * @param beacon   atomic beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     *
+     * @return response
+     */
+    public ListenableFuture<Boolean> execute(Beacon beacon, Query query, Deadline deadline) {
+        return execute(beacon, query, deadline, null);
+    }
+
+    /**
+     * Obtains the response of an atomic beacon to a query, either from the cache or by querying the beacon. If the
+     * cached response is stale, it is returned and the beacon is added to the given collection before this method
+     * returns.
+     *
+     * @param beacon   atomic beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     * @param stale    collection of beacons served stale responses (optional)
+     *
+     * @return response
+     */
+    public ListenableFuture<Boolean> execute(Beacon beacon, Query query, Deadline deadline, Collection<? super Beacon> stale) {
+        BeaconQueryKey key = BeaconQueryKey.of(beacon, query);
+
+        CachedResponse cached = getCached(key);
+        if (cached == null) {
+            return load(key, beacon, deadline);
+        }
+
+        if (cached.isStale(System.currentTimeMillis())) {
+            refresh(key, beacon);
+            if (stale != null) {
+                stale.add(beacon);
+            }
+        }
+
+        return Futures.immediateFuture(cached.getResponse());
+    }
+
+    /**
+     * Obtains the cached response of an atomic beacon to a query without querying the beacon, not even to refresh a
+     * stale response. If the cached response is stale, the beacon is added to the given collection before this method
+     * returns.
+     *
+     * @param beacon atomic beacon
+     * @param query  query
+     * @param stale  collection of beacons served stale responses (optional)
+     *
+     * @return response, null if not cached
+     */
+    public Boolean getIfPresent(Beacon beacon, Query query, Collection<? super Beacon> stale) {
+        CachedResponse cached = getCached(BeaconQueryKey.of(beacon, query));
+        if (cached == null) {
+            return null;
+        }
+
+        if (stale != null && cached.isStale(System.currentTimeMillis())) {
+            stale.add(beacon);
+        }
+
+        return cached.getResponse();
+    }
+
+    /**
+     * Loads the response of an atomic beacon to a query into the cache, unless a fresh response is cached already.
+     *
+     * @param beacon   atomic beacon
+     * @param query    query
+     * @param deadline deadline of the query
+     *
+     * @return true if the beacon is being queried, false if the cached response is fresh
+     */
+    public boolean prefetch(Beacon beacon, Query query, Deadline deadline) {
+        BeaconQueryKey key = BeaconQueryKey.of(beacon, query);
+
+        CachedResponse cached = getCached(key);
+        if (cached == null) {
+            load(key, beacon, deadline);
+            return true;
+        }
+        if (cached.isStale(System.currentTimeMillis())) {
+            refresh(key, beacon);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes all the cached responses.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (store != null) {
+            store.clear();
+        }
+    }
+
+    public TinyLfuCache<BeaconQueryKey, CachedResponse> getCache() {
+        return cache;
+    }
+
+    /**
+     * Obtains the persistent store backing the cache.
+     *
+     * @return store, null if responses are not persisted
+     */
+    public PersistentResponseStore getStore() {
+        return store;
+    }
+
+}
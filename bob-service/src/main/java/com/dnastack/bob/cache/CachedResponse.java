@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+/**
+ * Response of an atomic beacon held in the cache. The response is fresh until its soft expiration, afterwards it is
+ * stale: still served, but refreshed in the background.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class CachedResponse {
+
+    private final Boolean response;
+    private final long softExpiration;
+
+    /**
+     * Creates a cached response.
+     *
+     * @param response       response (null if the query failed)
+     * @param softExpiration time the response becomes stale at, in milliseconds since the epoch
+     */
+    public CachedResponse(Boolean response, long softExpiration) {
+        this.response = response;
+        this.softExpiration = softExpiration;
+    }
+
+    public Boolean getResponse() {
+        return response;
+    }
+
+    public long getSoftExpiration() {
+        return softExpiration;
+    }
+
+    /**
+     * Checks whether the response is past its soft expiration.
+     *
+     * @param now current time in milliseconds since the epoch
+     *
+     * @return true if stale, false if fresh
+     */
+    public boolean isStale(long now) {
+        return now >= softExpiration;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedResponse{" + "response=" + response + ", softExpiration=" + softExpiration + '}';
+    }
+}
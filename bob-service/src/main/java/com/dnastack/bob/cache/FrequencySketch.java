@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+/**
+ * Count-min sketch estimating how often keys have been accessed recently. Counters saturate at 15 and are halved
+ * periodically, so that the estimates reflect recent popularity rather than all-time popularity.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x8c4f1e7b, 0xa54ff53a, 0x510e527f};
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch for a cache of the given size.
+     *
+     * @param maximumSize max number of entries of the cache
+     */
+    public FrequencySketch(int maximumSize) {
+        int width = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        this.table = new int[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(16, maximumSize);
+    }
+
+    private int indexOf(Object key, int row) {
+        int h = key.hashCode() * SEEDS[row];
+        h ^= h >>> 16;
+
+        return h & mask;
+    }
+
+    /**
+     * Records an access to the key.
+     *
+     * @param key key
+     */
+    public void increment(Object key) {
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int j = indexOf(key, i);
+            if (table[i][j] < MAX_COUNT) {
+                table[i][j]++;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Estimates number of recent accesses to the key.
+     *
+     * @param key key
+     *
+     * @return frequency estimate
+     */
+    public int frequency(Object key) {
+        int res = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            res = Math.min(res, table[i][indexOf(key, i)]);
+        }
+
+        return res;
+    }
+
+    private void reset() {
+        for (int[] row : table) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] >>>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+}
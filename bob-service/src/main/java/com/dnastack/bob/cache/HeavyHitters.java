@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Tracks the most frequent keys of a stream in bounded memory. Frequencies of all the keys are estimated by a
+ * count-min sketch, the keys with the highest estimates are kept in a min-heap of a fixed size. Counters are halved
+ * periodically, so that keys which are no longer popular fade out.
+ *
+ * @param <K> key type
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class HeavyHitters<K> {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int size;
+    private final int[][] counters;
+    private final int mask;
+    private final long samplePeriod;
+    private final Map<K, Counted<K>> top = new HashMap<>();
+    private final PriorityQueue<Counted<K>> heap = new PriorityQueue<>(11, new Comparator<Counted<K>>() {
+
+        @Override
+        public int compare(Counted<K> o1, Counted<K> o2) {
+            return Long.compare(o1.count, o2.count);
+        }
+    });
+    private long samples = 0;
+
+    /**
+     * Key with its estimated frequency.
+     *
+     * @param <K> key type
+     */
+    public static final class Counted<K> {
+
+        private final K key;
+        private long count;
+
+        Counted(K key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "Counted{" + "key=" + key + ", count=" + count + '}';
+        }
+    }
+
+    /**
+     * Creates a tracker.
+     *
+     * @param size number of the most frequent keys to keep
+     */
+    public HeavyHitters(int size) {
+        this.size = Math.max(0, size);
+        int width = 64;
+        while (width < this.size * 64) {
+            width *= 2;
+        }
+        this.counters = new int[DEPTH][width];
+        this.mask = width - 1;
+        this.samplePeriod = 10L * width;
+    }
+
+    private int index(Object key, int row) {
+        long h = (key.hashCode() + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 32;
+
+        return (int) h & mask;
+    }
+
+    private void age() {
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        for (Counted<K> c : top.values()) {
+            c.count >>>= 1;
+        }
+        samples /= 2;
+    }
+
+    /**
+     * Records an occurrence of a key.
+     *
+     * @param key key
+     *
+     * @return estimated frequency of the key
+     */
+    public synchronized long add(K key) {
+        if (size == 0) {
+            return 0;
+        }
+
+        // conservative update: only the smallest counters are incremented
+        int min = Integer.MAX_VALUE;
+        for (int r = 0; r < DEPTH; r++) {
+            min = Math.min(min, counters[r][index(key, r)]);
+        }
+        for (int r = 0; r < DEPTH; r++) {
+            int i = index(key, r);
+            if (counters[r][i] == min && min < Integer.MAX_VALUE) {
+                counters[r][i]++;
+            }
+        }
+        long estimate = (long) min + 1;
+
+        Counted<K> c = top.get(key);
+        if (c != null) {
+            heap.remove(c);
+            c.count = estimate;
+            heap.add(c);
+        } else if (top.size() < size) {
+            c = new Counted<>(key, estimate);
+            top.put(key, c);
+            heap.add(c);
+        } else if (heap.peek().count < estimate) {
+            top.remove(heap.poll().key);
+            c = new Counted<>(key, estimate);
+            top.put(key, c);
+            heap.add(c);
+        }
+
+        if (++samples >= samplePeriod) {
+            age();
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Obtains the most frequent keys.
+     *
+     * @return keys with their estimated frequencies, the most frequent first
+     */
+    public synchronized List<Counted<K>> getTop() {
+        List<Counted<K>> res = new ArrayList<>();
+        for (Counted<K> c : top.values()) {
+            res.add(new Counted<>(c.key, c.count));
+        }
+        Collections.sort(res, Collections.reverseOrder(heap.comparator()));
+
+        return res;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
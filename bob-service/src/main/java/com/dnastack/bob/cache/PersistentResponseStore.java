@@ -0,0 +1,500 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.util.BeaconQueryKey;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store of beacon responses in a memory-mapped file, so that responses survive redeployments and restarts.
+ * Every response is appended as a record (key, response, time of the response, expiration), newer records of a key
+ * supersede the older ones. Records are located through an open addressing hash index kept off-heap, which is rebuilt
+ * by scanning the file on startup. Torn records at the end of the file (e.g. after a crash) are detected by their
+ * checksum and discarded. Once the file is full, it is compacted by rewriting only the latest unexpired record of every
+ * key.
+ * <p>
+ * Record layout: key length (int), key (UTF-8), response (byte), timestamp (long), expiration (long), CRC32 (int).
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class PersistentResponseStore implements Closeable {
+
+    private static final int MAGIC = 0xB0B5_7041;
+    private static final int VERSION = 1;
+    // magic, version, end of the last record
+    private static final int HEADER_SIZE = 16;
+    private static final int END_OFFSET = 8;
+    // key length, response, timestamp, expiration, checksum
+    private static final int RECORD_OVERHEAD = 4 + 1 + 8 + 8 + 4;
+    private static final int MAX_KEY_LENGTH = 4096;
+    // hash of the key, offset of the record + 1 (0 marks an empty slot)
+    private static final int SLOT_SIZE = 12;
+    private static final int MIN_SLOTS = 1024;
+    // a store full of live records is not compacted again on every write
+    private static final long MIN_COMPACTION_INTERVAL = 60 * 1000;
+
+    private final File file;
+    private final int capacity;
+
+    private MappedByteBuffer data;
+    private ByteBuffer index;
+    private int slots;
+    private int entries = 0;
+    private int end = HEADER_SIZE;
+    private long hits = 0;
+    private long compactions = 0;
+    private long lastCompaction = 0;
+    private boolean closed = false;
+
+    /**
+     * Response stored for a key.
+     */
+    public static final class Entry {
+
+        private final boolean response;
+        private final long timestamp;
+        private final long expiration;
+
+        Entry(boolean response, long timestamp, long expiration) {
+            this.response = response;
+            this.timestamp = timestamp;
+            this.expiration = expiration;
+        }
+
+        public boolean getResponse() {
+            return response;
+        }
+
+        /**
+         * Obtains the time the response was received.
+         *
+         * @return time in milliseconds since the epoch
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Obtains the time the response expires at, as determined when it was stored.
+         *
+         * @return time in milliseconds since the epoch
+         */
+        public long getExpiration() {
+            return expiration;
+        }
+    }
+
+    private PersistentResponseStore(File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens the store in the given file, creating the file if it does not exist yet. Records found in the file are
+     * indexed.
+     *
+     * @param file     file
+     * @param capacity size of the file in bytes
+     *
+     * @return store
+     *
+     * @throws IOException if the file cannot be mapped
+     */
+    public static PersistentResponseStore open(File file, int capacity) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Could not create directory " + file.getParentFile());
+        }
+
+        PersistentResponseStore s = new PersistentResponseStore(file, Math.max(capacity, HEADER_SIZE + RECORD_OVERHEAD + MAX_KEY_LENGTH));
+        s.data = map(file, s.capacity);
+        s.load();
+
+        return s;
+    }
+
+    private static MappedByteBuffer map(File f, int capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw"); FileChannel ch = raf.getChannel()) {
+            // the mapping stays valid after the channel is closed
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, ch.size()));
+        }
+    }
+
+    private static byte[] encode(BeaconQueryKey key) {
+        Query q = key.getQuery();
+        String s = key.getBeaconId() + '\t' + q.getChromosome() + '\t' + q.getPosition() + '\t' + q.getAllele() + '\t' + ((q.getReference() == null) ? "" : q.getReference());
+
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long hash(byte[] key) {
+        // 64-bit FNV-1a
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+
+        return h;
+    }
+
+    private static ByteBuffer createIndex(int slots) {
+        return ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+    }
+
+    private static int getSlots(int entries) {
+        int s = MIN_SLOTS;
+        while (s < entries * 2) {
+            s *= 2;
+        }
+
+        return s;
+    }
+
+    private void load() {
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            // new or incompatible file
+            data.putInt(0, MAGIC);
+            data.putInt(4, VERSION);
+            setEnd(HEADER_SIZE);
+        }
+
+        int last = (int) Math.min(Math.max(data.getLong(END_OFFSET), HEADER_SIZE), data.capacity());
+        slots = MIN_SLOTS;
+        index = createIndex(slots);
+        int pos = HEADER_SIZE;
+        int length;
+        while (pos < last && (length = getRecordLength(data, pos, last)) > 0) {
+            addToIndex(readKey(data, pos), pos);
+            pos += length;
+        }
+        setEnd(pos);
+    }
+
+    private void setEnd(int pos) {
+        end = pos;
+        data.putLong(END_OFFSET, pos);
+    }
+
+    private static int getRecordLength(ByteBuffer b, int pos, int limit) {
+        if (pos + 4 > limit) {
+            return -1;
+        }
+        int keyLength = b.getInt(pos);
+        if (keyLength <= 0 || keyLength > MAX_KEY_LENGTH || pos + RECORD_OVERHEAD + keyLength > limit) {
+            return -1;
+        }
+        int length = RECORD_OVERHEAD + keyLength;
+        if (b.getInt(pos + length - 4) != checksum(b, pos, length - 4)) {
+            return -1;
+        }
+
+        return length;
+    }
+
+    private static int checksum(ByteBuffer b, int pos, int length) {
+        CRC32 crc = new CRC32();
+        for (int i = pos; i < pos + length; i++) {
+            crc.update(b.get(i));
+        }
+
+        return (int) crc.getValue();
+    }
+
+    private static byte[] readKey(ByteBuffer b, int pos) {
+        byte[] key = new byte[b.getInt(pos)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = b.get(pos + 4 + i);
+        }
+
+        return key;
+    }
+
+    private static boolean keyEquals(ByteBuffer b, int pos, byte[] key) {
+        if (b.getInt(pos) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (b.get(pos + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int findSlot(byte[] key, long h) {
+        int i = (int) ((h ^ (h >>> 32)) & (slots - 1));
+        while (true) {
+            int offset = index.getInt(i * SLOT_SIZE + 8) - 1;
+            if (offset < 0 || (index.getLong(i * SLOT_SIZE) == h && keyEquals(data, offset, key))) {
+                return i;
+            }
+            i = (i + 1) & (slots - 1);
+        }
+    }
+
+    private void addToIndex(byte[] key, int pos) {
+        if ((entries + 1) * 2 > slots) {
+            resizeIndex(slots * 2);
+        }
+
+        long h = hash(key);
+        int i = findSlot(key, h);
+        if (index.getInt(i * SLOT_SIZE + 8) == 0) {
+            entries++;
+        }
+        index.putLong(i * SLOT_SIZE, h);
+        index.putInt(i * SLOT_SIZE + 8, pos + 1);
+    }
+
+    private void resizeIndex(int newSlots) {
+        ByteBuffer old = index;
+        int oldSlots = slots;
+        slots = newSlots;
+        index = createIndex(slots);
+        for (int i = 0; i < oldSlots; i++) {
+            int offset = old.getInt(i * SLOT_SIZE + 8);
+            if (offset > 0) {
+                long h = old.getLong(i * SLOT_SIZE);
+                int j = (int) ((h ^ (h >>> 32)) & (slots - 1));
+                while (index.getInt(j * SLOT_SIZE + 8) != 0) {
+                    j = (j + 1) & (slots - 1);
+                }
+                index.putLong(j * SLOT_SIZE, h);
+                index.putInt(j * SLOT_SIZE + 8, offset);
+            }
+        }
+    }
+
+    private static int writeRecord(ByteBuffer b, int pos, byte[] key, boolean response, long timestamp, long expiration) {
+        b.putInt(pos, key.length);
+        for (int i = 0; i < key.length; i++) {
+            b.put(pos + 4 + i, key[i]);
+        }
+        int p = pos + 4 + key.length;
+        b.put(p, (byte) (response ? 1 : 0));
+        b.putLong(p + 1, timestamp);
+        b.putLong(p + 9, expiration);
+        int length = RECORD_OVERHEAD + key.length;
+        b.putInt(pos + length - 4, checksum(b, pos, length - 4));
+
+        return length;
+    }
+
+    /**
+     * Obtains the latest response stored for the given key, unless it has expired. A response expires either at the
+     * expiration determined when it was stored, or once it is older than the given TTL, whichever comes first.
+     *
+     * @param key key
+     * @param ttl current TTL of the response in milliseconds
+     *
+     * @return response, null if there is no unexpired response
+     */
+    public synchronized Entry get(BeaconQueryKey key, long ttl) {
+        if (closed) {
+            return null;
+        }
+
+        byte[] k = encode(key);
+        int offset = index.getInt(findSlot(k, hash(k)) * SLOT_SIZE + 8) - 1;
+        if (offset < 0) {
+            return null;
+        }
+
+        int p = offset + 4 + k.length;
+        Entry e = new Entry(data.get(p) == 1, data.getLong(p + 1), data.getLong(p + 9));
+        long now = System.currentTimeMillis();
+        if (now >= e.getExpiration() || now >= e.getTimestamp() + ttl) {
+            return null;
+        }
+        hits++;
+
+        return e;
+    }
+
+    /**
+     * Appends a response. If the file is full, it is compacted first (at most once a minute), the response is dropped if
+     * there is still not enough space.
+     *
+     * @param key      key
+     * @param response response
+     * @param ttl      TTL of the response in milliseconds
+     */
+    public synchronized void put(BeaconQueryKey key, boolean response, long ttl) {
+        byte[] k = encode(key);
+        if (closed || k.length > MAX_KEY_LENGTH) {
+            return;
+        }
+
+        int length = RECORD_OVERHEAD + k.length;
+        if (end + length > data.capacity() && System.currentTimeMillis() - lastCompaction >= MIN_COMPACTION_INTERVAL) {
+            try {
+                compact();
+            } catch (IOException ex) {
+                // ignore, keep the current file
+            }
+        }
+        if (end + length > data.capacity()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int pos = end;
+        writeRecord(data, pos, k, response, now, now + ttl);
+        // the record becomes visible after a restart only once it is complete
+        setEnd(pos + length);
+        addToIndex(k, pos);
+    }
+
+    /**
+     * Rewrites the file so that it only contains the latest unexpired record of every key.
+     *
+     * @throws IOException if the compacted file cannot be written
+     */
+    public synchronized void compact() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        File tmp = new File(file.getPath() + ".compact");
+        Files.deleteIfExists(tmp.toPath());
+        MappedByteBuffer compacted = map(tmp, capacity);
+        compacted.putInt(0, MAGIC);
+        compacted.putInt(4, VERSION);
+
+        long now = System.currentTimeMillis();
+        MappedByteBuffer oldData = data;
+        ByteBuffer oldIndex = index;
+        int oldSlots = slots;
+        int oldEntries = entries;
+        int live = 0;
+        for (int i = 0; i < oldSlots; i++) {
+            int offset = oldIndex.getInt(i * SLOT_SIZE + 8) - 1;
+            if (offset >= 0 && oldData.getLong(offset + 4 + oldData.getInt(offset) + 9) > now) {
+                live++;
+            }
+        }
+
+        // the index is rebuilt against the compacted file
+        data = compacted;
+        slots = getSlots(live);
+        index = createIndex(slots);
+        entries = 0;
+        int pos = HEADER_SIZE;
+        try {
+            for (int i = 0; i < oldSlots; i++) {
+                int offset = oldIndex.getInt(i * SLOT_SIZE + 8) - 1;
+                if (offset < 0) {
+                    continue;
+                }
+                byte[] k = readKey(oldData, offset);
+                int p = offset + 4 + k.length;
+                long expiration = oldData.getLong(p + 9);
+                if (expiration > now && pos + RECORD_OVERHEAD + k.length <= compacted.capacity()) {
+                    int length = writeRecord(compacted, pos, k, oldData.get(p) == 1, oldData.getLong(p + 1), expiration);
+                    addToIndex(k, pos);
+                    pos += length;
+                }
+            }
+            compacted.putLong(END_OFFSET, pos);
+            compacted.force();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            data = oldData;
+            index = oldIndex;
+            slots = oldSlots;
+            entries = oldEntries;
+            throw ex;
+        }
+
+        // the old mapping is released only once it is garbage collected, Java offers no supported way to unmap a buffer
+        // (forcing it through the JDK internals would crash the JVM on any later access). Until then it only keeps the
+        // pages of the replaced file, which is no longer linked after the move.
+        end = pos;
+        lastCompaction = now;
+        compactions++;
+    }
+
+    /**
+     * Removes all the responses.
+     */
+    public synchronized void clear() {
+        if (closed) {
+            return;
+        }
+
+        slots = MIN_SLOTS;
+        index = createIndex(slots);
+        entries = 0;
+        setEnd(HEADER_SIZE);
+    }
+
+    /**
+     * Flushes the file to the disk and stops using it.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            data.force();
+        }
+    }
+
+    public synchronized int size() {
+        return entries;
+    }
+
+    /**
+     * Obtains the number of bytes occupied by records, including superseded ones.
+     *
+     * @return bytes
+     */
+    public synchronized long getUsedBytes() {
+        return end - HEADER_SIZE;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache with W-TinyLFU eviction and per-entry expiration. New entries are placed into a small LRU window,
+ * entries leaving the window are admitted into the main segmented LRU space only if they are accessed more frequently
+ * than the entry they would replace. This keeps one-off queries from flushing popular entries.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class TinyLfuCache<K, V> {
+
+    private final int maximumSize;
+    private final int windowSize;
+    private final int protectedSize;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedSpace = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loads;
+    private long loadTime;
+
+    /**
+     * Creates a cache of the given size.
+     *
+     * @param maximumSize max number of entries (non-positive value disables caching)
+     */
+    public TinyLfuCache(int maximumSize) {
+        this.maximumSize = Math.max(0, maximumSize);
+        // 1% window, 80% of the main space protected
+        this.windowSize = Math.max(1, this.maximumSize / 100);
+        this.protectedSize = (int) ((this.maximumSize - windowSize) * 0.8);
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiration;
+
+        Entry(V value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        boolean isExpired(long now) {
+            return expiration - now <= 0;
+        }
+    }
+
+    private static <K, V> Map.Entry<K, Entry<V>> eldest(LinkedHashMap<K, Entry<V>> segment) {
+        Iterator<Map.Entry<K, Entry<V>>> it = segment.entrySet().iterator();
+
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private Entry<V> find(K key) {
+        Entry<V> e = window.get(key);
+        if (e == null) {
+            e = protectedSpace.get(key);
+        }
+        if (e == null) {
+            e = probation.remove(key);
+            if (e != null) {
+                // promote on second access
+                protectedSpace.put(key, e);
+                if (protectedSpace.size() > protectedSize) {
+                    Map.Entry<K, Entry<V>> demoted = eldest(protectedSpace);
+                    protectedSpace.remove(demoted.getKey());
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+        }
+
+        return e;
+    }
+
+    private void remove(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSpace.remove(key);
+        }
+    }
+
+    private void admit(K key, Entry<V> candidate) {
+        if (probation.size() + protectedSpace.size() < maximumSize - windowSize) {
+            probation.put(key, candidate);
+            return;
+        }
+
+        Map.Entry<K, Entry<V>> victim = eldest(probation.isEmpty() ? protectedSpace : probation);
+        evictions++;
+        if (victim != null && sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+            remove(victim.getKey());
+            probation.put(key, candidate);
+        }
+    }
+
+    /**
+     * Obtains a cached value.
+     *
+     * @param key key
+     *
+     * @return value or null if not present or expired
+     */
+    public synchronized V getIfPresent(K key) {
+        sketch.increment(key);
+
+        Entry<V> e = find(key);
+        if (e != null && e.isExpired(System.nanoTime())) {
+            remove(key);
+            e = null;
+        }
+
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+
+        return e.value;
+    }
+
+    /**
+     * Stores a value.
+     *
+     * @param key   key
+     * @param value value (not null)
+     * @param ttl   time to live
+     * @param unit  time unit of ttl
+     */
+    public synchronized void put(K key, V value, long ttl, TimeUnit unit) {
+        if (maximumSize == 0 || ttl <= 0) {
+            return;
+        }
+
+        Entry<V> e = new Entry<>(value, System.nanoTime() + unit.toNanos(ttl));
+        if (window.containsKey(key)) {
+            window.put(key, e);
+        } else if (probation.containsKey(key)) {
+            probation.put(key, e);
+        } else if (protectedSpace.containsKey(key)) {
+            protectedSpace.put(key, e);
+        } else {
+            window.put(key, e);
+            if (window.size() > windowSize) {
+                Map.Entry<K, Entry<V>> candidate = eldest(window);
+                window.remove(candidate.getKey());
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    /**
+     * Records time spent loading a value which was not present in the cache.
+     *
+     * @param time duration of the load
+     * @param unit time unit of the duration
+     */
+    public synchronized void recordLoad(long time, TimeUnit unit) {
+        loads++;
+        loadTime += unit.toNanos(time);
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public synchronized void invalidateAll() {
+        window.clear();
+        probation.clear();
+        protectedSpace.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSpace.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Obtains total time spent loading values.
+     *
+     * @param unit time unit
+     *
+     * @return total load time
+     */
+    public synchronized long getLoadTime(TimeUnit unit) {
+        return unit.convert(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.job;
+
+import com.dnastack.bob.dto.JobStatusTo;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk query job. State of the job is kept on a local disk (one directory per job) along with the input and the
+ * results, so that jobs survive restarts. Progress is checkpointed after every chunk of variants, an interrupted job
+ * resumes from its last checkpoint.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class Job {
+
+    private static final String STATE_FILE = "job.properties";
+    private static final String INPUT_FILE = "input";
+    private static final String RESULTS_FILE = "results.ndjson";
+
+    private final String id;
+    private final File dir;
+    private final List<String> beacons;
+    private final String reference;
+    private final long submitted;
+    private JobStatusTo status;
+    private long variants = 0;
+    private long responses = 0;
+    private long resultsLength = 0;
+    private long skipped = 0;
+    private String error;
+    private volatile Future<?> task;
+
+    private Job(String id, File dir, List<String> beacons, String reference, long submitted, JobStatusTo status) {
+        this.id = id;
+        this.dir = dir;
+        this.beacons = beacons;
+        this.reference = reference;
+        this.submitted = submitted;
+        this.status = status;
+    }
+
+    /**
+     * Creates a new queued job, the input is copied to the disk.
+     *
+     * @param root      directory of the jobs
+     * @param input     variants to query
+     * @param beaconIds collection of beacon IDs (optional)
+     * @param reference reference genome (optional)
+     *
+     * @return job
+     *
+     * @throws IOException if the job cannot be stored
+     */
+    public static Job create(File root, InputStream input, Collection<String> beaconIds, String reference) throws IOException {
+        String id = UUID.randomUUID().toString();
+        File dir = new File(root, id);
+        if (!dir.mkdirs()) {
+            throw new IOException("Could not create job directory " + dir);
+        }
+
+        Job job = new Job(id, dir, (beaconIds == null) ? null : new ArrayList<>(beaconIds), reference, System.currentTimeMillis(), JobStatusTo.QUEUED);
+        Files.copy(input, job.getInput().toPath());
+        job.save();
+
+        return job;
+    }
+
+    /**
+     * Loads a job stored on the disk.
+     *
+     * @param dir directory of the job
+     *
+     * @return job
+     *
+     * @throws IOException if the directory does not contain a valid job
+     */
+    public static Job load(File dir) throws IOException {
+        Properties p = new Properties();
+        try (InputStream is = new FileInputStream(new File(dir, STATE_FILE))) {
+            p.load(is);
+        }
+
+        JobStatusTo status = JobStatusTo.fromString(p.getProperty("status"));
+        if (status == null) {
+            throw new IOException("Invalid job in " + dir);
+        }
+        String bs = p.getProperty("beacons");
+        Job job = new Job(dir.getName(), dir, (bs == null) ? null : Splitter.on(',').omitEmptyStrings().splitToList(bs), p.getProperty("reference"), Long.parseLong(p.getProperty("submitted", "0")), status);
+        job.variants = Long.parseLong(p.getProperty("variants", "0"));
+        job.responses = Long.parseLong(p.getProperty("responses", "0"));
+        job.resultsLength = Long.parseLong(p.getProperty("resultsLength", "0"));
+        job.skipped = Long.parseLong(p.getProperty("skipped", "0"));
+        job.error = p.getProperty("error");
+
+        return job;
+    }
+
+    private synchronized void save() throws IOException {
+        Properties p = new Properties();
+        p.setProperty("status", status.toString());
+        if (beacons != null) {
+            p.setProperty("beacons", Joiner.on(',').join(beacons));
+        }
+        if (reference != null) {
+            p.setProperty("reference", reference);
+        }
+        p.setProperty("submitted", String.valueOf(submitted));
+        p.setProperty("variants", String.valueOf(variants));
+        p.setProperty("responses", String.valueOf(responses));
+        p.setProperty("resultsLength", String.valueOf(resultsLength));
+        p.setProperty("skipped", String.valueOf(skipped));
+        if (error != null) {
+            p.setProperty("error", error);
+        }
+
+        // replace the state atomically, so that it is never left half written
+        File tmp = new File(dir, STATE_FILE + ".tmp");
+        try (OutputStream os = new FileOutputStream(tmp)) {
+            p.store(os, null);
+        }
+        Files.move(tmp.toPath(), new File(dir, STATE_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void trySave() {
+        try {
+            save();
+        } catch (IOException ex) {
+            // ignore, the previous state is kept
+        }
+    }
+
+    /**
+     * Marks the job as running.
+     *
+     * @return true if the job should run, false if it has been finished (e.g. cancelled) in the meantime
+     *
+     * @throws IOException if the state cannot be stored
+     */
+    public synchronized boolean start() throws IOException {
+        if (status.isFinal()) {
+            return false;
+        }
+        status = JobStatusTo.RUNNING;
+        save();
+
+        // drop results written after the last checkpoint
+        try (RandomAccessFile f = new RandomAccessFile(getResults(), "rw")) {
+            f.setLength(resultsLength);
+        }
+
+        return true;
+    }
+
+    /**
+     * Records progress of the job once the results of a chunk of variants are written.
+     *
+     * @param chunkVariants  number of variants processed in the chunk
+     * @param chunkResponses number of responses obtained in the chunk
+     * @param skippedLines   total number of skipped input lines
+     *
+     * @throws IOException if the state cannot be stored
+     */
+    public synchronized void checkpoint(long chunkVariants, long chunkResponses, long skippedLines) throws IOException {
+        variants += chunkVariants;
+        responses += chunkResponses;
+        resultsLength = getResults().length();
+        skipped = skippedLines;
+        save();
+    }
+
+    /**
+     * Finishes the job, unless it has already been finished.
+     *
+     * @param finalStatus final status
+     * @param message     error message (optional)
+     *
+     * @return true if the job has been finished, false if it had already been finished
+     */
+    public synchronized boolean finish(JobStatusTo finalStatus, String message) {
+        if (status.isFinal()) {
+            return false;
+        }
+        status = finalStatus;
+        error = message;
+        trySave();
+
+        return true;
+    }
+
+    /**
+     * Requeues a job interrupted by a restart.
+     */
+    public synchronized void requeue() {
+        if (status == JobStatusTo.RUNNING) {
+            status = JobStatusTo.QUEUED;
+            trySave();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getBeacons() {
+        return beacons;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public synchronized JobStatusTo getStatus() {
+        return status;
+    }
+
+    public synchronized long getVariants() {
+        return variants;
+    }
+
+    public synchronized long getResponses() {
+        return responses;
+    }
+
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    public File getInput() {
+        return new File(dir, INPUT_FILE);
+    }
+
+    public File getResults() {
+        return new File(dir, RESULTS_FILE);
+    }
+
+    public Future<?> getTask() {
+        return task;
+    }
+
+    public void setTask(Future<?> task) {
+        this.task = task;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.job;
+
+import com.dnastack.bob.dto.VariantTo;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader of variants, only a single line of the input is held in memory at a time. Reads VCF files (one
+ * variant per alternate allele, indels are queried as D/I) and tab separated lists of chromosome, position, allele and
+ * (optionally) reference genome. Header and comment lines start with '#', gzipped input is detected automatically.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class VariantReader implements Closeable {
+
+    private static final int VCF_COLUMNS = 5;
+    private static final int LIST_COLUMNS = 3;
+
+    private final BufferedReader reader;
+    private final String ref;
+    private final Deque<VariantTo> pending = new ArrayDeque<>();
+    private long skipped = 0;
+
+    /**
+     * Creates a new reader.
+     *
+     * @param is  input
+     * @param ref reference genome of variants which do not specify their own (optional)
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public VariantReader(InputStream is, String ref) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(is);
+        in.mark(2);
+        boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+        in.reset();
+
+        this.reader = new BufferedReader(new InputStreamReader(gzip ? new GZIPInputStream(in) : in, StandardCharsets.UTF_8));
+        this.ref = ref;
+    }
+
+    private static String getVcfAllele(String refBases, String alt) {
+        if (!alt.matches("[ACGTNacgtn]+")) {
+            // missing, symbolic or breakend allele
+            return null;
+        }
+        if (alt.length() == refBases.length()) {
+            return alt;
+        }
+
+        return (alt.length() < refBases.length()) ? "D" : "I";
+    }
+
+    private void parse(String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+
+        String[] cols = line.trim().split("\\s+", VCF_COLUMNS + 1);
+        try {
+            if (cols.length >= VCF_COLUMNS) {
+                // CHROM POS ID REF ALT ...
+                long pos = Long.parseLong(cols[1]);
+                boolean found = false;
+                for (String alt : cols[4].split(",")) {
+                    String allele = getVcfAllele(cols[3], alt);
+                    if (allele != null) {
+                        pending.add(new VariantTo(cols[0], pos, allele, ref));
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    skipped++;
+                }
+            } else if (cols.length >= LIST_COLUMNS) {
+                pending.add(new VariantTo(cols[0], Long.parseLong(cols[1]), cols[2], (cols.length > LIST_COLUMNS) ? cols[3] : ref));
+            } else {
+                skipped++;
+            }
+        } catch (NumberFormatException ex) {
+            skipped++;
+        }
+    }
+
+    /**
+     * Reads the next variant.
+     *
+     * @return variant, null if there are no more variants
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public VariantTo next() throws IOException {
+        while (pending.isEmpty()) {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            parse(line);
+        }
+
+        return pending.poll();
+    }
+
+    /**
+     * Obtains the number of lines read so far which contained no variant to query.
+     *
+     * @return number of skipped lines
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.processor.BeaconQueryPipeline;
+import com.dnastack.bob.util.BeaconHealth;
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.QueryRejectedException;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.TimeUnit;
+import javax.ejb.LocalBean;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+
+import static com.dnastack.bob.util.Constants.HEALTH_INTERVAL;
+import static com.dnastack.bob.util.Constants.HEALTH_TIMEOUT;
+
+/**
+ * Periodically sends a canary query to every atomic beacon and records whether and how fast it responds in its
+ * {@link BeaconHealth}. Beacons considered down are left out of the queries of the clients until they respond to a
+ * canary query again. Canary queries rejected locally by the limits of a beacon host are not counted.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@Singleton
+@Startup
+@LocalBean
+@Lock(LockType.READ)
+public class BeaconHealthProber {
+
+    private static final String CANARY_CHROM = "13";
+    private static final long CANARY_POS = 32888798L;
+    private static final String CANARY_ALLELE = "G";
+
+    private volatile boolean probed;
+    private volatile long lastRound;
+
+    @Inject
+    private BeaconResponseServiceImpl beaconResponseService;
+
+    @Schedule(hour = "*", minute = "*", second = "*/10", persistent = false)
+    public void probeBeacons() {
+        if (HEALTH_INTERVAL <= 0 || (probed && System.nanoTime() - lastRound < TimeUnit.SECONDS.toNanos(HEALTH_INTERVAL))) {
+            return;
+        }
+
+        probed = true;
+        lastRound = System.nanoTime();
+        try {
+            probeAll();
+        } catch (RuntimeException ex) {
+            // ignore, try again in the next round
+        }
+    }
+
+    private static void probe(Beacon b, Query q) {
+        final BeaconHealth health = BeaconHealth.get(b.getId());
+        final long start = System.nanoTime();
+        Futures.addCallback(BeaconQueryPipeline.probe(b, q, Deadline.after(HEALTH_TIMEOUT, TimeUnit.SECONDS)), new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean r) {
+                if (r == null) {
+                    health.onFailure();
+                } else {
+                    health.onSuccess(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // a probe shed by the limits of the host says nothing about the beacon
+                if (!(t instanceof QueryRejectedException)) {
+                    health.onFailure();
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void probeAll() {
+        Query q = beaconResponseService.normalizeQuery(CANARY_CHROM, CANARY_POS, CANARY_ALLELE, null);
+        if (q == null) {
+            return;
+        }
+
+        for (Beacon b : beaconResponseService.getAtomicBeacons()) {
+            probe(b, q);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.BeaconResponse;
+import com.dnastack.bob.util.Entity2ToConvertor;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Handle of a query in progress. Responses of the individual beacons can be obtained as soon as they are available,
+ * a snapshot of the current state can be taken at any time.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class BeaconQueryExecution {
+
+    private final Map<Beacon, BeaconResponse> responses;
+    private final Map<Beacon, ListenableFuture<Boolean>> futures;
+    private final Collection<? extends ListenableFuture<?>> queries;
+    private final Set<Beacon> stale;
+    private final ListenableFuture<Collection<BeaconResponseTo>> completion;
+
+    /**
+     * Creates a new query execution.
+     *
+     * @param responses responses of the queried beacons with no response value set
+     * @param futures   future response values of the queried beacons
+     * @param queries   upstream queries to cancel when the execution is abandoned
+     * @param stale     beacons answered (at least partially) from stale cache entries
+     */
+    BeaconQueryExecution(Map<Beacon, BeaconResponse> responses, Map<Beacon, ListenableFuture<Boolean>> futures, Collection<? extends ListenableFuture<?>> queries, Set<Beacon> stale) {
+        this.responses = responses;
+        this.futures = futures;
+        this.queries = queries;
+        this.stale = stale;
+        this.completion = Futures.transform(Futures.successfulAsList(futures.values()), new Function<List<Boolean>, Collection<BeaconResponseTo>>() {
+
+            @Override
+            public Collection<BeaconResponseTo> apply(List<Boolean> input) {
+                return getSnapshot();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static Boolean getIfDone(ListenableFuture<Boolean> f) {
+        Boolean res = null;
+        if (f != null && f.isDone() && !f.isCancelled()) {
+            try {
+                res = f.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                // ignore, already null
+            }
+        }
+
+        return res;
+    }
+
+    Map<Beacon, ListenableFuture<Boolean>> getFutures() {
+        return Collections.unmodifiableMap(futures);
+    }
+
+    /**
+     * Obtains response of the given beacon as currently known.
+     *
+     * @param b beacon
+     *
+     * @return beacon response, with a null response value (and marked pending) if not resolved yet
+     */
+    BeaconResponseTo getResponse(Beacon b) {
+        BeaconResponse br = responses.get(b);
+        ListenableFuture<Boolean> f = futures.get(b);
+
+        BeaconResponse res = new BeaconResponse(br.getBeacon(), br.getQuery(), getIfDone(f));
+        res.setStale(res.getResponse() != null && stale.contains(b));
+        res.setPending(f != null && !f.isDone());
+
+        return Entity2ToConvertor.getBeaconResponseTo(res);
+    }
+
+    /**
+     * Obtains responses of all the beacons once they are resolved.
+     *
+     * @return future collection of beacon responses
+     */
+    public ListenableFuture<Collection<BeaconResponseTo>> getResponses() {
+        return completion;
+    }
+
+    /**
+     * Checks whether all the beacons have been resolved.
+     *
+     * @return true if resolved, false if some beacons are still being queried
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Obtains responses of all the beacons as currently known. Beacons which have not been resolved yet have null
+     * response values and are marked pending.
+     *
+     * @return collection of beacon responses
+     */
+    public Collection<BeaconResponseTo> getSnapshot() {
+        List<BeaconResponseTo> res = new ArrayList<>();
+        for (Beacon b : responses.keySet()) {
+            res.add(getResponse(b));
+        }
+
+        return res;
+    }
+
+    /**
+     * Cancels the upstream queries which have not completed yet.
+     */
+    public void cancel() {
+        for (ListenableFuture<?> f : queries) {
+            f.cancel(true);
+        }
+    }
+
+}
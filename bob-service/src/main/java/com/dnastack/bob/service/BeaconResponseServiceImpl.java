@@ -23,9 +23,11 @@
  */
 package com.dnastack.bob.service;
 
+import com.dnastack.bob.cache.BeaconResponseCache;
 import com.dnastack.bob.dao.BeaconDao;
 import com.dnastack.bob.dao.QueryDao;
 import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.dto.VariantTo;
 import com.dnastack.bob.entity.Beacon;
 import com.dnastack.bob.entity.BeaconResponse;
 import com.dnastack.bob.entity.Query;
@@ -35,22 +37,34 @@ import com.dnastack.bob.lrg.LrgConvertor;
 import com.dnastack.bob.lrg.LrgLocus;
 import com.dnastack.bob.lrg.LrgReference;
 import com.dnastack.bob.util.BeaconAggregationResolver;
-import com.dnastack.bob.util.Entity2ToConvertor;
+import com.dnastack.bob.util.BeaconHealth;
+import com.dnastack.bob.util.Constants;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.base.Function;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import javax.ejb.AsyncResult;
-import javax.ejb.Asynchronous;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.enterprise.context.Dependent;
@@ -58,8 +72,6 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.validation.Validator;
 
-import static com.dnastack.bob.util.Constants.REQUEST_TIMEOUT;
-
 /**
  * Implementation of a service for managing beacon responses.
  *
@@ -73,6 +85,39 @@ import static com.dnastack.bob.util.Constants.REQUEST_TIMEOUT;
 public class BeaconResponseServiceImpl implements BeaconResponseService, Serializable {
 
     private static final long serialVersionUID = 103L;
+    private static final Function<List<Boolean>, Boolean> ANY_TRUE = new Function<List<Boolean>, Boolean>() {
+
+        @Override
+        public Boolean apply(List<Boolean> rs) {
+            Boolean total = false;
+            for (Boolean r : rs) {
+                if (r != null && r) {
+                    total = true;
+                    break;
+                }
+            }
+
+            return total;
+        }
+    };
+    private static final Function<List<Boolean>, Boolean> AGGREGATE = new Function<List<Boolean>, Boolean>() {
+
+        @Override
+        public Boolean apply(List<Boolean> rs) {
+            // true if any of the responses is true, null if all of them are null
+            Boolean res = null;
+            for (Boolean r : rs) {
+                if (r != null) {
+                    res = r;
+                    if (r) {
+                        break;
+                    }
+                }
+            }
+
+            return res;
+        }
+    };
 
     @Inject
     private BeaconDao beaconDao;
@@ -80,6 +125,9 @@ public class BeaconResponseServiceImpl implements BeaconResponseService, Seriali
     @Inject
     private BeaconAggregationResolver aggregationResolver;
 
+    @Inject
+    private BeaconResponseCache responseCache;
+
     @Inject
     private QueryDao queryDao;
 
@@ -98,40 +146,86 @@ public class BeaconResponseServiceImpl implements BeaconResponseService, Seriali
         return (!(ref == null || ref.isEmpty()) && q.getReference() == null) || !validator.validate(q).isEmpty();
     }
 
-    @Asynchronous
-    private Future<Boolean> queryBeacon(Beacon b, Query q) {
-        Boolean total = null;
+    private static ListenableFuture<Boolean> reduce(List<ListenableFuture<Boolean>> fs, Function<List<Boolean>, Boolean> f, boolean firstPositive) {
+        ListenableFuture<Boolean> all = Futures.transform(Futures.successfulAsList(fs), f, MoreExecutors.directExecutor());
+        if (!firstPositive) {
+            return all;
+        }
 
-        if (b.isAggregator()) {
-            total = false;
+        // complete on the first positive response, fall back to the reduction of all the responses otherwise
+        final SettableFuture<Boolean> res = SettableFuture.create();
+        FutureCallback<Boolean> callback = new FutureCallback<Boolean>() {
 
-            // execute queries in parallel
-            Map<Beacon, Future<Boolean>> futures = new HashMap<>();
-            for (Beacon bt : aggregationResolver.getAtomicAggregatees(b)) {
-                futures.put(bt, bt.getProcessor().executeQuery(bt, q));
+            @Override
+            public void onSuccess(Boolean r) {
+                if (r != null && r) {
+                    res.set(true);
+                }
             }
 
-            // collect results
-            for (Entry<Beacon, Future<Boolean>> e : futures.entrySet()) {
-                Boolean res = null;
-                try {
-                    res = e.getValue().get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
-                } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                    // ignore, response already null
-                }
-                if (res != null && res) {
-                    total = true;
+            @Override
+            public void onFailure(Throwable t) {
+                // ignore, decided by the reduction
+            }
+        };
+        for (ListenableFuture<Boolean> r : fs) {
+            Futures.addCallback(r, callback, MoreExecutors.directExecutor());
+        }
+        Futures.addCallback(all, new FutureCallback<Boolean>() {
+
+            @Override
+            public void onSuccess(Boolean r) {
+                res.set(r);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                res.set(null);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return res;
+    }
+
+    private static void cancelOnCompletion(final ListenableFuture<?> f, final Collection<? extends ListenableFuture<?>> fs) {
+        f.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                for (ListenableFuture<?> r : fs) {
+                    r.cancel(true);
                 }
             }
-        } else {
-            try {
-                total = b.getProcessor().executeQuery(b, q).get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                // ignore
+        }, MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Boolean> execute(Beacon b, Query q, Deadline deadline, Collection<? super Beacon> stale) {
+        if (BeaconHealth.isDown(b.getId())) {
+            // do not wait for a beacon which does not respond to canary queries, serve whatever is cached instead
+            return Futures.immediateFuture(responseCache.getIfPresent(b, q, stale));
+        }
+
+        return responseCache.execute(b, q, deadline, stale);
+    }
+
+    private ListenableFuture<Boolean> queryBeacon(Beacon b, Query q, Deadline deadline, boolean firstPositive, Set<Beacon> stale) {
+        if (b.isAggregator()) {
+            // execute queries in parallel, aggregate once all of them complete (or the first one is positive)
+            List<ListenableFuture<Boolean>> futures = new ArrayList<>();
+            for (Beacon bt : aggregationResolver.getAtomicAggregatees(b)) {
+                futures.add(execute(bt, q, deadline, stale));
+            }
+
+            ListenableFuture<Boolean> res = reduce(futures, ANY_TRUE, firstPositive);
+            if (firstPositive) {
+                // the remaining children are not needed once the aggregate is resolved
+                cancelOnCompletion(res, futures);
             }
+
+            return res;
         }
 
-        return new AsyncResult<>(total);
+        return execute(b, q, deadline, stale);
     }
 
     private Map<Beacon, BeaconResponse> setUpBeaconResponseMapForBeacons(Collection<Beacon> bs, Query q) {
@@ -147,9 +241,9 @@ public class BeaconResponseServiceImpl implements BeaconResponseService, Seriali
         return brs;
     }
 
-    private Map<Beacon, BeaconResponse> setUpBeaconResponseMapForIds(Collection<String> beaconIds, Query q) {
+    private Collection<Beacon> getVisibleBeacons(Collection<String> beaconIds) {
         if (beaconIds == null) {
-            return setUpBeaconResponseMapForBeacons(beaconDao.getVisibleBeacons(), q);
+            return beaconDao.getVisibleBeacons();
         }
 
         Set<Beacon> bs = new HashSet<>();
@@ -160,30 +254,7 @@ public class BeaconResponseServiceImpl implements BeaconResponseService, Seriali
             }
         }
 
-        return setUpBeaconResponseMapForBeacons(bs, q);
-    }
-
-    private Map<Beacon, BeaconResponse> fillBeaconResponseMap(Map<Beacon, BeaconResponse> brs, Query q) {
-        // execute queries in parallel
-        Map<Beacon, Future<Boolean>> futures = new HashMap<>();
-        for (Beacon b : brs.keySet()) {
-            futures.put(b, queryBeacon(b, q));
-        }
-
-        // collect results
-        for (Entry<Beacon, Future<Boolean>> e : futures.entrySet()) {
-            Boolean b = null;
-            try {
-                b = e.getValue().get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                // ignore, response already null
-            }
-            if (b != null) {
-                brs.get(e.getKey()).setResponse(b);
-            }
-        }
-
-        return brs;
+        return bs;
     }
 
     private Query getQuery(String chrom, Long pos, String allele, String ref) {
@@ -222,93 +293,458 @@ public class BeaconResponseServiceImpl implements BeaconResponseService, Seriali
         return children;
     }
 
-    private Map<Beacon, BeaconResponse> fillAggregateResponses(Map<Beacon, BeaconResponse> parentResponses, Map<Beacon, BeaconResponse> childrenResponses, Multimap<Beacon, Beacon> children, Query q) {
-        Map<Beacon, BeaconResponse> res = new HashMap<>(parentResponses);
-
-        for (Entry<Beacon, BeaconResponse> e : res.entrySet()) {
-            BeaconResponse response = e.getValue();
-            if (response == null) {
-                response = new BeaconResponse(e.getKey(), q, null);
-            }
-
-            Collection<Beacon> cs = children.get(e.getKey());
-            boolean notAllResponsesNull = false;
-            for (Beacon c : cs) {
-                BeaconResponse cr = childrenResponses.get(c);
-                if (cr != null && cr.getResponse() != null) {
-                    notAllResponsesNull = true;
-                    if (cr.getResponse()) {
-                        response.setResponse(true);
-                        break;
+    private static void cancelUnneededChildren(Multimap<Beacon, Beacon> children, final Map<Beacon, ListenableFuture<Boolean>> futures, final Map<Beacon, ListenableFuture<Boolean>> childrenResponses) {
+        final Multimap<Beacon, Beacon> parents = Multimaps.invertFrom(children, HashMultimap.<Beacon, Beacon>create());
+        for (final Entry<Beacon, Collection<Beacon>> e : children.asMap().entrySet()) {
+            futures.get(e.getKey()).addListener(new Runnable() {
+
+                @Override
+                public void run() {
+                    // a child is still needed while any beacon covering it (including itself) is unresolved
+                    for (Beacon c : e.getValue()) {
+                        boolean needed = false;
+                        for (Beacon p : parents.get(c)) {
+                            needed |= !futures.get(p).isDone();
+                        }
+                        if (!needed) {
+                            childrenResponses.get(c).cancel(true);
+                        }
                     }
                 }
-            }
-            if (notAllResponsesNull && response.getResponse() == null) {
-                response.setResponse(false);
-            }
+            }, MoreExecutors.directExecutor());
+        }
+    }
+
+    private BeaconQueryExecution startQueryBeacon(String beaconId, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive) {
+        Query q = getQuery(chrom, pos, allele, ref);
 
-            e.setValue(response);
+        Beacon b = beaconDao.getVisibleBeacon(beaconId);
+        if (b == null) {
+            // nonexisting beaconId param specified
+            b = new Beacon(null, "invalid beacon");
         }
 
-        return res;
+        Map<Beacon, BeaconResponse> brs = new HashMap<>();
+        brs.put(b, new BeaconResponse(b, q, null));
+        Map<Beacon, ListenableFuture<Boolean>> futures = new HashMap<>();
+        Set<Beacon> stale = new HashSet<>();
+        if (b.getId() == null || checkIfQuerySuccessfullyNormalizedAndValid(q, ref)) {
+            futures.put(b, Futures.<Boolean>immediateFuture(null));
+        } else {
+            futures.put(b, queryBeacon(b, q, deadline, firstPositive, stale));
+        }
+
+        return new BeaconQueryExecution(brs, futures, futures.values(), stale.isEmpty() ? Collections.<Beacon>emptySet() : Collections.singleton(b));
     }
 
-    private Collection<BeaconResponse> queryMultipleBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref) {
-        Query q = getQuery(chrom, pos, allele, ref);
+    private static BeaconQueryExecution unresolvedExecution(Map<Beacon, BeaconResponse> brs) {
+        Map<Beacon, ListenableFuture<Boolean>> futures = new HashMap<>();
+        for (Beacon b : brs.keySet()) {
+            futures.put(b, Futures.<Boolean>immediateFuture(null));
+        }
 
+        return new BeaconQueryExecution(brs, futures, futures.values(), Collections.<Beacon>emptySet());
+    }
+
+    private BeaconQueryExecution startQuery(Collection<Beacon> beacons, Multimap<Beacon, Beacon> children, Query q, String ref, Deadline deadline, boolean firstPositive) {
         // init to create a response for each beacon even if the query is invalid
-        Map<Beacon, BeaconResponse> brs = setUpBeaconResponseMapForIds(beaconIds, q);
+        Map<Beacon, BeaconResponse> brs = setUpBeaconResponseMapForBeacons(beacons, q);
+        Map<Beacon, ListenableFuture<Boolean>> futures = new HashMap<>();
 
         // validate query
         if (checkIfQuerySuccessfullyNormalizedAndValid(q, ref)) {
-            return brs.values();
+            return unresolvedExecution(brs);
         }
 
-        // construct map of atomic nodes covered by aggregates
-        Multimap<Beacon, Beacon> children = setUpChildrenMultimap(brs.keySet());
-        // obtain children's responses
-        Map<Beacon, BeaconResponse> childrenResponses = fillBeaconResponseMap(setUpBeaconResponseMapForBeacons(new HashSet<>(children.values()), q), q);
+        // query every atomic node only once, even if it is covered by multiple aggregates
+        Map<Beacon, ListenableFuture<Boolean>> childrenResponses = new HashMap<>();
+        Set<Beacon> staleChildren = new HashSet<>();
+        for (Beacon c : new HashSet<>(children.values())) {
+            childrenResponses.put(c, execute(c, q, deadline, staleChildren));
+        }
+
+        // a beacon is stale if any of its children was answered from a stale cache entry
+        Set<Beacon> stale = new HashSet<>();
+        for (Entry<Beacon, Beacon> e : children.entries()) {
+            if (staleChildren.contains(e.getValue())) {
+                stale.add(e.getKey());
+            }
+        }
+
+        // a beacon is resolved as soon as all of its children respond (or the first one is positive)
+        for (Beacon b : brs.keySet()) {
+            List<ListenableFuture<Boolean>> fs = new ArrayList<>();
+            for (Beacon c : children.get(b)) {
+                fs.add(childrenResponses.get(c));
+            }
+            futures.put(b, reduce(fs, AGGREGATE, firstPositive));
+        }
+
+        if (firstPositive) {
+            cancelUnneededChildren(children, futures, childrenResponses);
+        }
 
-        // aggregate
-        return fillAggregateResponses(brs, childrenResponses, children, q).values();
+        return new BeaconQueryExecution(brs, futures, childrenResponses.values(), stale);
     }
 
-    @Override
-    public BeaconResponseTo queryBeacon(String beaconId, String chrom, Long pos, String allele, String ref) {
-        Query q = getQuery(chrom, pos, allele, ref);
+    private BeaconQueryExecution startQueryMultipleBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive) {
+        Collection<Beacon> beacons = getVisibleBeacons(beaconIds);
 
-        Beacon b = beaconDao.getVisibleBeacon(beaconId);
-        if (b == null) {
-            // nonexisting beaconId param specified
-            return Entity2ToConvertor.getBeaconResponseTo(new BeaconResponse(new Beacon(null, "invalid beacon"), q, null));
+        // construct map of atomic nodes covered by aggregates
+        return startQuery(beacons, setUpChildrenMultimap(beacons), getQuery(chrom, pos, allele, ref), ref, deadline, firstPositive);
+    }
+
+    private static Collection<BeaconResponseTo> awaitResponses(BeaconQueryExecution e, Deadline deadline) {
+        Collection<BeaconResponseTo> res;
+        try {
+            res = e.getResponses().get(deadline.getRemaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException ex) {
+            // abandon queries which did not complete in time, take whatever has completed
+            e.cancel();
+            res = e.getSnapshot();
         }
 
-        BeaconResponse br = new BeaconResponse(b, q, null);
-        if (checkIfQuerySuccessfullyNormalizedAndValid(q, ref)) {
-            return Entity2ToConvertor.getBeaconResponseTo(br);
+        return res;
+    }
+
+    private void queryMultipleBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive, BeaconResponseListener listener) {
+        BeaconQueryExecution e = startQueryMultipleBeacons(beaconIds, chrom, pos, allele, ref, deadline, firstPositive);
+
+        final BlockingQueue<Beacon> resolved = new LinkedBlockingQueue<>();
+        Set<Beacon> pending = new HashSet<>();
+        for (Entry<Beacon, ListenableFuture<Boolean>> f : e.getFutures().entrySet()) {
+            final Beacon b = f.getKey();
+            pending.add(b);
+            f.getValue().addListener(new Runnable() {
+
+                @Override
+                public void run() {
+                    resolved.add(b);
+                }
+            }, MoreExecutors.directExecutor());
         }
 
+        // pass the responses to the listener in the order they are resolved until the deadline
         try {
-            br.setResponse(queryBeacon(b, q).get(REQUEST_TIMEOUT, TimeUnit.SECONDS));
-        } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-            // ignore, response already null
+            while (!pending.isEmpty()) {
+                Beacon b = resolved.poll(deadline.getRemaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+                if (b == null) {
+                    break;
+                }
+                pending.remove(b);
+                listener.onResponse(e.getResponse(b));
+            }
+        } catch (InterruptedException ex) {
+            // ignore, report the remaining beacons as unresolved
+        }
+
+        // abandon queries which did not complete in time
+        e.cancel();
+        for (Beacon b : pending) {
+            listener.onResponse(e.getResponse(b));
         }
+    }
+
+    /**
+     * Normalizes a query the same way queries of the beacons are normalized.
+     *
+     * @param chrom  chromosome
+     * @param pos    position
+     * @param allele allele
+     * @param ref    reference genome (optional)
+     *
+     * @return normalized query, null if the query is not valid
+     */
+    public Query normalizeQuery(String chrom, Long pos, String allele, String ref) {
+        if (chrom == null || pos == null || allele == null) {
+            return null;
+        }
+
+        Query q = getQuery(chrom, pos, allele, ref);
+
+        return checkIfQuerySuccessfullyNormalizedAndValid(q, ref) ? null : q;
+    }
+
+    /**
+     * Obtains the atomic beacons, i.e. all the visible ones and those they aggregate.
+     *
+     * @return atomic beacons
+     */
+    public Collection<Beacon> getAtomicBeacons() {
+        return new HashSet<>(setUpChildrenMultimap(beaconDao.getVisibleBeacons()).values());
+    }
+
+    /**
+     * Queries the atomic beacons (all the visible ones and those they aggregate) whose responses to the given query are
+     * not cached or are stale. Beacons considered down are skipped. Responses are not waited for, they are stored in the response cache.
+     *
+     * @param q        normalized query
+     * @param deadline deadline of the queries
+     * @param max      max number of beacons to query
+     *
+     * @return number of beacons queried
+     */
+    public int prefetch(Query q, Deadline deadline, int max) {
+        int res = 0;
+        for (Beacon b : getAtomicBeacons()) {
+            if (res >= max) {
+                break;
+            }
+            if (!BeaconHealth.isDown(b.getId()) && responseCache.prefetch(b, q, deadline)) {
+                res++;
+            }
+        }
+
+        return res;
+    }
+
+    @Override
+    public BeaconResponseTo queryBeacon(String beaconId, String chrom, Long pos, String allele, String ref) {
+        return queryBeacon(beaconId, chrom, pos, allele, ref, Deadline.getDefault());
+    }
 
-        return Entity2ToConvertor.getBeaconResponseTo(br);
+    /**
+     * Query a given beacon within the given deadline.
+     *
+     * @param beaconId beacon to query
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param deadline deadline of the query
+     *
+     * @return list of beacon responses
+     */
+    public BeaconResponseTo queryBeacon(String beaconId, String chrom, Long pos, String allele, String ref, Deadline deadline) {
+        return awaitResponses(startQueryBeacon(beaconId, chrom, pos, allele, ref, deadline, false), deadline).iterator().next();
+    }
+
+    /**
+     * Starts a query of a given beacon without waiting for the response.
+     *
+     * @param beaconId beacon to query
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param deadline      deadline of the query
+     * @param firstPositive resolve an aggregate beacon as soon as any of its beacons responds positively
+     *
+     * @return query in progress
+     */
+    public BeaconQueryExecution queryBeaconAsync(String beaconId, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive) {
+        return startQueryBeacon(beaconId, chrom, pos, allele, ref, deadline, firstPositive);
+    }
+
+    /**
+     * Starts a query of specified beacons without waiting for the responses.
+     *
+     * @param beaconIds collection of beacon IDs
+     * @param chrom     chromosome
+     * @param pos       position
+     * @param allele    allele
+     * @param ref       reference genome (optional)
+     * @param deadline      deadline of the query
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively
+     *
+     * @return query in progress
+     */
+    public BeaconQueryExecution queryBeaconsAsync(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive) {
+        return startQueryMultipleBeacons((beaconIds == null) ? new HashSet<String>() : beaconIds, chrom, pos, allele, ref, deadline, firstPositive);
+    }
+
+    /**
+     * Starts a query of all the beacons without waiting for the responses.
+     *
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param deadline      deadline of the query
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively
+     *
+     * @return query in progress
+     */
+    public BeaconQueryExecution queryAllAsync(String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive) {
+        return startQueryMultipleBeacons(null, chrom, pos, allele, ref, deadline, firstPositive);
     }
 
     @Override
     public Collection<BeaconResponseTo> queryBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref) {
+        return queryBeacons(beaconIds, chrom, pos, allele, ref, Deadline.getDefault());
+    }
+
+    /**
+     * Query specified beacons within the given deadline.
+     *
+     * @param beaconIds collection of beacon IDs
+     * @param chrom     chromosome
+     * @param pos       position
+     * @param allele    allele
+     * @param ref       reference genome (optional)
+     * @param deadline  deadline of the query
+     *
+     * @return collection of beacon responses
+     */
+    public Collection<BeaconResponseTo> queryBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, Deadline deadline) {
         if (beaconIds == null) {
             return new HashSet<>();
         }
 
-        return Entity2ToConvertor.getBeaconResponseTos(queryMultipleBeacons(beaconIds, chrom, pos, allele, ref));
+        return awaitResponses(startQueryMultipleBeacons(beaconIds, chrom, pos, allele, ref, deadline, false), deadline);
     }
 
     @Override
     public Collection<BeaconResponseTo> queryAll(String chrom, Long pos, String allele, String ref) {
-        return Entity2ToConvertor.getBeaconResponseTos(queryMultipleBeacons(null, chrom, pos, allele, ref));
+        return queryAll(chrom, pos, allele, ref, Deadline.getDefault());
+    }
+
+    /**
+     * Query all the beacons within the given deadline.
+     *
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param deadline deadline of the query
+     *
+     * @return collection of beacon responses
+     */
+    public Collection<BeaconResponseTo> queryAll(String chrom, Long pos, String allele, String ref, Deadline deadline) {
+        return awaitResponses(startQueryMultipleBeacons(null, chrom, pos, allele, ref, deadline, false), deadline);
+    }
+
+    @Override
+    public void queryBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, BeaconResponseListener listener) {
+        queryBeacons(beaconIds, chrom, pos, allele, ref, Deadline.getDefault(), false, listener);
+    }
+
+    /**
+     * Query specified beacons within the given deadline, each response is passed to the listener as soon as it is
+     * available. Beacons which do not respond in time are passed to the listener with a null response once the
+     * deadline expires.
+     *
+     * @param beaconIds collection of beacon IDs
+     * @param chrom     chromosome
+     * @param pos       position
+     * @param allele    allele
+     * @param ref       reference genome (optional)
+     * @param deadline      deadline of the query
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively
+     * @param listener      listener receiving the responses
+     */
+    public void queryBeacons(Collection<String> beaconIds, String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive, BeaconResponseListener listener) {
+        if (beaconIds != null) {
+            queryMultipleBeacons(beaconIds, chrom, pos, allele, ref, deadline, firstPositive, listener);
+        }
+    }
+
+    @Override
+    public void queryAll(String chrom, Long pos, String allele, String ref, BeaconResponseListener listener) {
+        queryAll(chrom, pos, allele, ref, Deadline.getDefault(), false, listener);
+    }
+
+    /**
+     * Query all the beacons within the given deadline, each response is passed to the listener as soon as it is
+     * available. Beacons which do not respond in time are passed to the listener with a null response once the
+     * deadline expires.
+     *
+     * @param chrom    chromosome
+     * @param pos      position
+     * @param allele   allele
+     * @param ref      reference genome (optional)
+     * @param deadline      deadline of the query
+     * @param firstPositive resolve aggregate beacons as soon as any of their beacons responds positively
+     * @param listener      listener receiving the responses
+     */
+    public void queryAll(String chrom, Long pos, String allele, String ref, Deadline deadline, boolean firstPositive, BeaconResponseListener listener) {
+        queryMultipleBeacons(null, chrom, pos, allele, ref, deadline, firstPositive, listener);
+    }
+
+    /**
+     * Query specified beacons (all the beacons if not specified) with multiple variants. Beacons and aggregations are
+     * resolved only once for the whole batch. Up to a fixed number of variants is queried at a time and a new variant
+     * is started as soon as one is resolved, so upstream requests of consecutive variants are pipelined within the
+     * concurrency and rate limits of the beacon hosts. Every variant gets the given timeout from the moment it is
+     * started, so variants waiting for a free slot do not lose their time. Responses of a variant are passed to the
+     * listener once all the beacons respond or its timeout expires, variants which could not be started before the
+     * deadline of the whole batch are passed to the listener with null responses.
+     *
+     * @param beaconIds collection of beacon IDs (optional)
+     * @param variants  variants to query
+     * @param timeout   timeout of a single variant in milliseconds
+     * @param deadline  deadline of the whole batch
+     * @param listener  listener receiving the responses
+     */
+    public void queryBatch(Collection<String> beaconIds, List<VariantTo> variants, long timeout, Deadline deadline, BeaconResponseListener listener) {
+        Collection<Beacon> beacons = getVisibleBeacons(beaconIds);
+        Multimap<Beacon, Beacon> children = setUpChildrenMultimap(beacons);
+
+        final BlockingQueue<BeaconQueryExecution> resolved = new LinkedBlockingQueue<>();
+        Map<BeaconQueryExecution, Deadline> running = new HashMap<>();
+        Iterator<VariantTo> it = variants.iterator();
+        try {
+            while ((it.hasNext() && !deadline.isExpired()) || !running.isEmpty()) {
+                // keep the window full
+                while (it.hasNext() && running.size() < Constants.BATCH_WINDOW && !deadline.isExpired()) {
+                    VariantTo v = it.next();
+                    Deadline d = deadline.cap(timeout, TimeUnit.MILLISECONDS);
+                    final BeaconQueryExecution e = startQuery(beacons, children, getQuery(v.getChrom(), v.getPos(), v.getAllele(), v.getRef()), v.getRef(), d, false);
+                    running.put(e, d);
+                    e.getResponses().addListener(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            resolved.add(e);
+                        }
+                    }, MoreExecutors.directExecutor());
+                }
+
+                // wait at most until the first variant in progress times out
+                Deadline first = null;
+                for (Deadline d : running.values()) {
+                    if (first == null || d.isBefore(first)) {
+                        first = d;
+                    }
+                }
+                BeaconQueryExecution e = (first == null) ? null : resolved.poll(first.getRemaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+                // variants abandoned below complete on cancellation too, they have already been reported
+                if (e != null && running.remove(e) != null) {
+                    for (BeaconResponseTo r : e.getSnapshot()) {
+                        listener.onResponse(r);
+                    }
+                }
+
+                // abandon variants which did not complete in time
+                for (Iterator<Entry<BeaconQueryExecution, Deadline>> i = running.entrySet().iterator(); i.hasNext();) {
+                    Entry<BeaconQueryExecution, Deadline> r = i.next();
+                    if (r.getValue().isExpired()) {
+                        i.remove();
+                        r.getKey().cancel();
+                        for (BeaconResponseTo br : r.getKey().getSnapshot()) {
+                            listener.onResponse(br);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            // report the remaining variants as unresolved, keep the interrupt for the caller
+            Thread.currentThread().interrupt();
+        }
+
+        // abandon queries which did not complete in time
+        for (BeaconQueryExecution e : running.keySet()) {
+            e.cancel();
+            for (BeaconResponseTo r : e.getSnapshot()) {
+                listener.onResponse(r);
+            }
+        }
+        while (it.hasNext()) {
+            VariantTo v = it.next();
+            for (BeaconResponseTo r : unresolvedExecution(setUpBeaconResponseMapForBeacons(beacons, getQuery(v.getChrom(), v.getPos(), v.getAllele(), v.getRef()))).getSnapshot()) {
+                listener.onResponse(r);
+            }
+        }
     }
 
 }
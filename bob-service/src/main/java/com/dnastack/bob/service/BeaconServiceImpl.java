@@ -25,10 +25,15 @@ package com.dnastack.bob.service;
 
 import com.dnastack.bob.dao.BeaconDao;
 import com.dnastack.bob.dto.BeaconTo;
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.util.BeaconAggregationResolver;
+import com.dnastack.bob.util.BeaconHealth;
 import com.dnastack.bob.util.Entity2ToConvertor;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 
@@ -44,9 +49,48 @@ public class BeaconServiceImpl implements BeaconService {
     @Inject
     private BeaconDao beaconDao;
 
+    @Inject
+    private BeaconAggregationResolver aggregationResolver;
+
+    private BeaconTo getBeaconTo(Beacon b) {
+        BeaconTo res = Entity2ToConvertor.getBeaconTo(b);
+        if (res == null) {
+            return null;
+        }
+
+        // an aggregator is as healthy as the beacons it aggregates
+        Collection<Beacon> bs = b.isAggregator() ? aggregationResolver.getAtomicAggregatees(b) : Collections.singleton(b);
+        int up = 0;
+        int down = 0;
+        long latency = -1;
+        for (Beacon c : bs) {
+            BeaconHealth h = BeaconHealth.getAll().get(c.getId());
+            if (h == null) {
+                continue;
+            }
+            if (h.getStatus() == BeaconHealth.Status.UP) {
+                up++;
+                latency = Math.max(latency, h.getLatency(TimeUnit.MILLISECONDS));
+            } else if (h.getStatus() == BeaconHealth.Status.DOWN) {
+                down++;
+            }
+        }
+
+        BeaconHealth.Status status = BeaconHealth.Status.UNKNOWN;
+        if (up > 0) {
+            status = BeaconHealth.Status.UP;
+        } else if (down > 0 && down == bs.size()) {
+            status = BeaconHealth.Status.DOWN;
+        }
+        res.setHealth(status.name());
+        res.setLatency((latency < 0) ? null : latency);
+
+        return res;
+    }
+
     @Override
     public BeaconTo getBeacon(String beaconId) {
-        return Entity2ToConvertor.getBeaconTo(beaconDao.getVisibleBeacon(beaconId));
+        return getBeaconTo(beaconDao.getVisibleBeacon(beaconId));
     }
 
     @Override
@@ -64,7 +108,12 @@ public class BeaconServiceImpl implements BeaconService {
 
     @Override
     public Collection<BeaconTo> getAll() {
-        return Entity2ToConvertor.getBeaconTos(beaconDao.getVisibleBeacons());
+        List<BeaconTo> res = new ArrayList<>();
+        for (Beacon b : beaconDao.getVisibleBeacons()) {
+            res.add(getBeaconTo(b));
+        }
+
+        return res;
     }
 
 }
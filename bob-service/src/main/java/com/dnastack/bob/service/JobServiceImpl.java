@@ -0,0 +1,323 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.dto.BeaconResponseTo;
+import com.dnastack.bob.dto.JobStatusTo;
+import com.dnastack.bob.dto.JobTo;
+import com.dnastack.bob.dto.VariantTo;
+import com.dnastack.bob.job.Job;
+import com.dnastack.bob.job.VariantReader;
+import com.dnastack.bob.util.Constants;
+import com.dnastack.bob.util.Deadline;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.LocalBean;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.inject.Inject;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+
+/**
+ * Implementation of a service managing bulk query jobs. Jobs are processed in the background by a fixed number of
+ * workers running on container managed threads, variants are read from the stored input in a streaming fashion and
+ * queried in chunks, results are appended to the job directory as newline delimited JSON. Jobs interrupted by a
+ * restart are resumed on startup.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@Singleton
+@Startup
+@LocalBean
+@Lock(LockType.READ)
+public class JobServiceImpl implements JobService {
+
+    private static final String CLIENT_PREFIX = "job:";
+    private static final JAXBContext CONTEXT = createContext();
+
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private ExecutorService workers;
+
+    @Resource(lookup = "java:comp/DefaultManagedThreadFactory")
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private BeaconResponseServiceImpl beaconResponseService;
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(BeaconResponseTo.class);
+        } catch (JAXBException ex) {
+            throw new IllegalStateException("Could not create JAXB context.", ex);
+        }
+    }
+
+    private static JobTo getJobTo(Job j) {
+        return (j == null) ? null : new JobTo(j.getId(), j.getStatus(), j.getBeacons(), j.getReference(), j.getSubmitted(), j.getVariants(), j.getResponses(), j.getSkipped(), j.getError());
+    }
+
+    @PostConstruct
+    private void init() {
+        workers = Executors.newFixedThreadPool(Constants.JOB_WORKERS, threadFactory);
+
+        // resume jobs which did not finish before the last shutdown
+        File[] dirs = new File(Constants.JOB_DIR).listFiles();
+        if (dirs != null) {
+            for (File dir : dirs) {
+                try {
+                    Job job = Job.load(dir);
+                    jobs.put(job.getId(), job);
+                    if (!job.getStatus().isFinal()) {
+                        job.requeue();
+                        schedule(job);
+                    }
+                } catch (IOException | NumberFormatException ex) {
+                    // ignore, not a job
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        // running jobs keep their last checkpoint and are resumed on the next startup
+        workers.shutdownNow();
+    }
+
+    private void schedule(final Job job) {
+        job.setTask(workers.submit(new Runnable() {
+
+            @Override
+            public void run() {
+                process(job);
+            }
+        }));
+    }
+
+    private static List<VariantTo> readChunk(VariantReader reader) throws IOException {
+        List<VariantTo> chunk = new ArrayList<>();
+        VariantTo v;
+        while (chunk.size() < Constants.JOB_CHUNK_SIZE && (v = reader.next()) != null) {
+            chunk.add(v);
+        }
+
+        return chunk;
+    }
+
+    private void process(Job job) {
+        try {
+            if (!job.start()) {
+                return;
+            }
+
+            try (VariantReader reader = new VariantReader(new FileInputStream(job.getInput()), job.getReference());
+                    Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(job.getResults(), true), StandardCharsets.UTF_8))) {
+                // skip variants processed before the job was interrupted
+                for (long i = 0; i < job.getVariants() && reader.next() != null; i++) {
+                    // nothing to do
+                }
+
+                List<VariantTo> chunk = readChunk(reader);
+                while (!chunk.isEmpty()) {
+                    ResultWriter writer = new ResultWriter(out);
+                    Deadline deadline = Deadline.after(Constants.JOB_CHUNK_TIMEOUT, TimeUnit.SECONDS).forClient(CLIENT_PREFIX + job.getId());
+                    beaconResponseService.queryBatch(job.getBeacons(), chunk, TimeUnit.SECONDS.toMillis(Constants.REQUEST_TIMEOUT), deadline, writer);
+                    if (job.getStatus().isFinal() || workers.isShutdown()) {
+                        // cancelled or shutting down, results of the chunk are dropped on resumption
+                        return;
+                    }
+
+                    out.flush();
+                    job.checkpoint(chunk.size(), writer.getCount(), reader.getSkipped());
+                    chunk = readChunk(reader);
+                }
+            }
+
+            job.finish(JobStatusTo.COMPLETED, null);
+        } catch (IOException | RuntimeException ex) {
+            if (!workers.isShutdown()) {
+                job.finish(JobStatusTo.FAILED, ex.getMessage());
+            }
+        }
+    }
+
+    private static long readResults(Job job, long offset, long limit, BeaconResponseListener listener) {
+        // only results up to the last checkpoint are complete
+        long end = Math.min(job.getResponses(), offset + limit);
+        long read = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(job.getResults()), StandardCharsets.UTF_8))) {
+            Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
+            unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+
+            String line;
+            for (long i = 0; i < end && (line = reader.readLine()) != null; i++) {
+                if (i >= offset) {
+                    listener.onResponse(unmarshaller.unmarshal(new StreamSource(new StringReader(line)), BeaconResponseTo.class).getValue());
+                    read++;
+                }
+            }
+        } catch (IOException | JAXBException ex) {
+            // ignore, return what has been read
+        }
+
+        return read;
+    }
+
+    @Override
+    public JobTo submit(InputStream input, Collection<String> beaconIds, String ref) throws IOException {
+        Job job = Job.create(new File(Constants.JOB_DIR), input, beaconIds, ref);
+        jobs.put(job.getId(), job);
+        schedule(job);
+
+        return getJobTo(job);
+    }
+
+    @Override
+    public JobTo getJob(String jobId) {
+        return getJobTo(jobs.get(jobId));
+    }
+
+    @Override
+    public Collection<JobTo> getAll() {
+        List<JobTo> res = new ArrayList<>();
+        for (Job j : jobs.values()) {
+            res.add(getJobTo(j));
+        }
+
+        return res;
+    }
+
+    @Override
+    public JobTo cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null && job.finish(JobStatusTo.CANCELLED, null) && job.getTask() != null) {
+            job.getTask().cancel(true);
+        }
+
+        return getJobTo(job);
+    }
+
+    @Override
+    public List<BeaconResponseTo> getResults(String jobId, long offset, int limit) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        final List<BeaconResponseTo> res = new ArrayList<>();
+        readResults(job, offset, limit, new BeaconResponseListener() {
+
+            @Override
+            public void onResponse(BeaconResponseTo response) {
+                res.add(response);
+            }
+        });
+
+        return res;
+    }
+
+    @Override
+    public boolean streamResults(String jobId, BeaconResponseListener listener) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+
+        readResults(job, 0, Long.MAX_VALUE, listener);
+
+        return true;
+    }
+
+    /**
+     * Appends responses to the results of a job.
+     */
+    private static class ResultWriter implements BeaconResponseListener {
+
+        private final Writer out;
+        private final Marshaller marshaller;
+        private long count = 0;
+
+        ResultWriter(Writer out) {
+            this.out = out;
+            try {
+                this.marshaller = CONTEXT.createMarshaller();
+                marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, "application/json");
+                marshaller.setProperty(MarshallerProperties.JSON_INCLUDE_ROOT, false);
+            } catch (JAXBException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public void onResponse(BeaconResponseTo response) {
+            StringWriter json = new StringWriter();
+            try {
+                marshaller.marshal(response, json);
+                out.write(json + "\n");
+            } catch (JAXBException | IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            count++;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.Scheduler;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+
+import static com.dnastack.bob.util.Constants.PENDING_SIZE;
+import static com.dnastack.bob.util.Constants.PENDING_TTL;
+
+/**
+ * Short-lived store of queries whose partial results have been returned to the clients, so that the remaining
+ * responses can be retrieved later by a continuation token. A query is kept until a while after its deadline, the
+ * oldest queries are dropped if the store is full. Nobody waits for a stored query, so its upstream queries are
+ * cancelled once its deadline passes or once it is dropped.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@ApplicationScoped
+@Named
+public class PendingQueryStore implements Serializable {
+
+    private static final long serialVersionUID = 121L;
+
+    private final transient Map<String, Entry> queries = new LinkedHashMap<>();
+
+    private static class Entry {
+
+        private final BeaconQueryExecution execution;
+        private final long expiration;
+
+        Entry(BeaconQueryExecution execution, long expiration) {
+            this.execution = execution;
+            this.expiration = expiration;
+        }
+    }
+
+    private void purge(long now, Collection<Entry> removed) {
+        for (Iterator<Entry> it = queries.values().iterator(); it.hasNext();) {
+            Entry e = it.next();
+            if (e.expiration <= now) {
+                it.remove();
+                removed.add(e);
+            }
+        }
+    }
+
+    /**
+     * Stores a query in progress.
+     *
+     * @param e        query execution
+     * @param deadline deadline of the query
+     *
+     * @return continuation token of the query (null if queries are not stored)
+     */
+    public String put(final BeaconQueryExecution e, Deadline deadline) {
+        long remaining = deadline.getRemaining(TimeUnit.MILLISECONDS);
+        List<Entry> removed = new ArrayList<>();
+        String token = null;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            purge(now, removed);
+            if (PENDING_SIZE > 0) {
+                while (queries.size() >= PENDING_SIZE) {
+                    Iterator<Entry> it = queries.values().iterator();
+                    removed.add(it.next());
+                    it.remove();
+                }
+
+                token = UUID.randomUUID().toString();
+                queries.put(token, new Entry(e, now + remaining + TimeUnit.SECONDS.toMillis(PENDING_TTL)));
+            }
+        }
+
+        // cancel outside of the lock, cancellation runs the listeners of the queries
+        for (Entry r : removed) {
+            r.execution.cancel();
+        }
+        if (token != null) {
+            Scheduler.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    e.cancel();
+                }
+            }, remaining, TimeUnit.MILLISECONDS);
+        }
+
+        return token;
+    }
+
+    /**
+     * Retrieves a stored query.
+     *
+     * @param token continuation token
+     *
+     * @return query execution, null if not found or expired
+     */
+    public synchronized BeaconQueryExecution get(String token) {
+        Entry e = (token == null) ? null : queries.get(token);
+        if (e == null || e.expiration <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        return e.execution;
+    }
+
+    public synchronized int size() {
+        return queries.size();
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.cache.HeavyHitters;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.util.Deadline;
+import com.dnastack.bob.util.HttpUtils;
+import com.dnastack.bob.util.TokenBucket;
+import com.google.common.base.Splitter;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ejb.LocalBean;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import org.apache.http.pool.PoolStats;
+
+import static com.dnastack.bob.util.Constants.PREFETCH_INTERVAL;
+import static com.dnastack.bob.util.Constants.PREFETCH_LOG;
+import static com.dnastack.bob.util.Constants.PREFETCH_MAX_LOAD;
+import static com.dnastack.bob.util.Constants.PREFETCH_MAX_QUERIES;
+import static com.dnastack.bob.util.Constants.PREFETCH_SIZE;
+
+/**
+ * Keeps responses to the most popular queries cached. Queries of the clients (seen live or replayed from an access
+ * log) are counted by a {@link HeavyHitters} sketch, the most frequent ones are periodically prefetched into the
+ * response cache for every beacon whose response is missing or stale. Prefetching runs on a container timer and only
+ * while the connection pool is lightly used and no beacon host has requests waiting for its rate limit, so it never
+ * competes with the clients for the upstream budget.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@Singleton
+@Startup
+@LocalBean
+@Lock(LockType.READ)
+public class QueryPrefetcher {
+
+    private static final String CLIENT = "prefetch";
+    private static final Pattern LOGGED_REQUEST = Pattern.compile("\\bGET (\\S*/responses\\S*)");
+
+    private final HeavyHitters<Query> hitters = new HeavyHitters<>(PREFETCH_SIZE);
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean replayed = PREFETCH_LOG == null;
+    private volatile long lastPrefetch = System.nanoTime();
+
+    @Inject
+    private BeaconResponseServiceImpl beaconResponseService;
+
+    @Schedule(hour = "*", minute = "*", second = "*/10", persistent = false)
+    public void prefetchHotQueries() {
+        if (PREFETCH_SIZE <= 0 || !running.compareAndSet(false, true)) {
+            // disabled or the previous round is still running
+            return;
+        }
+
+        try {
+            // the access log is replayed off the deployment thread
+            if (!replayed) {
+                replayed = true;
+                replay(new File(PREFETCH_LOG));
+            }
+            if (System.nanoTime() - lastPrefetch >= TimeUnit.SECONDS.toNanos(PREFETCH_INTERVAL)) {
+                lastPrefetch = System.nanoTime();
+                prefetch();
+            }
+        } catch (RuntimeException ex) {
+            // ignore, try again in the next round
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static Map<String, String> parseParameters(String queryString) {
+        Map<String, String> res = new HashMap<>();
+        for (String p : Splitter.on('&').omitEmptyStrings().split(queryString)) {
+            List<String> kv = Splitter.on('=').limit(2).splitToList(p);
+            if (kv.size() == 2) {
+                try {
+                    res.put(kv.get(0), URLDecoder.decode(kv.get(1), StandardCharsets.UTF_8.name()));
+                } catch (UnsupportedEncodingException | IllegalArgumentException ex) {
+                    // ignore, malformed parameter
+                }
+            }
+        }
+
+        return res;
+    }
+
+    private static boolean isIdle() {
+        PoolStats s = HttpUtils.getTotalStats();
+        if ((long) s.getLeased() * 100 >= (long) s.getMax() * PREFETCH_MAX_LOAD) {
+            return false;
+        }
+        for (TokenBucket b : TokenBucket.getAll().values()) {
+            if (b.getQueued() > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void replay(File log) {
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(log), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                Matcher m = LOGGED_REQUEST.matcher(line);
+                if (m.find()) {
+                    recordRequest(m.group(1));
+                }
+            }
+        } catch (IOException ex) {
+            // ignore, only live queries are counted
+        }
+    }
+
+    private void prefetch() {
+        if (!isIdle()) {
+            return;
+        }
+
+        int budget = PREFETCH_MAX_QUERIES;
+        Deadline deadline = Deadline.getDefault().forClient(CLIENT);
+        for (HeavyHitters.Counted<Query> c : hitters.getTop()) {
+            if (budget <= 0) {
+                break;
+            }
+            budget -= beaconResponseService.prefetch(c.getKey(), deadline, budget);
+        }
+    }
+
+    /**
+     * Counts a query.
+     *
+     * @param chrom  chromosome
+     * @param pos    position
+     * @param allele allele
+     * @param ref    reference genome (optional)
+     */
+    public void record(String chrom, String pos, String allele, String ref) {
+        if (PREFETCH_SIZE <= 0 || pos == null) {
+            return;
+        }
+
+        Query q;
+        try {
+            q = beaconResponseService.normalizeQuery(chrom, Long.valueOf(pos), allele, ref);
+        } catch (NumberFormatException ex) {
+            return;
+        }
+        if (q != null) {
+            hitters.add(q);
+        }
+    }
+
+    /**
+     * Counts the query of a request for beacon responses.
+     *
+     * @param url path of the request including the query string
+     */
+    public void recordRequest(String url) {
+        int i = url.indexOf('?');
+        if (i < 0 || !url.substring(0, i).contains("/responses")) {
+            return;
+        }
+
+        Map<String, String> p = parseParameters(url.substring(i + 1));
+        record(p.get("chrom"), p.get("pos"), p.get("allele"), p.get("ref"));
+    }
+
+    /**
+     * Obtains the most popular queries.
+     *
+     * @return queries with their estimated frequencies, the most popular first
+     */
+    public List<HeavyHitters.Counted<Query>> getHotQueries() {
+        return hitters.getTop();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.cache.BeaconResponseCache;
+import com.dnastack.bob.cache.PersistentResponseStore;
+import com.dnastack.bob.cache.TinyLfuCache;
+import com.dnastack.bob.dto.BulkheadStatsTo;
+import com.dnastack.bob.dto.CacheStatsTo;
+import com.dnastack.bob.dto.CircuitBreakerStatsTo;
+import com.dnastack.bob.dto.ConnectionPoolStatsTo;
+import com.dnastack.bob.dto.HedgeStatsTo;
+import com.dnastack.bob.dto.PrefetchStatsTo;
+import com.dnastack.bob.dto.RateLimitStatsTo;
+import com.dnastack.bob.cache.HeavyHitters;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.util.Bulkhead;
+import com.dnastack.bob.util.CircuitBreaker;
+import com.dnastack.bob.util.CircuitBreakerRegistry;
+import com.dnastack.bob.util.Entity2ToConvertor;
+import com.dnastack.bob.util.ConcurrencyLimiter;
+import com.dnastack.bob.util.HedgeStats;
+import com.dnastack.bob.util.HttpUtils;
+import com.dnastack.bob.util.RequestHedging;
+import com.dnastack.bob.util.TokenBucket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Basic implementation of the statistics service.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+@RequestScoped
+public class StatisticsServiceImpl implements StatisticsService {
+
+    public static final String TOTAL = "total";
+
+    @Inject
+    private BeaconResponseCache responseCache;
+
+    @Inject
+    private QueryPrefetcher queryPrefetcher;
+
+    private static ConnectionPoolStatsTo getConnectionPoolStatsTo(String route, PoolStats s, Collection<ConcurrencyLimiter> ls) {
+        int limit = 0;
+        int queued = 0;
+        long rejected = 0;
+        for (ConcurrencyLimiter l : ls) {
+            limit += l.getLimit();
+            queued += l.getQueued();
+            rejected += l.getRejected();
+        }
+
+        return new ConnectionPoolStatsTo(route, s.getLeased(), s.getAvailable(), s.getPending(), s.getMax(), limit, queued, rejected);
+    }
+
+    @Override
+    public Collection<ConnectionPoolStatsTo> getConnectionPoolStats() {
+        Map<String, ConcurrencyLimiter> limiters = ConcurrencyLimiter.getAll();
+
+        List<ConnectionPoolStatsTo> res = new ArrayList<>();
+        res.add(getConnectionPoolStatsTo(TOTAL, HttpUtils.getTotalStats(), limiters.values()));
+        for (Entry<String, PoolStats> e : HttpUtils.getRouteStats().entrySet()) {
+            String route = e.getKey();
+            ConcurrencyLimiter l = limiters.get(route);
+            res.add(getConnectionPoolStatsTo(route, e.getValue(), (l == null) ? Collections.<ConcurrencyLimiter>emptySet() : Collections.singleton(l)));
+        }
+
+        return res;
+    }
+
+    @Override
+    public CacheStatsTo getCacheStats() {
+        TinyLfuCache<?, ?> c = responseCache.getCache();
+        long hits = c.getHits();
+        long misses = c.getMisses();
+        long loads = c.getLoads();
+        double hitRate = (hits + misses == 0) ? 0 : (double) hits / (hits + misses);
+        double loadTime = (loads == 0) ? 0 : (double) c.getLoadTime(TimeUnit.MICROSECONDS) / loads / 1000;
+
+        PersistentResponseStore s = responseCache.getStore();
+        if (s == null) {
+            return new CacheStatsTo(c.size(), c.getMaximumSize(), hits, misses, hitRate, c.getEvictions(), loads, loadTime, 0, 0, 0, 0, 0);
+        }
+
+        return new CacheStatsTo(c.size(), c.getMaximumSize(), hits, misses, hitRate, c.getEvictions(), loads, loadTime, s.size(), s.getUsedBytes(), s.getCapacity(), s.getHits(), s.getCompactions());
+    }
+
+    @Override
+    public Collection<CircuitBreakerStatsTo> getCircuitBreakerStats() {
+        List<CircuitBreakerStatsTo> res = new ArrayList<>();
+        for (CircuitBreaker b : CircuitBreakerRegistry.getAll().values()) {
+            res.add(new CircuitBreakerStatsTo(b.getName(), b.getState().toString(), b.getFailureRate(), b.getSlowCallRate(), b.getBufferedCalls(), b.getNotPermittedCalls()));
+        }
+
+        return res;
+    }
+
+    @Override
+    public Collection<HedgeStatsTo> getHedgeStats() {
+        List<HedgeStatsTo> res = new ArrayList<>();
+        for (HedgeStats s : RequestHedging.getAllStats().values()) {
+            res.add(new HedgeStatsTo(s.getName(), s.getRequests(), s.getHedges(), s.getWins()));
+        }
+
+        return res;
+    }
+
+    @Override
+    public Collection<RateLimitStatsTo> getRateLimitStats() {
+        List<RateLimitStatsTo> res = new ArrayList<>();
+        for (TokenBucket b : TokenBucket.getAll().values()) {
+            res.add(new RateLimitStatsTo(b.getName(), b.getRate(), b.getQueued(), b.getGranted(), b.getRejected(), b.getAverageWaitTime(TimeUnit.MILLISECONDS)));
+        }
+
+        return res;
+    }
+
+    @Override
+    public Collection<BulkheadStatsTo> getBulkheadStats() {
+        List<BulkheadStatsTo> res = new ArrayList<>();
+        for (Bulkhead b : Bulkhead.getAll().values()) {
+            res.add(new BulkheadStatsTo(b.getName(), b.getThreads(), b.getActive(), b.getQueued(), b.getCompleted(), b.getRejected()));
+        }
+
+        return res;
+    }
+
+    @Override
+    public Collection<PrefetchStatsTo> getPrefetchStats() {
+        List<PrefetchStatsTo> res = new ArrayList<>();
+        for (HeavyHitters.Counted<Query> c : queryPrefetcher.getHotQueries()) {
+            res.add(new PrefetchStatsTo(Entity2ToConvertor.getQueryTo(c.getKey()), c.getCount()));
+        }
+
+        return res;
+    }
+
+}
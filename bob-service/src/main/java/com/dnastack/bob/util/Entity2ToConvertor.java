@@ -129,7 +129,15 @@ public class Entity2ToConvertor {
      * @return beacon response TO
      */
     public static BeaconResponseTo getBeaconResponseTo(BeaconResponse br) {
-        return (br == null) ? null : new BeaconResponseTo(getBeaconTo(br.getBeacon()), getQueryTo(br.getQuery()), br.getResponse());
+        if (br == null) {
+            return null;
+        }
+
+        BeaconResponseTo res = new BeaconResponseTo(getBeaconTo(br.getBeacon()), getQueryTo(br.getQuery()), br.getResponse());
+        res.setStale(br.isStale());
+        res.setPending(br.isPending());
+
+        return res;
     }
 
     /**
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the tracker of the most frequent keys.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class HeavyHittersTest {
+
+    @Test
+    public void testMostFrequentKeysKept() {
+        HeavyHitters<String> h = new HeavyHitters<>(3);
+        // popular keys interleaved with a long tail of keys seen once
+        for (int i = 0; i < 100; i++) {
+            h.add("a");
+            if (i % 2 == 0) {
+                h.add("b");
+            }
+            if (i % 5 == 0) {
+                h.add("c");
+            }
+            h.add("tail-" + i);
+            h.add("tail-" + (i + 100));
+        }
+
+        List<HeavyHitters.Counted<String>> top = h.getTop();
+        assertEquals(3, top.size());
+        assertEquals("a", top.get(0).getKey());
+        assertEquals("b", top.get(1).getKey());
+        assertEquals("c", top.get(2).getKey());
+        // estimates never undercount
+        assertTrue(top.get(0).getCount() >= 100);
+        assertTrue(top.get(1).getCount() >= 50);
+        assertTrue(top.get(2).getCount() >= 20);
+    }
+
+    @Test
+    public void testCountsAge() {
+        HeavyHitters<String> h = new HeavyHitters<>(1);
+        // the sketch of a single key is 64 counters wide, counters are halved every 640 samples
+        for (int i = 0; i < 600; i++) {
+            h.add("old");
+        }
+        assertEquals(600, h.getTop().get(0).getCount());
+        for (int i = 0; i < 40; i++) {
+            h.add("new-" + i);
+        }
+
+        // a key which is no longer asked for fades out
+        assertEquals("old", h.getTop().get(0).getKey());
+        assertEquals(300, h.getTop().get(0).getCount());
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.cache;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.Chromosome;
+import com.dnastack.bob.entity.Query;
+import com.dnastack.bob.entity.Reference;
+import com.dnastack.bob.util.BeaconQueryKey;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the persistent store of beacon responses.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class PersistentResponseStoreTest {
+
+    private static final int CAPACITY = 1024 * 1024;
+    private static final long TTL = 60 * 1000;
+
+    private File dir;
+    private File file;
+
+    private static BeaconQueryKey createKey(int i) {
+        return BeaconQueryKey.of(new Beacon("persistent", "Persistent"), new Query(Chromosome.CHR1, 10000L + i, "T", Reference.HG19));
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bob-store").toFile();
+        file = new File(dir, "responses.dat");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            store.put(createKey(0), true, TTL);
+            store.put(createKey(1), false, TTL);
+
+            assertEquals(2, store.size());
+            assertTrue(store.get(createKey(0), TTL).getResponse());
+            assertFalse(store.get(createKey(1), TTL).getResponse());
+            assertNull(store.get(createKey(2), TTL));
+
+            // a newer response supersedes the older one
+            store.put(createKey(0), false, TTL);
+            assertEquals(2, store.size());
+            assertFalse(store.get(createKey(0), TTL).getResponse());
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            store.put(createKey(0), true, TTL);
+            store.put(createKey(1), false, TTL);
+            store.put(createKey(0), false, TTL);
+        }
+
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            assertEquals(2, store.size());
+            assertFalse(store.get(createKey(0), TTL).getResponse());
+            assertFalse(store.get(createKey(1), TTL).getResponse());
+        }
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws IOException {
+        long used;
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            store.put(createKey(0), true, TTL);
+            used = store.getUsedBytes();
+            store.put(createKey(1), true, TTL);
+        }
+
+        // damage the checksum of the last record, as if the process died while writing it
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(8);
+            long end = raf.readLong();
+            raf.seek(end - 1);
+            int b = raf.read();
+            raf.seek(end - 1);
+            raf.write(b ^ 0xff);
+        }
+
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            assertEquals(1, store.size());
+            assertEquals(used, store.getUsedBytes());
+            assertTrue(store.get(createKey(0), TTL).getResponse());
+            assertNull(store.get(createKey(1), TTL));
+
+            // the torn record is overwritten
+            store.put(createKey(2), false, TTL);
+            assertEquals(2 * used, store.getUsedBytes());
+            assertFalse(store.get(createKey(2), TTL).getResponse());
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLiveEntries() throws Exception {
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            store.put(createKey(0), true, TTL);
+            long record = store.getUsedBytes();
+            store.put(createKey(0), false, TTL);
+            store.put(createKey(1), true, TTL);
+            store.put(createKey(2), true, 1);
+            Thread.sleep(10);
+
+            // only the latest records of the unexpired keys are kept
+            store.compact();
+            assertEquals(1, store.getCompactions());
+            assertEquals(2, store.size());
+            assertEquals(2 * record, store.getUsedBytes());
+            assertFalse(store.get(createKey(0), TTL).getResponse());
+            assertTrue(store.get(createKey(1), TTL).getResponse());
+            assertNull(store.get(createKey(2), TTL));
+        }
+
+        assertFalse(new File(file.getPath() + ".compact").exists());
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            assertEquals(2, store.size());
+            assertFalse(store.get(createKey(0), TTL).getResponse());
+            assertTrue(store.get(createKey(1), TTL).getResponse());
+        }
+    }
+
+    @Test
+    public void testFullStoreCompacted() throws IOException {
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, 0)) {
+            store.put(createKey(0), true, TTL);
+            long record = store.getUsedBytes();
+            for (long i = 0; i <= store.getCapacity() / record; i++) {
+                store.put(createKey(1), i % 2 == 0, TTL);
+            }
+
+            // superseded records made room for the last one
+            assertEquals(1, store.getCompactions());
+            assertEquals(2, store.size());
+            assertTrue(store.get(createKey(0), TTL).getResponse());
+            assertNotNull(store.get(createKey(1), TTL));
+        }
+    }
+
+    @Test
+    public void testIndexGrowth() throws IOException {
+        // many more keys than the initial number of index slots
+        int n = 5000;
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            for (int i = 0; i < n; i++) {
+                store.put(createKey(i), i % 2 == 0, TTL);
+            }
+
+            assertEquals(n, store.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i % 2 == 0, store.get(createKey(i), TTL).getResponse());
+            }
+        }
+
+        try (PersistentResponseStore store = PersistentResponseStore.open(file, CAPACITY)) {
+            assertEquals(n, store.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i % 2 == 0, store.get(createKey(i), TTL).getResponse());
+            }
+        }
+    }
+
+}
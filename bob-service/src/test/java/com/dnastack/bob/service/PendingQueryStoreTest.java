@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 DNAstack.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.dnastack.bob.service;
+
+import com.dnastack.bob.entity.Beacon;
+import com.dnastack.bob.entity.BeaconResponse;
+import com.dnastack.bob.util.Constants;
+import com.dnastack.bob.util.Deadline;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the store of pending queries.
+ *
+ * @author Miroslav Cupak (mirocupak@gmail.com)
+ * @version 1.0
+ */
+public class PendingQueryStoreTest {
+
+    private static BeaconQueryExecution createExecution(SettableFuture<Boolean> f) {
+        // the store only cancels the upstream queries of an execution
+        return new BeaconQueryExecution(Collections.<Beacon, BeaconResponse>emptyMap(), Collections.<Beacon, ListenableFuture<Boolean>>emptyMap(), Collections.singletonList(f), Collections.<Beacon>emptySet());
+    }
+
+    @Test
+    public void testQueryCancelledAtDeadline() throws Exception {
+        PendingQueryStore store = new PendingQueryStore();
+        SettableFuture<Boolean> f = SettableFuture.create();
+
+        assertNotNull(store.put(createExecution(f), Deadline.after(100, TimeUnit.MILLISECONDS)));
+        assertFalse(f.isCancelled());
+
+        // nobody waits for the query once its deadline passes
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail("The query has not been cancelled at its deadline.");
+        } catch (CancellationException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEvictedQueryCancelled() {
+        PendingQueryStore store = new PendingQueryStore();
+        List<SettableFuture<Boolean>> fs = new ArrayList<>();
+        for (int i = 0; i <= Constants.PENDING_SIZE; i++) {
+            SettableFuture<Boolean> f = SettableFuture.create();
+            fs.add(f);
+            store.put(createExecution(f), Deadline.after(10, TimeUnit.SECONDS));
+        }
+
+        // the oldest query is dropped to make room for the last one
+        assertTrue(fs.get(0).isCancelled());
+        for (int i = 1; i < fs.size(); i++) {
+            assertFalse(fs.get(i).isCancelled());
+        }
+    }
+
+}